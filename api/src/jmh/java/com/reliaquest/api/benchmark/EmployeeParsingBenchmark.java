@@ -0,0 +1,57 @@
+package com.reliaquest.api.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reliaquest.api.entity.EmployeeResponses;
+import com.reliaquest.api.utils.EmployeeAPIUtils;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Turning an upstream roster response into employees: binding the whole payload to {@link EmployeeResponses} against
+ * streaming it through {@link EmployeeAPIUtils#getAllEmployees(java.util.function.Consumer)}, as a roster load does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class EmployeeParsingBenchmark {
+
+    @Param({"20", "10000", "1000000"})
+    public int rosterSize;
+
+    private ObjectMapper objectMapper;
+    private byte[] rosterJson;
+    private EmployeeAPIUtils employeeAPIUtils;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = RosterFixture.objectMapper();
+        rosterJson = RosterFixture.rosterJson(objectMapper, RosterFixture.employees(rosterSize));
+        employeeAPIUtils = RosterFixture.cannedUpstream(objectMapper, rosterJson);
+    }
+
+    @Benchmark
+    public EmployeeResponses bindEmployeeResponses() throws IOException {
+        return objectMapper.readValue(rosterJson, EmployeeResponses.class);
+    }
+
+    @Benchmark
+    public int streamAllEmployees(Blackhole blackhole) {
+        // The canned upstream sends no ETag, so every call fetches and parses the whole roster.
+        return employeeAPIUtils.getAllEmployees(blackhole::consume).size();
+    }
+}
@@ -0,0 +1,65 @@
+package com.reliaquest.api.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reliaquest.api.cache.EmployeeRosterCache;
+import com.reliaquest.api.entity.Employee;
+import com.reliaquest.api.services.EmployeeService;
+import com.reliaquest.api.utils.EmployeeAPIUtils;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The read endpoints of {@link EmployeeService} as a request sees them once the roster cache is warm.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class EmployeeServiceBenchmark {
+
+    @Param({"20", "10000", "1000000"})
+    public int rosterSize;
+
+    private EmployeeService employeeService;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = RosterFixture.objectMapper();
+        byte[] rosterJson = RosterFixture.rosterJson(objectMapper, RosterFixture.employees(rosterSize));
+        EmployeeAPIUtils employeeAPIUtils = RosterFixture.cannedUpstream(objectMapper, rosterJson);
+        EmployeeRosterCache employeeRosterCache =
+                new EmployeeRosterCache(employeeAPIUtils, Duration.ofDays(1), Integer.MAX_VALUE, Duration.ofDays(1));
+        employeeService = new EmployeeService(employeeAPIUtils, employeeRosterCache);
+        employeeService.getAllEmployees();
+    }
+
+    @Benchmark
+    public List<Employee> getEmployeesByNameSearch() {
+        return employeeService.getEmployeesByNameSearch("Purple");
+    }
+
+    @Benchmark
+    public int getHighestSalaryOfEmployees() {
+        return employeeService.getHighestSalaryOfEmployees();
+    }
+
+    @Benchmark
+    public List<String> getTopTenHighestEarningEmployeeNames() {
+        return employeeService.getTopTenHighestEarningEmployeeNames();
+    }
+}
@@ -0,0 +1,36 @@
+package com.reliaquest.api.benchmark;
+
+import com.reliaquest.api.entity.CreateEmployeeDTO;
+import com.reliaquest.api.validator.InputValidator;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InputValidatorBenchmark {
+
+    private final Map<String, Object> employeeInput = Map.of(
+            "name", "Alice Brown",
+            "salary", "55000",
+            "age", "29",
+            "title", "Software Engineer",
+            "email", "alicebrown@reliaquest.com");
+
+    @Benchmark
+    public CreateEmployeeDTO convertAndValidateEmployeeInput() {
+        return InputValidator.convertAndValidateEmployeeInput(employeeInput);
+    }
+}
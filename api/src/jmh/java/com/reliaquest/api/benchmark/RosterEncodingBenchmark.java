@@ -0,0 +1,92 @@
+package com.reliaquest.api.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.reliaquest.api.utils.EmployeeAPIUtils;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.http.MediaType;
+
+/**
+ * The roster in each encoding the mock server and the api can agree on, with and without the gzip Tomcat applies:
+ * encoding it as the server writes its answer, and parsing it as the api reads it through
+ * {@link EmployeeAPIUtils#getAllEmployees(java.util.function.Consumer)}. The bytes on the wire for each combination are printed once per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class RosterEncodingBenchmark {
+
+    @Param({"10000", "1000000"})
+    public int rosterSize;
+
+    @Param({"json", "smile", "cbor"})
+    public String format;
+
+    @Param({"false", "true"})
+    public boolean gzip;
+
+    private ObjectMapper encoder;
+    private ObjectNode roster;
+    private byte[] payload;
+    private EmployeeAPIUtils employeeAPIUtils;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = RosterFixture.objectMapper();
+        MediaType contentType;
+        switch (format) {
+            case "smile" -> {
+                encoder = objectMapper.copyWith(new SmileFactory());
+                contentType = MediaType.valueOf("application/x-jackson-smile");
+            }
+            case "cbor" -> {
+                encoder = objectMapper.copyWith(new CBORFactory());
+                contentType = MediaType.APPLICATION_CBOR;
+            }
+            default -> {
+                encoder = objectMapper;
+                contentType = MediaType.APPLICATION_JSON;
+            }
+        }
+        roster = RosterFixture.rosterDocument(objectMapper, RosterFixture.employees(rosterSize));
+        payload = encode();
+        System.out.printf("%n%d employees as %s%s: %d bytes on the wire%n", rosterSize, format, gzip ? " + gzip" : "",
+                payload.length);
+        employeeAPIUtils = RosterFixture.cannedUpstream(objectMapper, payload, contentType, format, gzip);
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(payload == null ? rosterSize * 64 : payload.length);
+        try (OutputStream body = gzip ? new GZIPOutputStream(out, 64 * 1024) : out) {
+            encoder.writeValue(body, roster);
+        }
+        return out.toByteArray();
+    }
+
+    @Benchmark
+    public int decode(Blackhole blackhole) {
+        return employeeAPIUtils.getAllEmployees(blackhole::consume).size();
+    }
+}
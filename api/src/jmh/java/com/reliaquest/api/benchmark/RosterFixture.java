@@ -0,0 +1,199 @@
+package com.reliaquest.api.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.reliaquest.api.configurations.RateLimitProperties;
+import com.reliaquest.api.entity.Employee;
+import com.reliaquest.api.ratelimit.UpstreamRateLimiter;
+import com.reliaquest.api.utils.EmployeeAPIUtils;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.AbstractClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Deterministic rosters for the benchmarks, and an {@link EmployeeAPIUtils} whose upstream answers every request with
+ * a canned response body instead of going over the network.
+ */
+final class RosterFixture {
+
+    static final String[] FIRST_NAMES = {
+        "Alice", "Bob", "Carol", "David", "Eva", "Frank", "Grace", "Henry", "Irene", "Jacob",
+        "Karen", "Liam", "Maria", "Nina", "Oscar", "Paula", "Quinn", "Rosa", "Sam", "Tina"
+    };
+    static final String[] LAST_NAMES = {
+        "Brown", "Smith", "Purple", "White", "Silver", "Gray", "Black", "Green", "Stone", "Rivers",
+        "Hill", "Ford", "Lane", "Wood", "Marsh", "Frost", "Reed", "Cole", "Shaw", "Wells"
+    };
+
+    private RosterFixture() {}
+
+    static ObjectMapper objectMapper() {
+        return new ObjectMapper().findAndRegisterModules();
+    }
+
+    static List<Employee> employees(int size) {
+        Random random = new Random(42);
+        List<Employee> employees = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            String firstName = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+            String lastName = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+            employees.add(new Employee(
+                    new UUID(random.nextLong(), random.nextLong()).toString(),
+                    firstName + " " + lastName,
+                    Integer.toString(30_000 + random.nextInt(200_000)),
+                    Integer.toString(18 + random.nextInt(50)),
+                    "Engineer",
+                    firstName.toLowerCase() + "." + lastName.toLowerCase() + i + "@reliaquest.com"));
+        }
+        return employees;
+    }
+
+    /**
+     * @return the roster as the upstream API sends it, with numeric salary and age
+     */
+    static byte[] rosterJson(ObjectMapper objectMapper, List<Employee> employees) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(employees.size() * 200 + 64);
+        objectMapper.writeValue(out, rosterDocument(objectMapper, employees));
+        return out.toByteArray();
+    }
+
+    /**
+     * @return the roster response as a tree, to be written in any encoding
+     */
+    static ObjectNode rosterDocument(ObjectMapper objectMapper, List<Employee> employees) {
+        ObjectNode root = objectMapper.createObjectNode();
+        ArrayNode data = root.putArray("data");
+        for (Employee employee : employees) {
+            ObjectNode node = data.addObject();
+            node.put("id", employee.getId());
+            node.put("employee_name", employee.getName());
+            node.put("employee_salary", Integer.parseInt(employee.getSalary()));
+            node.put("employee_age", Integer.parseInt(employee.getAge()));
+            node.put("employee_title", employee.getTitle());
+            node.put("employee_email", employee.getEmail());
+        }
+        root.put("status", "Successfully processed request.");
+        return root;
+    }
+
+    static EmployeeAPIUtils cannedUpstream(ObjectMapper objectMapper, byte[] responseBody) {
+        return cannedUpstream(objectMapper, responseBody, MediaType.APPLICATION_JSON, "json", false);
+    }
+
+    /**
+     * @param gzipped whether {@code responseBody} is gzipped, in which case it is gunzipped while being read, as the
+     *                Apache client does for a gzipped upstream response
+     */
+    static EmployeeAPIUtils cannedUpstream(ObjectMapper objectMapper, byte[] responseBody, MediaType contentType,
+                                           String rosterFormat, boolean gzipped) {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        // The canned upstream never throttles, so the limiter is only in the way of what is being measured.
+        RateLimitProperties rateLimit = new RateLimitProperties(
+                false, 1, 1, Duration.ZERO, Duration.ZERO, Duration.ZERO, Duration.ZERO);
+        return new EmployeeAPIUtils(
+                new RestTemplate(new CannedResponseFactory(responseBody, contentType, gzipped)),
+                objectMapper,
+                meterRegistry,
+                new UpstreamRateLimiter(rateLimit, meterRegistry),
+                rosterFormat);
+    }
+
+    private static final class CannedResponseFactory implements ClientHttpRequestFactory {
+
+        private final byte[] responseBody;
+        private final MediaType contentType;
+        private final boolean gzipped;
+
+        private CannedResponseFactory(byte[] responseBody, MediaType contentType, boolean gzipped) {
+            this.responseBody = responseBody;
+            this.contentType = contentType;
+            this.gzipped = gzipped;
+        }
+
+        @Override
+        public ClientHttpRequest createRequest(URI uri, HttpMethod httpMethod) {
+            return new AbstractClientHttpRequest() {
+                @Override
+                public HttpMethod getMethod() {
+                    return httpMethod;
+                }
+
+                @Override
+                public URI getURI() {
+                    return uri;
+                }
+
+                @Override
+                protected OutputStream getBodyInternal(HttpHeaders headers) {
+                    return OutputStream.nullOutputStream();
+                }
+
+                @Override
+                protected ClientHttpResponse executeInternal(HttpHeaders headers) {
+                    return new CannedResponse(responseBody, contentType, gzipped);
+                }
+            };
+        }
+    }
+
+    private static final class CannedResponse implements ClientHttpResponse {
+
+        private final byte[] body;
+        private final MediaType contentType;
+        private final boolean gzipped;
+
+        private CannedResponse(byte[] body, MediaType contentType, boolean gzipped) {
+            this.body = body;
+            this.contentType = contentType;
+            this.gzipped = gzipped;
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() {
+            return HttpStatus.OK;
+        }
+
+        @Override
+        public String getStatusText() {
+            return HttpStatus.OK.getReasonPhrase();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            HttpHeaders headers = new HttpHeaders();
+            headers.setContentType(contentType);
+            headers.setContentLength(body.length);
+            return headers;
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            InputStream in = new ByteArrayInputStream(body);
+            return gzipped ? new GZIPInputStream(in) : in;
+        }
+
+        @Override
+        public void close() {}
+    }
+}
@@ -0,0 +1,105 @@
+package com.reliaquest.api.benchmark;
+
+import com.reliaquest.api.entity.CompactEmployee;
+import com.reliaquest.api.entity.Employee;
+import com.reliaquest.api.index.SalaryIndex;
+import com.reliaquest.api.index.SalaryOrder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the salary analytics as they used to be computed, parsing the {@code String} salary on every call and on
+ * every comparison, against the {@link CompactEmployee} path where salaries are parsed once, when the salary index
+ * is built.
+ *
+ * <p>Run with {@code ./gradlew api:jmh -PjmhArgs=SalaryAnalyticsBenchmark}; the task's GC profiler reports allocations
+ * per call.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SalaryAnalyticsBenchmark {
+
+    @Param({"1000", "100000"})
+    public int rosterSize;
+
+    private List<Employee> employees;
+    private SalaryIndex salaryIndex;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        employees = new ArrayList<>(rosterSize);
+        for (int i = 0; i < rosterSize; i++) {
+            employees.add(new Employee(
+                    new UUID(random.nextLong(), random.nextLong()).toString(),
+                    "Employee " + i,
+                    Integer.toString(30_000 + random.nextInt(200_000)),
+                    Integer.toString(18 + random.nextInt(50)),
+                    "Engineer",
+                    "employee" + i + "@reliaquest.com"));
+        }
+        salaryIndex = SalaryIndex.of(ingest());
+    }
+
+    @Benchmark
+    public int highestSalary_parsingStrings() {
+        return employees.stream()
+                .mapToInt(employee -> Integer.parseInt(employee.getSalary()))
+                .max()
+                .orElse(0);
+    }
+
+    @Benchmark
+    public List<String> topTen_parsingStrings() {
+        return employees.stream()
+                .sorted((e1, e2) -> Integer.compare(Integer.parseInt(e2.getSalary()), Integer.parseInt(e1.getSalary())))
+                .limit(10)
+                .map(Employee::getName)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public int highestSalary_compact() {
+        return salaryIndex.highestSalary();
+    }
+
+    @Benchmark
+    public List<String> topTen_compact() {
+        return salaryIndex.top(10, SalaryOrder.DESC).stream()
+                .map(CompactEmployee::name)
+                .collect(Collectors.toList());
+    }
+
+    /** The one-off cost paid per roster snapshot for the two benchmarks above. */
+    @Benchmark
+    public SalaryIndex ingestAndIndex_compact() {
+        return SalaryIndex.of(ingest());
+    }
+
+    private List<CompactEmployee> ingest() {
+        List<CompactEmployee> compactEmployees = new ArrayList<>(employees.size());
+        for (Employee employee : employees) {
+            compactEmployees.add(CompactEmployee.from(employee));
+        }
+        return compactEmployees;
+    }
+}
@@ -0,0 +1,186 @@
+package com.reliaquest.api.benchmark;
+
+import com.reliaquest.api.cache.EmployeeRosterCache;
+import com.reliaquest.api.entity.Employee;
+import com.reliaquest.api.services.EmployeeService;
+import com.reliaquest.api.utils.EmployeeAPIUtils;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+/**
+ * Blocking {@link EmployeeService#getEmployeeById} calls against an upstream that takes {@code upstreamLatencyMillis}
+ * to answer, with {@code inFlight} requests outstanding at once: served either by a pool of 200 platform threads, like
+ * Tomcat's default, or by a virtual thread per request as with {@code spring.threads.virtual.enabled}.
+ *
+ * <p>The {@code requests} counter is the request throughput. Memory per in-flight request is printed once per trial:
+ * the resident set and heap growth with {@code inFlight} threads of the chosen kind parked at once, divided by
+ * {@code inFlight}. Virtual threads need Java 21: run with {@code ./gradlew -PjavaVersion=21 api:jmh
+ * -PjmhArgs='VirtualThreadBenchmark'}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class VirtualThreadBenchmark {
+
+    private static final int TOMCAT_MAX_THREADS = 200;
+
+    @Param({"platform", "virtual"})
+    public String threads;
+
+    @Param({"200", "2000"})
+    public int inFlight;
+
+    @Param({"20"})
+    public int upstreamLatencyMillis;
+
+    private EmployeeService employeeService;
+    private ExecutorService platformPool;
+    private SimpleAsyncTaskExecutor virtualThreadPerRequest;
+    private final AtomicLong nextId = new AtomicLong();
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Requests {
+        public long requests;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            requests = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        Duration latency = Duration.ofMillis(upstreamLatencyMillis);
+        EmployeeAPIUtils slowUpstream = new EmployeeAPIUtils(null, null, new SimpleMeterRegistry(), null) {
+            @Override
+            public Employee getEmployeeById(String id) {
+                sleep(latency);
+                return new Employee(id, "Alice Brown", "55000", "29", "Software Engineer", "alicebrown@reliaquest.com");
+            }
+        };
+        // Nothing is retained, so every request goes upstream.
+        EmployeeRosterCache cache = new EmployeeRosterCache(slowUpstream, Duration.ZERO, 0, Duration.ZERO);
+        employeeService = new EmployeeService(slowUpstream, cache);
+
+        if ("virtual".equals(threads)) {
+            virtualThreadPerRequest = new SimpleAsyncTaskExecutor("request-");
+            virtualThreadPerRequest.setVirtualThreads(true);
+        } else {
+            platformPool = Executors.newFixedThreadPool(TOMCAT_MAX_THREADS);
+        }
+        printMemoryPerInFlightRequest();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (platformPool != null) {
+            platformPool.shutdownNow();
+        }
+    }
+
+    @Benchmark
+    public void serveInFlightRequests(Requests requests) throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(inFlight);
+        for (int i = 0; i < inFlight; i++) {
+            String id = Long.toString(nextId.incrementAndGet());
+            Runnable request = () -> {
+                try {
+                    employeeService.getEmployeeById(id);
+                } finally {
+                    done.countDown();
+                }
+            };
+            if (virtualThreadPerRequest != null) {
+                virtualThreadPerRequest.execute(request);
+            } else {
+                platformPool.execute(request);
+            }
+        }
+        done.await();
+        requests.requests += inFlight;
+    }
+
+    private void printMemoryPerInFlightRequest() throws Exception {
+        SimpleAsyncTaskExecutor threadPerRequest = new SimpleAsyncTaskExecutor("probe-");
+        threadPerRequest.setVirtualThreads("virtual".equals(threads));
+        CountDownLatch parked = new CountDownLatch(inFlight);
+        CountDownLatch release = new CountDownLatch(1);
+
+        long rssBefore = residentSetBytes();
+        long heapBefore = usedHeapBytes();
+        for (int i = 0; i < inFlight; i++) {
+            threadPerRequest.execute(() -> {
+                parked.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        parked.await();
+        long rssPerRequest = (residentSetBytes() - rssBefore) / inFlight;
+        long heapPerRequest = (usedHeapBytes() - heapBefore) / inFlight;
+        release.countDown();
+
+        System.out.printf("%n%s threads, %d in flight: %s resident, %d bytes heap per in-flight request%n", threads,
+                inFlight, rssBefore < 0 ? "n/a" : rssPerRequest + " bytes", heapPerRequest);
+    }
+
+    private static long usedHeapBytes() {
+        System.gc();
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * @return VmRSS from /proc, or -1 where that is not available
+     */
+    private static long residentSetBytes() {
+        try {
+            for (String line : Files.readAllLines(Path.of("/proc/self/status"))) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("\\D", "")) * 1024;
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // Not Linux.
+        }
+        return -1;
+    }
+
+    private static void sleep(Duration latency) {
+        try {
+            Thread.sleep(latency.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.reliaquest.api.cache;
+
+/**
+ * Point-in-time counters of {@link EmployeeRosterCache}, used to tune TTL and size bounds.
+ */
+public record CacheStats(
+        long hits,
+        long misses,
+        long staleHits,
+        long loads,
+        long loadFailures,
+        long coalescedLoads,
+        long evictions,
+        long totalLoadTimeNanos,
+        int rosterSize,
+        int cachedByIdEntries) {
+
+    public double hitRate() {
+        long requests = hits + misses;
+        return requests == 0 ? 0.0 : (double) hits / requests;
+    }
+
+    public double averageLoadTimeMillis() {
+        return loads == 0 ? 0.0 : totalLoadTimeNanos / 1_000_000.0 / loads;
+    }
+}
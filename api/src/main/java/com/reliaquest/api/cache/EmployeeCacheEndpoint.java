@@ -0,0 +1,30 @@
+package com.reliaquest.api.cache;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Exposes {@link EmployeeRosterCache} counters at {@code /actuator/employeecache}; a DELETE drops the cached roster.
+ */
+@Component
+@Endpoint(id = "employeecache")
+public class EmployeeCacheEndpoint {
+
+    private final EmployeeRosterCache employeeRosterCache;
+
+    public EmployeeCacheEndpoint(EmployeeRosterCache employeeRosterCache) {
+        this.employeeRosterCache = employeeRosterCache;
+    }
+
+    @ReadOperation
+    public CacheStats stats() {
+        return employeeRosterCache.stats();
+    }
+
+    @DeleteOperation
+    public void invalidate() {
+        employeeRosterCache.invalidate();
+    }
+}
@@ -0,0 +1,516 @@
+package com.reliaquest.api.cache;
+
+import com.reliaquest.api.entity.Employee;
+import com.reliaquest.api.exceptions.UpstreamRateLimitedException;
+import com.reliaquest.api.utils.EmployeeAPIUtils;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Local cache of the employee roster in front of {@link EmployeeAPIUtils}.
+ *
+ * <p>The whole roster is held as one {@link RosterSnapshot} that expires after {@code employee.cache.ttl}. Concurrent
+ * misses share a single upstream load, which after the first one only transfers the changes made upstream since the
+ * previous load. A load is only shared within the generation it started in: a miss after a local write or an
+ * {@link #invalidate()} never joins a load that started before it, so it always sees the write. Successful creates and deletes are written through to the cached snapshot with
+ * {@link #applyCreated(Employee)} and {@link #applyDeleted(String)}, so the next read sees them without a reload.
+ * Employees fetched individually by id are kept in a separate LRU map bounded by {@code employee.cache.max-entries};
+ * rosters larger than that bound are served but not retained.
+ *
+ * <p>While the upstream API is rate limiting us, expired entries up to {@code employee.cache.max-stale} old are served
+ * instead of failing the request.
+ *
+ * <p>The {@code ...Async} variants behave the same but take the upstream call as a future-returning loader, so a miss
+ * holds no thread while the roster is fetched. Blocking and async misses share the same single in-flight load.
+ */
+@Slf4j
+@Component
+public class EmployeeRosterCache {
+
+    private final EmployeeAPIUtils employeeAPIUtils;
+    private final long ttlNanos;
+    private final long maxStaleNanos;
+    private final int maxEntries;
+
+    private final AtomicReference<CachedRoster> roster = new AtomicReference<>();
+    private final AtomicReference<InFlightLoad> inFlightLoad = new AtomicReference<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final Map<String, CachedEmployee> employeesById;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder staleHits = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder loadFailures = new LongAdder();
+    private final LongAdder coalescedLoads = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder totalLoadTimeNanos = new LongAdder();
+
+    public EmployeeRosterCache(
+            EmployeeAPIUtils employeeAPIUtils,
+            @Value("${employee.cache.ttl:30s}") Duration ttl,
+            @Value("${employee.cache.max-entries:100000}") int maxEntries,
+            @Value("${employee.cache.max-stale:10m}") Duration maxStale) {
+        this.employeeAPIUtils = employeeAPIUtils;
+        this.ttlNanos = ttl.toNanos();
+        this.maxStaleNanos = maxStale.toNanos();
+        this.maxEntries = maxEntries;
+        this.employeesById = Collections.synchronizedMap(new LinkedHashMap<String, CachedEmployee>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedEmployee> eldest) {
+                boolean evict = size() > EmployeeRosterCache.this.maxEntries;
+                if (evict) {
+                    evictions.increment();
+                }
+                return evict;
+            }
+        });
+    }
+
+    public List<Employee> getAllEmployees() {
+        return currentSnapshot().getEmployees();
+    }
+
+    /**
+     * @return the cached roster if it is still fresh, otherwise {@code null}; never triggers a load
+     */
+    public RosterSnapshot getIfFresh() {
+        CachedRoster cached = roster.get();
+        if (isFresh(cached)) {
+            hits.increment();
+            return cached.snapshot();
+        }
+        return null;
+    }
+
+    /**
+     * Whether {@link #currentSnapshot()} has a roster to answer with even if upstream is rate limiting: a fresh one, or
+     * a stale one still within {@code max-stale}. Unlike {@link #getIfFresh()} this is not counted as a hit or a miss.
+     */
+    public boolean hasServableRoster() {
+        CachedRoster cached = roster.get();
+        return isFresh(cached) || isServableStale(cached);
+    }
+
+    /**
+     * @return the version of the cached roster if it is still fresh, otherwise {@code null}; not counted as a hit or a
+     * miss, and never triggers a load
+     */
+    public String freshRosterVersion() {
+        CachedRoster cached = roster.get();
+        return isFresh(cached) ? cached.snapshot().getVersion() : null;
+    }
+
+    public RosterSnapshot currentSnapshot() {
+        CachedRoster cached = roster.get();
+        if (isFresh(cached)) {
+            hits.increment();
+            return cached.snapshot();
+        }
+        misses.increment();
+        try {
+            return await(load(() -> CompletableFuture.completedFuture(employeeAPIUtils.getAllEmployees())));
+        } catch (UpstreamRateLimitedException e) {
+            return staleRoster(e);
+        }
+    }
+
+    /**
+     * {@link #currentSnapshot()}, handing each employee of it to {@code consumer} in roster order. When this miss starts
+     * the load and the whole roster is fetched, each employee is handed over as soon as it is parsed off the upstream
+     * response, while the load builds the snapshot; otherwise, e.g. for a hit, a joined load or a stale roster, they
+     * are handed over once the snapshot is there. A {@code consumer} that fails, e.g. because its client went away,
+     * does not fail the load: the rest of the roster is still loaded and cached, and its failure is rethrown after.
+     *
+     * @return the snapshot handed over
+     */
+    public RosterSnapshot streamSnapshot(Consumer<Employee> consumer) {
+        CachedRoster cached = roster.get();
+        if (isFresh(cached)) {
+            hits.increment();
+            cached.snapshot().getEmployees().forEach(consumer);
+            return cached.snapshot();
+        }
+        misses.increment();
+        StreamingConsumer streaming = new StreamingConsumer(consumer);
+        RosterSnapshot snapshot;
+        try {
+            snapshot = await(load(() -> CompletableFuture.completedFuture(employeeAPIUtils.getAllEmployees(streaming))));
+        } catch (UpstreamRateLimitedException e) {
+            // Part of a fresher roster may already be out; the stale one cannot be appended to it.
+            if (streaming.streamed) {
+                throw e;
+            }
+            snapshot = staleRoster(e);
+        }
+        streaming.finish(snapshot);
+        return snapshot;
+    }
+
+    /**
+     * @param loader fetches the roster from upstream on a miss
+     */
+    public CompletableFuture<RosterSnapshot> currentSnapshotAsync(Supplier<CompletableFuture<List<Employee>>> loader) {
+        CachedRoster cached = roster.get();
+        if (isFresh(cached)) {
+            hits.increment();
+            return CompletableFuture.completedFuture(cached.snapshot());
+        }
+        misses.increment();
+        return load(loader).exceptionally(failure -> {
+            if (unwrap(failure) instanceof UpstreamRateLimitedException e) {
+                return staleRoster(e);
+            }
+            throw propagate(failure);
+        });
+    }
+
+    public Employee getEmployeeById(String id) {
+        CachedRoster cachedRoster = roster.get();
+        Employee cached = findCached(id, cachedRoster);
+        if (cached != null) {
+            return cached;
+        }
+        CachedEmployee cachedEmployee = employeesById.get(id);
+        misses.increment();
+        long loadGeneration = generation.get();
+        Employee employee;
+        try {
+            employee = employeeAPIUtils.getEmployeeById(id);
+        } catch (UpstreamRateLimitedException e) {
+            return staleEmployee(id, cachedRoster, cachedEmployee, e);
+        }
+        remember(id, employee, loadGeneration);
+        return employee;
+    }
+
+    /**
+     * @param loader fetches a single employee from upstream on a miss
+     */
+    public CompletableFuture<Employee> getEmployeeByIdAsync(String id, Function<String, CompletableFuture<Employee>> loader) {
+        CachedRoster cachedRoster = roster.get();
+        Employee cached = findCached(id, cachedRoster);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        CachedEmployee cachedEmployee = employeesById.get(id);
+        misses.increment();
+        long loadGeneration = generation.get();
+        return loader.apply(id).handle((employee, failure) -> {
+            if (failure == null) {
+                remember(id, employee, loadGeneration);
+                return employee;
+            }
+            if (unwrap(failure) instanceof UpstreamRateLimitedException e) {
+                return staleEmployee(id, cachedRoster, cachedEmployee, e);
+            }
+            throw propagate(failure);
+        });
+    }
+
+    /**
+     * Adds an employee the upstream API has just created to the cached roster, if there is one.
+     */
+    public void applyCreated(Employee employee) {
+        applyWrite(snapshot -> snapshot.withAdded(employee));
+        log.debug("Applied created employee {} to roster cache", employee.getId());
+    }
+
+    /**
+     * Removes an employee the upstream API has just deleted from the cached roster, if there is one.
+     */
+    public void applyDeleted(String id) {
+        employeesById.remove(id);
+        applyWrite(snapshot -> snapshot.withRemoved(id));
+        log.debug("Applied deleted employee {} to roster cache", id);
+    }
+
+    /**
+     * Drops everything cached so far; loads already in flight finish for their callers but are not retained.
+     */
+    public void invalidate() {
+        generation.incrementAndGet();
+        roster.set(null);
+        employeesById.clear();
+        log.debug("Employee roster cache invalidated");
+    }
+
+    public CacheStats stats() {
+        CachedRoster cached = roster.get();
+        return new CacheStats(
+                hits.sum(),
+                misses.sum(),
+                staleHits.sum(),
+                loads.sum(),
+                loadFailures.sum(),
+                coalescedLoads.sum(),
+                evictions.sum(),
+                totalLoadTimeNanos.sum(),
+                cached == null ? 0 : cached.snapshot().size(),
+                employeesById.size());
+    }
+
+    /**
+     * Runs {@code loader} unless a load of the current generation is already in flight, in which case the caller shares
+     * that one. A load of an earlier generation is left to finish for its own callers only. The loader is called on the
+     * caller's thread, so a blocking loader completes the load before this returns.
+     */
+    private CompletableFuture<RosterSnapshot> load(Supplier<CompletableFuture<List<Employee>>> loader) {
+        long loadGeneration = generation.get();
+        CompletableFuture<RosterSnapshot> pending = new CompletableFuture<>();
+        InFlightLoad ours = new InFlightLoad(loadGeneration, pending);
+        while (true) {
+            InFlightLoad existing = inFlightLoad.get();
+            if (existing != null && existing.generation() == loadGeneration) {
+                coalescedLoads.increment();
+                return existing.future();
+            }
+            if (inFlightLoad.compareAndSet(existing, ours)) {
+                break;
+            }
+        }
+        CachedRoster cached = roster.get();
+        if (isFresh(cached)) {
+            inFlightLoad.compareAndSet(ours, null);
+            pending.complete(cached.snapshot());
+            return pending;
+        }
+        long start = System.nanoTime();
+        CompletableFuture<List<Employee>> loading;
+        try {
+            loading = loader.get();
+        } catch (RuntimeException e) {
+            loading = CompletableFuture.failedFuture(e);
+        }
+        loading.whenComplete((employees, failure) -> {
+            try {
+                if (failure != null) {
+                    loadFailures.increment();
+                    pending.completeExceptionally(unwrap(failure));
+                    return;
+                }
+                List<Employee> loadedEmployees = employees == null ? List.of() : employees;
+                RosterSnapshot loaded = reuseOrBuild(loadedEmployees);
+                loads.increment();
+                totalLoadTimeNanos.add(System.nanoTime() - start);
+                if (loaded.size() > maxEntries) {
+                    log.warn("Roster of {} employees exceeds cache bound of {}, not caching it", loaded.size(), maxEntries);
+                } else {
+                    install(loaded, loadGeneration, loadedEmployees);
+                }
+                log.debug("Loaded employee roster of {} employees in {} ms", loaded.size(), (System.nanoTime() - start) / 1_000_000);
+                pending.complete(loaded);
+            } catch (RuntimeException e) {
+                loadFailures.increment();
+                pending.completeExceptionally(e);
+            } finally {
+                inFlightLoad.compareAndSet(ours, null);
+            }
+        });
+        return pending;
+    }
+
+    /**
+     * Bumps the generation so that loads which started before this write are not retained, then moves the cached
+     * roster to the new generation with the write applied. Writers are serialized so none of them is lost.
+     */
+    private void applyWrite(UnaryOperator<RosterSnapshot> write) {
+        writeLock.lock();
+        try {
+            long writeGeneration = generation.incrementAndGet();
+            CachedRoster cached = roster.get();
+            if (cached != null && cached.generation() == writeGeneration - 1) {
+                roster.set(new CachedRoster(write.apply(cached.snapshot()), writeGeneration, null));
+            } else {
+                roster.set(null);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * The upstream client hands back the very list it returned last time when the roster has not changed since, in
+     * which case the cached snapshot is reused as is, version included, rather than rebuilt.
+     */
+    private RosterSnapshot reuseOrBuild(List<Employee> employees) {
+        CachedRoster cached = roster.get();
+        if (cached != null && cached.loadedFrom() == employees) {
+            return cached.snapshot().reloadedAt(System.nanoTime());
+        }
+        return new RosterSnapshot(employees, System.nanoTime());
+    }
+
+    private void install(RosterSnapshot loaded, long loadGeneration, List<Employee> loadedFrom) {
+        writeLock.lock();
+        try {
+            if (generation.get() == loadGeneration) {
+                roster.set(new CachedRoster(loaded, loadGeneration, loadedFrom));
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * @return the employee from the fresh roster or the by-id map, counting a hit, otherwise {@code null}
+     */
+    private Employee findCached(String id, CachedRoster cachedRoster) {
+        if (isFresh(cachedRoster)) {
+            Employee employee = cachedRoster.snapshot().findById(id);
+            if (employee != null) {
+                hits.increment();
+                return employee;
+            }
+        }
+        CachedEmployee cachedEmployee = employeesById.get(id);
+        if (cachedEmployee != null && System.nanoTime() - cachedEmployee.loadedAtNanos() < ttlNanos) {
+            hits.increment();
+            return cachedEmployee.employee();
+        }
+        return null;
+    }
+
+    private void remember(String id, Employee employee, long loadGeneration) {
+        if (employee != null && loadGeneration == generation.get()) {
+            employeesById.put(id, new CachedEmployee(employee, System.nanoTime()));
+        }
+    }
+
+    private RosterSnapshot staleRoster(UpstreamRateLimitedException e) {
+        CachedRoster stale = roster.get();
+        if (!isServableStale(stale)) {
+            throw e;
+        }
+        staleHits.increment();
+        log.warn("Upstream is rate limiting, serving roster loaded {} s ago",
+                (System.nanoTime() - stale.snapshot().getLoadedAtNanos()) / 1_000_000_000);
+        return stale.snapshot();
+    }
+
+    private Employee staleEmployee(String id, CachedRoster cachedRoster, CachedEmployee cachedEmployee,
+                                   UpstreamRateLimitedException e) {
+        Employee stale = findStale(id, cachedRoster, cachedEmployee);
+        if (stale == null) {
+            throw e;
+        }
+        staleHits.increment();
+        log.warn("Upstream is rate limiting, serving stale employee {}", id);
+        return stale;
+    }
+
+    private Employee findStale(String id, CachedRoster cachedRoster, CachedEmployee cachedEmployee) {
+        if (isServableStale(cachedRoster)) {
+            Employee employee = cachedRoster.snapshot().findById(id);
+            if (employee != null) {
+                return employee;
+            }
+        }
+        if (cachedEmployee != null && System.nanoTime() - cachedEmployee.loadedAtNanos() < maxStaleNanos) {
+            return cachedEmployee.employee();
+        }
+        return null;
+    }
+
+    /**
+     * Stale entries are only served for the current generation, so nothing invalidated or overwritten comes back.
+     */
+    private boolean isServableStale(CachedRoster cached) {
+        return cached != null
+                && cached.generation() == generation.get()
+                && System.nanoTime() - cached.snapshot().getLoadedAtNanos() < maxStaleNanos;
+    }
+
+    private boolean isFresh(CachedRoster cached) {
+        return cached != null && isFresh(cached.snapshot().getLoadedAtNanos(), cached.generation());
+    }
+
+    private boolean isFresh(long loadedAtNanos, long loadGeneration) {
+        return loadGeneration == generation.get() && System.nanoTime() - loadedAtNanos < ttlNanos;
+    }
+
+    private static RosterSnapshot await(CompletableFuture<RosterSnapshot> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw propagate(e);
+        }
+    }
+
+    private static Throwable unwrap(Throwable failure) {
+        return failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+    }
+
+    private static RuntimeException propagate(Throwable failure) {
+        Throwable cause = unwrap(failure);
+        if (cause instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        return new CompletionException(cause);
+    }
+
+    /**
+     * Forwards the employees a load parses to a stream's consumer, and stops forwarding, instead of failing the load,
+     * once that consumer fails.
+     */
+    private static final class StreamingConsumer implements Consumer<Employee> {
+        private final Consumer<Employee> consumer;
+        private boolean streamed;
+        private RuntimeException failure;
+
+        private StreamingConsumer(Consumer<Employee> consumer) {
+            this.consumer = consumer;
+        }
+
+        @Override
+        public void accept(Employee employee) {
+            streamed = true;
+            if (failure != null) {
+                return;
+            }
+            try {
+                consumer.accept(employee);
+            } catch (RuntimeException e) {
+                failure = e;
+            }
+        }
+
+        void finish(RosterSnapshot snapshot) {
+            if (failure != null) {
+                throw failure;
+            }
+            if (!streamed) {
+                snapshot.getEmployees().forEach(consumer);
+            }
+        }
+    }
+
+    /**
+     * @param loadedFrom the list the snapshot was built from, or {@code null} once local writes have been applied to it
+     */
+    private record CachedRoster(RosterSnapshot snapshot, long generation, List<Employee> loadedFrom) {}
+
+    private record CachedEmployee(Employee employee, long loadedAtNanos) {}
+
+    private record InFlightLoad(long generation, CompletableFuture<RosterSnapshot> future) {}
+}
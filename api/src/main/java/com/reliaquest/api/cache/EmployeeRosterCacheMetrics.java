@@ -0,0 +1,64 @@
+package com.reliaquest.api.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes {@link EmployeeRosterCache#stats()} as meters, following Micrometer's {@code cache.*} naming so the usual
+ * cache dashboards work against it.
+ */
+@Component
+public class EmployeeRosterCacheMetrics implements MeterBinder {
+
+    private static final Tags TAGS = Tags.of("cache", "employee-roster");
+
+    private final EmployeeRosterCache employeeRosterCache;
+
+    public EmployeeRosterCacheMetrics(EmployeeRosterCache employeeRosterCache) {
+        this.employeeRosterCache = employeeRosterCache;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        counter(registry, "cache.gets", Tags.of("result", "hit"), stats -> stats.hits(), "Cache lookups served locally");
+        counter(registry, "cache.gets", Tags.of("result", "miss"), stats -> stats.misses(), "Cache lookups that went upstream");
+        counter(registry, "cache.gets", Tags.of("result", "stale"), stats -> stats.staleHits(),
+                "Expired entries served because the upstream was rate limiting");
+        counter(registry, "cache.evictions", Tags.empty(), stats -> stats.evictions(), "Employees evicted from the by-id cache");
+        counter(registry, "cache.loads.failed", Tags.empty(), stats -> stats.loadFailures(), "Roster loads that failed");
+        counter(registry, "cache.loads.coalesced", Tags.empty(), stats -> stats.coalescedLoads(),
+                "Roster misses that waited on a load already in flight");
+
+        FunctionTimer.builder("cache.loads", employeeRosterCache,
+                        cache -> cache.stats().loads(),
+                        cache -> cache.stats().totalLoadTimeNanos(),
+                        TimeUnit.NANOSECONDS)
+                .tags(TAGS)
+                .description("Successful roster loads from the upstream API")
+                .register(registry);
+
+        Gauge.builder("cache.size", employeeRosterCache, cache -> cache.stats().rosterSize())
+                .tags(TAGS)
+                .description("Employees in the cached roster")
+                .register(registry);
+        Gauge.builder("cache.by-id.size", employeeRosterCache, cache -> cache.stats().cachedByIdEntries())
+                .tags(TAGS)
+                .description("Employees cached individually by id")
+                .register(registry);
+    }
+
+    private void counter(MeterRegistry registry, String name, Tags tags, ToDoubleFunction<CacheStats> value,
+                         String description) {
+        FunctionCounter.builder(name, employeeRosterCache, cache -> value.applyAsDouble(cache.stats()))
+                .tags(TAGS.and(tags))
+                .description(description)
+                .register(registry);
+    }
+}
@@ -0,0 +1,190 @@
+package com.reliaquest.api.cache;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.WebUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Keeps the encoded JSON answer of each endpoint it filters, together with the version of the cached roster it was
+ * computed from, and writes those bytes straight to later requests while that version is still the fresh cached
+ * roster. Neither the controller nor Jackson run for them.
+ *
+ * <p>Only endpoints whose answer depends on nothing but the roster may be filtered. An answer is kept only when it is
+ * tagged with the roster version read before it was computed, see the controllers, and the roster has not moved on
+ * by the time it is complete; answers pushed down to the upstream API carry no tag and are never kept. One answer is
+ * kept per endpoint, the newest one.
+ *
+ * <p>With {@code gzip}, clients accepting it get the answer gzipped, compressed once per roster version. Kept answers
+ * are tagged with the roster version as a weak ETag, like the controllers tag them, gzipped or not: a weak tag holds
+ * across content encodings, so a client revalidates with whichever tag it got, from here or from a controller answer
+ * Tomcat compressed, and Tomcat may still compress the plain answer when this filter does not.
+ */
+@Slf4j
+public class EncodedResponseCache extends OncePerRequestFilter {
+
+    private static final String VERSION_ATTRIBUTE = EncodedResponseCache.class.getName() + ".version";
+
+    private final EmployeeRosterCache employeeRosterCache;
+    private final boolean gzip;
+    private final long maxEntryBytes;
+    private final ConcurrentMap<String, Encoded> entries = new ConcurrentHashMap<>();
+
+    public EncodedResponseCache(EmployeeRosterCache employeeRosterCache, boolean gzip, long maxEntryBytes) {
+        this.employeeRosterCache = employeeRosterCache;
+        this.gzip = gzip;
+        this.maxEntryBytes = maxEntryBytes;
+    }
+
+    /**
+     * Async handlers finish in an async dispatch, which is where their answer can be kept.
+     */
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if(!"GET".equals(request.getMethod()) || !acceptsJson(request)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        String endpoint = request.getRequestURI();
+        HttpServletResponse responseToUse = response;
+        if(!isAsyncDispatch(request)) {
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+            if(gzip)
+                response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            String version = employeeRosterCache.freshRosterVersion();
+            Encoded cached = version == null ? null : entries.get(endpoint);
+            if(cached != null && cached.version.equals(version)) {
+                write(cached, request, response);
+                return;
+            }
+            request.setAttribute(VERSION_ATTRIBUTE, version);
+            responseToUse = new ContentCachingResponseWrapper(response);
+        }
+        filterChain.doFilter(request, responseToUse);
+        if(isAsyncStarted(request))
+            return;
+        ContentCachingResponseWrapper wrapper = WebUtils.getNativeResponse(responseToUse, ContentCachingResponseWrapper.class);
+        if(wrapper == null)
+            return;
+        keep(endpoint, (String) request.getAttribute(VERSION_ATTRIBUTE), wrapper);
+        wrapper.copyBodyToResponse();
+    }
+
+    private void keep(String endpoint, String version, ContentCachingResponseWrapper answer) {
+        if(version == null || answer.getStatus() != HttpStatus.OK.value() || answer.getContentType() == null
+                || answer.getHeader(HttpHeaders.CONTENT_ENCODING) != null || answer.getContentSize() > maxEntryBytes)
+            return;
+        if(!weakETag(version).equals(answer.getHeader(HttpHeaders.ETAG))
+                || !MediaType.parseMediaType(answer.getContentType()).isCompatibleWith(MediaType.APPLICATION_JSON))
+            return;
+        // A write or reload since the version was read may have gone into the answer; keep it only if there was none.
+        if(!version.equals(employeeRosterCache.freshRosterVersion()))
+            return;
+        entries.put(endpoint, new Encoded(version, answer.getContentType(), answer.getContentAsByteArray()));
+        log.debug("Keeping {} bytes answered by {} at roster version {}", answer.getContentSize(), endpoint, version);
+    }
+
+    private void write(Encoded cached, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if(new ServletWebRequest(request, response).checkNotModified(weakETag(cached.version)))
+            return;
+        byte[] body = cached.json;
+        if(gzip && acceptsGzip(request)) {
+            body = cached.gzipped();
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        response.setContentType(cached.contentType);
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    /**
+     * Leaves requests for anything but JSON, such as the NDJSON roster stream, to content negotiation.
+     */
+    static boolean acceptsJson(HttpServletRequest request) {
+        List<String> accept = Collections.list(request.getHeaders(HttpHeaders.ACCEPT));
+        if(accept.isEmpty())
+            return true;
+        List<MediaType> mediaTypes;
+        try {
+            mediaTypes = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+        boolean json = false;
+        for (MediaType mediaType : mediaTypes) {
+            if(mediaType.isConcrete() && !mediaType.isCompatibleWith(MediaType.APPLICATION_JSON))
+                return false;
+            json |= mediaType.includes(MediaType.APPLICATION_JSON);
+        }
+        return json;
+    }
+
+    static boolean acceptsGzip(HttpServletRequest request) {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if(acceptEncoding == null)
+            return false;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if(parts[0].trim().equalsIgnoreCase("gzip"))
+                return parts.length == 1 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+        }
+        return false;
+    }
+
+    private static String weakETag(String version) {
+        return "W/\"" + version + "\"";
+    }
+
+    private static final class Encoded {
+        private final String version;
+        private final String contentType;
+        private final byte[] json;
+        private volatile byte[] gzipped;
+
+        private Encoded(String version, String contentType, byte[] json) {
+            this.version = version;
+            this.contentType = contentType;
+            this.json = json;
+        }
+
+        // Racing requests may each compress; they all get the same bytes.
+        byte[] gzipped() {
+            byte[] compressed = gzipped;
+            if(compressed == null) {
+                ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4 + 64);
+                try (GZIPOutputStream gzipOut = new GZIPOutputStream(out)) {
+                    gzipOut.write(json);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                compressed = out.toByteArray();
+                gzipped = compressed;
+            }
+            return compressed;
+        }
+    }
+}
@@ -0,0 +1,291 @@
+package com.reliaquest.api.cache;
+
+import com.reliaquest.api.entity.CompactEmployee;
+import com.reliaquest.api.entity.Employee;
+import com.reliaquest.api.index.NameIndex;
+import com.reliaquest.api.index.SalaryIndex;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Immutable view of the employee roster as it was fetched from the upstream API at {@code loadedAtNanos}, together
+ * with the indexes derived from it.
+ *
+ * <p>Analytics read a {@link CompactEmployee} form of every employee, which exists only inside the salary index: it is
+ * parsed when that index is first used, so a snapshot nobody runs analytics on holds no second copy of the roster,
+ * while {@link #getEmployees()} keeps returning the employees exactly as they were deserialized.
+ *
+ * <p>Local creates and deletes produce a new snapshot through {@link #withAdded(Employee)} and
+ * {@link #withRemoved(String)} without copying the roster: the loaded employees stay as they are and the change goes
+ * into a delta of added employees and removed ids, shared with the snapshot it was derived from the way
+ * {@link NameIndex} shares its tail. Lookups by id consult the delta, the full list is put together once on first
+ * use, and once the delta outgrows {@link #MIN_DELTA_BEFORE_COMPACTION} or a sixteenth of the roster the next change
+ * compacts everything into a new base. The name index is carried over incrementally while the salary index is rebuilt
+ * lazily on first use.
+ *
+ * <p>Every snapshot with different contents has a different {@link #getVersion() version}, unique within this process
+ * and unlikely to repeat across restarts, so it can serve as the ETag of anything computed from the snapshot.
+ */
+public final class RosterSnapshot {
+
+    static final int MIN_DELTA_BEFORE_COMPACTION = 256;
+
+    private static final String EPOCH = Long.toHexString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE);
+    private static final AtomicLong VERSIONS = new AtomicLong();
+
+    private final List<Employee> base;
+    private final Map<String, Employee> baseById;
+    private final Delta delta;
+    private final int addedCount;
+    private final int removedCount;
+    private final NameIndex nameIndex;
+    private final long loadedAtNanos;
+    private final String version;
+
+    // Built on first use; a racing second build produces identical contents, so no locking is needed.
+    private volatile List<Employee> employees;
+    private volatile SalaryIndex salaryIndex;
+
+    RosterSnapshot(List<Employee> employees, long loadedAtNanos) {
+        this(List.copyOf(employees), null, new Delta(), 0, 0, null, loadedAtNanos, nextVersion());
+    }
+
+    private RosterSnapshot(
+            List<Employee> base,
+            Map<String, Employee> baseById,
+            Delta delta,
+            int addedCount,
+            int removedCount,
+            NameIndex nameIndex,
+            long loadedAtNanos,
+            String version) {
+        this.base = base;
+        this.baseById = baseById == null ? indexById(base) : baseById;
+        this.delta = delta;
+        this.addedCount = addedCount;
+        this.removedCount = removedCount;
+        this.nameIndex = nameIndex == null ? NameIndex.of(base) : nameIndex;
+        this.loadedAtNanos = loadedAtNanos;
+        this.version = version;
+    }
+
+    public List<Employee> getEmployees() {
+        List<Employee> materialized = employees;
+        if (materialized == null) {
+            materialized = addedCount == 0 && removedCount == 0 ? base : Collections.unmodifiableList(merged());
+            employees = materialized;
+        }
+        return materialized;
+    }
+
+    public Employee findById(String id) {
+        if (id == null) {
+            return null;
+        }
+        Removal removal = delta.removed.get(id);
+        Employee employee = baseById.get(id);
+        if (employee == null) {
+            Integer position = delta.addedAt.get(id);
+            employee = position != null && position < addedCount ? delta.added[position] : null;
+        }
+        return employee != null && isRemoved(employee, removal) ? null : employee;
+    }
+
+    public SalaryIndex getSalaryIndex() {
+        SalaryIndex index = salaryIndex;
+        if (index == null) {
+            index = SalaryIndex.of(compact(getEmployees()));
+            salaryIndex = index;
+        }
+        return index;
+    }
+
+    public NameIndex getNameIndex() {
+        return nameIndex;
+    }
+
+    public int size() {
+        return base.size() + addedCount - removedCount;
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    long getLoadedAtNanos() {
+        return loadedAtNanos;
+    }
+
+    /**
+     * The same roster, indexes and version, as if just loaded at {@code loadedAtNanos}.
+     */
+    RosterSnapshot reloadedAt(long loadedAtNanos) {
+        RosterSnapshot reloaded = new RosterSnapshot(
+                base, baseById, delta, addedCount, removedCount, nameIndex, loadedAtNanos, version);
+        reloaded.employees = employees;
+        reloaded.salaryIndex = salaryIndex;
+        return reloaded;
+    }
+
+    RosterSnapshot withAdded(Employee employee) {
+        String id = employee.getId();
+        if (id != null && findById(id) != null) {
+            return this;
+        }
+        // An id added or removed before would need a second delta entry; compacting is simpler and rare.
+        if (needsCompaction() || (id != null && (delta.addedAt.containsKey(id) || delta.removed.containsKey(id)))) {
+            List<Employee> employees = new ArrayList<>(size() + 1);
+            employees.addAll(getEmployees());
+            employees.add(employee);
+            return new RosterSnapshot(employees, loadedAtNanos);
+        }
+        return new RosterSnapshot(
+                base,
+                baseById,
+                delta.add(addedCount, removedCount, employee),
+                addedCount + 1,
+                removedCount,
+                nameIndex.withAdded(employee),
+                loadedAtNanos,
+                nextVersion());
+    }
+
+    RosterSnapshot withRemoved(String id) {
+        Employee removed = findById(id);
+        if (removed == null) {
+            return this;
+        }
+        if (needsCompaction()) {
+            List<Employee> employees = new ArrayList<>(size());
+            for (Employee employee : getEmployees()) {
+                if (employee != removed) {
+                    employees.add(employee);
+                }
+            }
+            return new RosterSnapshot(employees, loadedAtNanos);
+        }
+        return new RosterSnapshot(
+                base,
+                baseById,
+                delta.remove(addedCount, removedCount, removed),
+                addedCount,
+                removedCount + 1,
+                nameIndex.withRemoved(removed),
+                loadedAtNanos,
+                nextVersion());
+    }
+
+    private boolean needsCompaction() {
+        return addedCount + removedCount + 1 > Math.max(MIN_DELTA_BEFORE_COMPACTION, base.size() / 16);
+    }
+
+    /** A removal is seen only by the snapshots derived from the one it was made in. */
+    private boolean isRemoved(Employee employee, Removal removal) {
+        return removal != null && removal.sequence < removedCount && removal.employee == employee;
+    }
+
+    private List<Employee> merged() {
+        List<Employee> merged = new ArrayList<>(size());
+        for (Employee employee : base) {
+            if (employee.getId() == null || !isRemoved(employee, delta.removed.get(employee.getId()))) {
+                merged.add(employee);
+            }
+        }
+        Employee[] added = delta.added;
+        for (int i = 0; i < addedCount; i++) {
+            if (added[i].getId() == null || !isRemoved(added[i], delta.removed.get(added[i].getId()))) {
+                merged.add(added[i]);
+            }
+        }
+        return merged;
+    }
+
+    private static String nextVersion() {
+        return EPOCH + "-" + VERSIONS.incrementAndGet();
+    }
+
+    private static List<CompactEmployee> compact(List<Employee> employees) {
+        CompactEmployee[] compactEmployees = new CompactEmployee[employees.size()];
+        for (int i = 0; i < compactEmployees.length; i++) {
+            compactEmployees[i] = CompactEmployee.from(employees.get(i));
+        }
+        return List.of(compactEmployees);
+    }
+
+    private static Map<String, Employee> indexById(List<Employee> employees) {
+        Map<String, Employee> byId = new HashMap<>(Math.max(16, employees.size() * 4 / 3 + 1));
+        for (Employee employee : employees) {
+            if (employee.getId() != null) {
+                byId.put(employee.getId(), employee);
+            }
+        }
+        return Collections.unmodifiableMap(byId);
+    }
+
+    private record Removal(int sequence, Employee employee) {}
+
+    /**
+     * Employees added to a base, in order, and the ids removed from it. A snapshot sees the first {@code addedCount}
+     * additions and {@code removedCount} removals; only a change to the snapshot seeing all of them extends the delta
+     * in place, any other change copies what its snapshot sees first.
+     */
+    private static final class Delta {
+
+        private volatile Employee[] added = new Employee[16];
+        private final Map<String, Integer> addedAt = new ConcurrentHashMap<>();
+        private final Map<String, Removal> removed = new ConcurrentHashMap<>();
+
+        // Guarded by this.
+        private int addedSize;
+        private int removedSize;
+
+        private synchronized Delta add(int addedCount, int removedCount, Employee employee) {
+            Delta target = sharedBy(addedCount, removedCount) ? this : copy(addedCount, removedCount);
+            if (target.addedSize == target.added.length) {
+                target.added = Arrays.copyOf(target.added, target.addedSize * 2);
+            }
+            target.added[target.addedSize] = employee;
+            if (employee.getId() != null) {
+                target.addedAt.put(employee.getId(), target.addedSize);
+            }
+            target.addedSize++;
+            return target;
+        }
+
+        private synchronized Delta remove(int addedCount, int removedCount, Employee employee) {
+            Delta target = sharedBy(addedCount, removedCount) ? this : copy(addedCount, removedCount);
+            target.removed.put(employee.getId(), new Removal(target.removedSize++, employee));
+            return target;
+        }
+
+        private boolean sharedBy(int addedCount, int removedCount) {
+            return addedSize == addedCount && removedSize == removedCount;
+        }
+
+        private Delta copy(int addedCount, int removedCount) {
+            Delta copy = new Delta();
+            copy.added = Arrays.copyOf(added, Math.max(16, added.length));
+            Arrays.fill(copy.added, addedCount, copy.added.length, null);
+            addedAt.forEach((id, position) -> {
+                if (position < addedCount) {
+                    copy.addedAt.put(id, position);
+                }
+            });
+            removed.forEach((id, removal) -> {
+                if (removal.sequence < removedCount) {
+                    copy.removed.put(id, removal);
+                }
+            });
+            copy.addedSize = addedCount;
+            copy.removedSize = removedCount;
+            return copy;
+        }
+    }
+}
@@ -1,14 +1,135 @@
 package com.reliaquest.api.configurations;
 
+import com.reliaquest.api.cache.EmployeeRosterCache;
+import com.reliaquest.api.cache.EncodedResponseCache;
+import com.reliaquest.api.utils.UpstreamMetricsInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import jakarta.servlet.DispatcherType;
+import java.net.http.HttpClient;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
 @Configuration
+@EnableConfigurationProperties({HttpClientProperties.class, RateLimitProperties.class, ResponseCacheProperties.class})
 public class AppConfig {
 
+    private static final String UPSTREAM_POOL_NAME = "employee-upstream";
+
+    @Bean
+    public RestTemplate restTemplate(RestTemplateBuilder restTemplateBuilder, ClientHttpRequestFactory clientHttpRequestFactory,
+                                     MeterRegistry meterRegistry) {
+        return restTemplateBuilder.requestFactory(() -> clientHttpRequestFactory)
+                .additionalInterceptors(new UpstreamMetricsInterceptor(meterRegistry))
+                .build();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "employee.http-client.implementation", havingValue = "apache", matchIfMissing = true)
+    public PoolingHttpClientConnectionManager upstreamConnectionManager(HttpClientProperties properties) {
+        return PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(properties.maxConnections())
+                .setMaxConnPerRoute(properties.maxConnectionsPerRoute())
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(properties.connectTimeout()))
+                        .setSocketTimeout(Timeout.of(properties.readTimeout()))
+                        .setTimeToLive(TimeValue.of(properties.connectionTimeToLive()))
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                        .build())
+                .build();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "employee.http-client.implementation", havingValue = "apache", matchIfMissing = true)
+    public CloseableHttpClient upstreamHttpClient(PoolingHttpClientConnectionManager upstreamConnectionManager, HttpClientProperties properties) {
+        TimeValue keepAlive = TimeValue.of(properties.keepAlive());
+        return HttpClients.custom()
+                .setConnectionManager(upstreamConnectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.of(properties.connectionRequestTimeout()))
+                        .setResponseTimeout(Timeout.of(properties.readTimeout()))
+                        .build())
+                .setKeepAliveStrategy((response, context) -> keepAlive)
+                .evictExpiredConnections()
+                .evictIdleConnections(keepAlive)
+                .build();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "employee.http-client.implementation", havingValue = "apache", matchIfMissing = true)
+    public ClientHttpRequestFactory apacheClientHttpRequestFactory(CloseableHttpClient upstreamHttpClient) {
+        return new HttpComponentsClientHttpRequestFactory(upstreamHttpClient);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "employee.http-client.implementation", havingValue = "apache", matchIfMissing = true)
+    public MeterBinder upstreamConnectionPoolMetrics(PoolingHttpClientConnectionManager upstreamConnectionManager) {
+        return new PoolingHttpClientConnectionManagerMetricsBinder(upstreamConnectionManager, UPSTREAM_POOL_NAME);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "employee.http-client.implementation", havingValue = "jdk")
+    public ClientHttpRequestFactory jdkClientHttpRequestFactory(HttpClientProperties properties) {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(properties.connectTimeout())
+                .build();
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(properties.readTimeout());
+        return requestFactory;
+    }
+
+    /**
+     * Only endpoints answered from the roster alone, with no parameters, go through {@link EncodedResponseCache}.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "employee.response-cache.enabled", havingValue = "true", matchIfMissing = true)
+    public FilterRegistrationBean<EncodedResponseCache> encodedResponseCache(EmployeeRosterCache employeeRosterCache,
+                                                                             ResponseCacheProperties properties) {
+        FilterRegistrationBean<EncodedResponseCache> registration = new FilterRegistrationBean<>(new EncodedResponseCache(
+                employeeRosterCache, properties.gzip(), properties.maxEntrySize().toBytes()));
+        registration.addUrlPatterns("/api/v1/employee", "/api/v1/employee/highest-salary",
+                "/api/v1/employee/top-10-highest-earning");
+        registration.setDispatcherTypes(DispatcherType.REQUEST, DispatcherType.ASYNC);
+        return registration;
+    }
+
+    /**
+     * Client behind {@link com.reliaquest.api.utils.AsyncEmployeeAPIUtils}. Responses are handled on the client's own
+     * executor; no request thread waits for them. With {@code spring.threads.virtual.enabled} that executor starts a
+     * virtual thread per task, like the request threads.
+     */
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    @ConditionalOnProperty(name = "employee.client.mode", havingValue = "async")
+    public HttpClient upstreamAsyncHttpClient(HttpClientProperties properties,
+                                              @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        HttpClient.Builder builder = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(properties.connectTimeout());
+        if (virtualThreads) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(UPSTREAM_POOL_NAME + "-");
+            executor.setVirtualThreads(true);
+            builder.executor(executor);
+        }
+        return builder.build();
     }
 }
@@ -0,0 +1,29 @@
+package com.reliaquest.api.configurations;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Settings of the HTTP client behind {@link AppConfig#restTemplate}, bound from {@code employee.http-client.*}.
+ *
+ * @param implementation {@code apache} for a pooled HTTP/1.1 client with pool metrics, or {@code jdk} for the JDK
+ *     client, which negotiates HTTP/2 where the upstream supports it
+ * @param maxConnections upper bound of pooled connections across all routes
+ * @param maxConnectionsPerRoute upper bound of pooled connections to a single host
+ * @param connectTimeout time allowed to establish a TCP connection
+ * @param readTimeout time allowed between bytes of a response before the call fails
+ * @param connectionRequestTimeout time a caller waits for a free pooled connection
+ * @param keepAlive how long an idle persistent connection is kept for reuse
+ * @param connectionTimeToLive total lifetime of a pooled connection, after which it is closed once released
+ */
+@ConfigurationProperties("employee.http-client")
+public record HttpClientProperties(
+        @DefaultValue("apache") String implementation,
+        @DefaultValue("50") int maxConnections,
+        @DefaultValue("20") int maxConnectionsPerRoute,
+        @DefaultValue("2s") Duration connectTimeout,
+        @DefaultValue("5s") Duration readTimeout,
+        @DefaultValue("1s") Duration connectionRequestTimeout,
+        @DefaultValue("30s") Duration keepAlive,
+        @DefaultValue("5m") Duration connectionTimeToLive) {}
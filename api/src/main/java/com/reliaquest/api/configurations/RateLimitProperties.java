@@ -0,0 +1,26 @@
+package com.reliaquest.api.configurations;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Settings of {@link com.reliaquest.api.ratelimit.UpstreamRateLimiter}, bound from {@code employee.rate-limit.*}.
+ *
+ * @param enabled whether upstream calls go through the limiter at all
+ * @param writeReserve requests of a learned budget that reads leave for creates and deletes
+ * @param maxAttempts attempts per call, including the first, before a 429 is given up on
+ * @param initialBackoff cooldown after the first 429 while the upstream cooldown is still unknown
+ * @param maxBackoff upper bound of the exponential backoff between consecutive 429s
+ * @param readMaxWait how long a read may wait for a permit before failing, usually to be answered from stale cache
+ * @param writeMaxWait how long a create or delete may wait for a permit before failing
+ */
+@ConfigurationProperties("employee.rate-limit")
+public record RateLimitProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("1") int writeReserve,
+        @DefaultValue("3") int maxAttempts,
+        @DefaultValue("500ms") Duration initialBackoff,
+        @DefaultValue("90s") Duration maxBackoff,
+        @DefaultValue("1s") Duration readMaxWait,
+        @DefaultValue("5s") Duration writeMaxWait) {}
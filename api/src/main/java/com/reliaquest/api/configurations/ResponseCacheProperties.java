@@ -0,0 +1,18 @@
+package com.reliaquest.api.configurations;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Settings of {@link com.reliaquest.api.cache.EncodedResponseCache}, bound from {@code employee.response-cache.*}.
+ *
+ * @param enabled whether the hot roster reads are answered from their encoded bytes at all
+ * @param gzip whether clients accepting gzip get those bytes gzipped
+ * @param maxEntrySize largest answer kept, so that a huge roster is not held twice in memory
+ */
+@ConfigurationProperties("employee.response-cache")
+public record ResponseCacheProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("true") boolean gzip,
+        @DefaultValue("64MB") DataSize maxEntrySize) {}
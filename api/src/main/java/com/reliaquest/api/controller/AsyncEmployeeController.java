@@ -0,0 +1,153 @@
+package com.reliaquest.api.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reliaquest.api.entity.CreateEmployee;
+import com.reliaquest.api.entity.Employee;
+import com.reliaquest.api.entity.EmployeePage;
+import com.reliaquest.api.index.NameMatch;
+import com.reliaquest.api.index.SalaryOrder;
+import com.reliaquest.api.services.AsyncEmployeeService;
+import com.reliaquest.api.utils.NdjsonEmployeeWriter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Same endpoints as {@link EmployeeControllerImplementation}, served when {@code employee.client.mode} is
+ * {@code async}. Handlers return futures, so the servlet thread goes back to the pool while the upstream API is being
+ * called and the response is written once the future completes.
+ *
+ * <p>{@link IEmployeeController} fixes synchronous return types, which is why this controller does not implement it.
+ * Futures are completed with the unwrapped exception so the advice maps failures exactly as in blocking mode.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/employee")
+@ConditionalOnProperty(name = "employee.client.mode", havingValue = "async")
+public class AsyncEmployeeController {
+    private final AsyncEmployeeService employeeService;
+    private final ObjectMapper objectMapper;
+
+    public AsyncEmployeeController(AsyncEmployeeService employeeService, ObjectMapper objectMapper) {
+        this.employeeService = employeeService;
+        this.objectMapper = objectMapper;
+    }
+
+    @GetMapping(value = "", produces = {MediaType.APPLICATION_JSON_VALUE, RosterResponses.SMILE_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    public CompletableFuture<ResponseEntity<List<Employee>>> getAllEmployees() {
+        log.info("calling api to get all employees asynchronously");
+        return ok(employeeService.getRosterVersion(), employeeService.getAllEmployees());
+    }
+
+    /**
+     * Unlike the blocking controller this always writes from the (possibly freshly loaded) roster, since the async
+     * client reads the upstream body in full before parsing it.
+     */
+    @GetMapping(value = "", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public CompletableFuture<ResponseEntity<StreamingResponseBody>> streamAllEmployees() {
+        log.info("calling api to stream all employees as ndjson asynchronously");
+        return unwrapped(employeeService.getAllEmployees().thenApply(employees -> {
+            StreamingResponseBody body = outputStream -> {
+                NdjsonEmployeeWriter writer = new NdjsonEmployeeWriter(objectMapper, outputStream);
+                employees.forEach(writer);
+                log.info("Streamed {} employees as ndjson", writer.finish());
+            };
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+        }));
+    }
+
+    @GetMapping("/page")
+    public CompletableFuture<ResponseEntity<EmployeePage>> getEmployeePage(@RequestParam(defaultValue = "100") int limit,
+                                                                           @RequestParam(required = false) Integer offset,
+                                                                           @RequestParam(required = false) String cursor) {
+        log.info("calling api to get a page of " + limit + " employees asynchronously");
+        return ok(employeeService.getEmployeePage(limit, offset, cursor));
+    }
+
+    @GetMapping("/search/{searchString}")
+    public CompletableFuture<ResponseEntity<List<Employee>>> getEmployeesByNameSearch(@PathVariable String searchString) {
+        log.info("calling api to get all employees with name " + searchString);
+        return ok(employeeService.getRosterVersion(), employeeService.getEmployeesByNameSearch(searchString));
+    }
+
+    @GetMapping("/search")
+    public CompletableFuture<ResponseEntity<List<Employee>>> searchEmployeesByName(@RequestParam String name,
+                                                                                   @RequestParam(defaultValue = "contains") String mode,
+                                                                                   @RequestParam(defaultValue = "false") boolean ignoreCase,
+                                                                                   @RequestParam(defaultValue = "0") int offset,
+                                                                                   @RequestParam(defaultValue = "100") int limit) {
+        log.info("calling api to search employees with name " + name + " in " + mode + " mode");
+        return ok(employeeService.getRosterVersion(), employeeService.searchEmployeesByName(name, NameMatch.from(mode), ignoreCase, offset, limit));
+    }
+
+    @GetMapping("/highest-salary")
+    public CompletableFuture<ResponseEntity<Integer>> getHighestSalaryOfEmployees() {
+        log.info("calling api to get highest salaries of employees");
+        return ok(employeeService.getRosterVersion(), employeeService.getHighestSalaryOfEmployees());
+    }
+
+    @GetMapping("/top-10-highest-earning")
+    public CompletableFuture<ResponseEntity<List<String>>> getTopTenHighestEarningEmployeeNames() {
+        log.info("calling api to get top 10 highest earning employees");
+        return ok(employeeService.getRosterVersion(), employeeService.getTopTenHighestEarningEmployeeNames());
+    }
+
+    @GetMapping("/salary-ranking")
+    public CompletableFuture<ResponseEntity<List<String>>> getEmployeeNamesRankedBySalary(@RequestParam(defaultValue = "10") int limit,
+                                                                                          @RequestParam(defaultValue = "desc") String order) {
+        log.info("calling api to get " + limit + " employee names ranked by salary " + order);
+        return ok(employeeService.getRosterVersion(), employeeService.getEmployeeNamesRankedBySalary(limit, SalaryOrder.from(order)));
+    }
+
+    @GetMapping("/{id}")
+    public CompletableFuture<ResponseEntity<Employee>> getEmployeeById(@PathVariable String id) {
+        return ok(employeeService.getEmployeeById(id));
+    }
+
+    @PostMapping()
+    public CompletableFuture<ResponseEntity<Employee>> createEmployee(@RequestBody CreateEmployee employeeInput) {
+        Map<String, Object> employee= Map.of("name", employeeInput.getName(), "salary", employeeInput.getSalary(), "age", employeeInput.getAge(),"title",employeeInput.getTitle(),"email",employeeInput.getEmail());
+        return ok(employeeService.createEmployee(employee));
+    }
+
+    @DeleteMapping("/{id}")
+    public CompletableFuture<ResponseEntity<String>> deleteEmployeeById(@PathVariable String id) {
+        return ok(employeeService.deleteEmployee(id));
+    }
+
+    private static <T> CompletableFuture<ResponseEntity<T>> ok(CompletableFuture<T> result) {
+        return unwrapped(result.thenApply(ResponseEntity::ok));
+    }
+
+    /**
+     * Tags the response with {@code rosterVersion}, which the caller reads before starting {@code result}.
+     */
+    private static <T> CompletableFuture<ResponseEntity<T>> ok(String rosterVersion, CompletableFuture<T> result) {
+        return unwrapped(result.thenApply(body -> RosterResponses.ok(rosterVersion, body)));
+    }
+
+    /**
+     * Dependent stages fail with a {@link CompletionException}, which the advice would otherwise map as a general
+     * error; hand Spring the cause instead.
+     */
+    private static <T> CompletableFuture<T> unwrapped(CompletableFuture<T> result) {
+        CompletableFuture<T> unwrapped = new CompletableFuture<>();
+        result.whenComplete((value, failure) -> {
+            if (failure == null) {
+                unwrapped.complete(value);
+            } else {
+                unwrapped.completeExceptionally(failure instanceof CompletionException && failure.getCause() != null
+                        ? failure.getCause() : failure);
+            }
+        });
+        return unwrapped;
+    }
+}
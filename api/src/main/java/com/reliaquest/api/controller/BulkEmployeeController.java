@@ -0,0 +1,71 @@
+package com.reliaquest.api.controller;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reliaquest.api.entity.BulkResponse;
+import com.reliaquest.api.entity.CreateEmployee;
+import com.reliaquest.api.entity.Employee;
+import com.reliaquest.api.exceptions.ErrorCode;
+import com.reliaquest.api.exceptions.ValidationException;
+import com.reliaquest.api.services.BulkEmployeeService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+/**
+ * Bulk counterparts of the create and delete endpoints, served in both client modes. Each takes either a JSON array
+ * or NDJSON, one item per line, and answers 200 with a result per item in request order; only a body that cannot be
+ * read at all, or holds more than {@code employee.bulk.max-items} items, fails as a whole.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/employee/bulk")
+public class BulkEmployeeController {
+    private final BulkEmployeeService bulkEmployeeService;
+    private final ObjectMapper objectMapper;
+
+    public BulkEmployeeController(BulkEmployeeService bulkEmployeeService, ObjectMapper objectMapper) {
+        this.bulkEmployeeService = bulkEmployeeService;
+        this.objectMapper = objectMapper;
+    }
+
+    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BulkResponse<Employee>> createEmployees(@RequestBody List<CreateEmployee> employeeInputs) {
+        log.info("calling api to create " + employeeInputs.size() + " employees in bulk");
+        return ResponseEntity.ok(bulkEmployeeService.createEmployees(employeeInputs));
+    }
+
+    @PostMapping(consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<BulkResponse<Employee>> createEmployeesFromNdjson(InputStream body) {
+        List<CreateEmployee> employeeInputs = readNdjson(body, CreateEmployee.class);
+        log.info("calling api to create " + employeeInputs.size() + " employees in bulk from ndjson");
+        return ResponseEntity.ok(bulkEmployeeService.createEmployees(employeeInputs));
+    }
+
+    @DeleteMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BulkResponse<String>> deleteEmployees(@RequestBody List<String> ids) {
+        log.info("calling api to delete " + ids.size() + " employees in bulk");
+        return ResponseEntity.ok(bulkEmployeeService.deleteEmployees(ids));
+    }
+
+    @DeleteMapping(consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<BulkResponse<String>> deleteEmployeesFromNdjson(InputStream body) {
+        List<String> ids = readNdjson(body, String.class);
+        log.info("calling api to delete " + ids.size() + " employees in bulk from ndjson");
+        return ResponseEntity.ok(bulkEmployeeService.deleteEmployees(ids));
+    }
+
+    private <T> List<T> readNdjson(InputStream body, Class<T> type) {
+        try (MappingIterator<T> items = objectMapper.readerFor(type).readValues(body)) {
+            return items.readAll();
+        } catch (IOException e) {
+            log.error("Error while reading ndjson bulk request " + e.getMessage(), e);
+            throw new ValidationException(ErrorCode.JSON_DESERIALIZATION_FAILURE);
+        }
+    }
+}
@@ -1,48 +1,107 @@
 package com.reliaquest.api.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.reliaquest.api.entity.CreateEmployee;
 import com.reliaquest.api.entity.Employee;
+import com.reliaquest.api.entity.EmployeePage;
+import com.reliaquest.api.index.NameMatch;
+import com.reliaquest.api.index.SalaryOrder;
 import com.reliaquest.api.services.EmployeeService;
+import com.reliaquest.api.utils.NdjsonEmployeeWriter;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 
 @Slf4j
 @RestController
 @RequestMapping("/api/v1/employee")
+@ConditionalOnProperty(name = "employee.client.mode", havingValue = "blocking", matchIfMissing = true)
 public class EmployeeControllerImplementation implements IEmployeeController<Employee, CreateEmployee> {
     private final EmployeeService employeeService;
+    private final ObjectMapper objectMapper;
 
-    public EmployeeControllerImplementation(EmployeeService employeeService) {
+    public EmployeeControllerImplementation(EmployeeService employeeService, ObjectMapper objectMapper) {
         this.employeeService = employeeService;
+        this.objectMapper = objectMapper;
     }
 
-    @GetMapping("")
+    // produces is explicit so that Accept: */* keeps resolving to the JSON array rather than the NDJSON stream.
+    // Answers computed from the cached roster are tagged with its version, see RosterResponses.
+    @GetMapping(value = "", produces = {MediaType.APPLICATION_JSON_VALUE, RosterResponses.SMILE_VALUE, MediaType.APPLICATION_CBOR_VALUE})
     public ResponseEntity<List<Employee>> getAllEmployees() {
         log.info("calling api to get all employees ");
-        return ResponseEntity.ok(employeeService.getAllEmployees());
+        String rosterVersion = employeeService.getRosterVersion();
+        return RosterResponses.ok(rosterVersion, employeeService.getAllEmployees());
+    }
+
+    // On a miss each employee is written as the cache's roster load parses it off the upstream response, so the
+    // client starts reading before the roster has fully arrived, and the load still fills the cache. The response is
+    // only started with the first employee, so a failed load or an empty roster is answered like the JSON endpoint.
+    @GetMapping(value = "", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void streamAllEmployees(HttpServletResponse response) throws IOException {
+        log.info("calling api to stream all employees as ndjson");
+        NdjsonEmployeeWriter writer = new NdjsonEmployeeWriter(objectMapper, () -> {
+            response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+            return response.getOutputStream();
+        });
+        employeeService.streamAllEmployees(writer);
+        log.info("Streamed {} employees as ndjson", writer.finish());
+    }
+
+    @GetMapping("/page")
+    public ResponseEntity<EmployeePage> getEmployeePage(@RequestParam(defaultValue = "100") int limit,
+                                                        @RequestParam(required = false) Integer offset,
+                                                        @RequestParam(required = false) String cursor) {
+        log.info("calling api to get a page of " + limit + " employees");
+        return ResponseEntity.ok(employeeService.getEmployeePage(limit, offset, cursor));
     }
 
     @GetMapping("/search/{searchString}")
     public ResponseEntity<List<Employee>> getEmployeesByNameSearch(@PathVariable String searchString) {
         log.info("calling api to get all employees with name " + searchString);
-        return ResponseEntity.ok(employeeService.getEmployeesByNameSearch(searchString));
+        String rosterVersion = employeeService.getRosterVersion();
+        return RosterResponses.ok(rosterVersion, employeeService.getEmployeesByNameSearch(searchString));
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<List<Employee>> searchEmployeesByName(@RequestParam String name,
+                                                                @RequestParam(defaultValue = "contains") String mode,
+                                                                @RequestParam(defaultValue = "false") boolean ignoreCase,
+                                                                @RequestParam(defaultValue = "0") int offset,
+                                                                @RequestParam(defaultValue = "100") int limit) {
+        log.info("calling api to search employees with name " + name + " in " + mode + " mode");
+        String rosterVersion = employeeService.getRosterVersion();
+        return RosterResponses.ok(rosterVersion, employeeService.searchEmployeesByName(name, NameMatch.from(mode), ignoreCase, offset, limit));
     }
 
     @GetMapping("/highest-salary")
     public ResponseEntity<Integer> getHighestSalaryOfEmployees() {
         log.info("calling api to get highest salaries of employees");
-        return ResponseEntity.ok(employeeService.getHighestSalaryOfEmployees());
+        String rosterVersion = employeeService.getRosterVersion();
+        return RosterResponses.ok(rosterVersion, employeeService.getHighestSalaryOfEmployees());
     }
 
     @Override
     @GetMapping("/top-10-highest-earning")
     public ResponseEntity<List<String>> getTopTenHighestEarningEmployeeNames() {
         log.info("calling api to get top 10 highest earning employees");
-        return ResponseEntity.ok(employeeService.getTopTenHighestEarningEmployeeNames());
+        String rosterVersion = employeeService.getRosterVersion();
+        return RosterResponses.ok(rosterVersion, employeeService.getTopTenHighestEarningEmployeeNames());
+    }
+
+    @GetMapping("/salary-ranking")
+    public ResponseEntity<List<String>> getEmployeeNamesRankedBySalary(@RequestParam(defaultValue = "10") int limit,
+                                                                       @RequestParam(defaultValue = "desc") String order) {
+        log.info("calling api to get " + limit + " employee names ranked by salary " + order);
+        String rosterVersion = employeeService.getRosterVersion();
+        return RosterResponses.ok(rosterVersion, employeeService.getEmployeeNamesRankedBySalary(limit, SalaryOrder.from(order)));
     }
 
 
@@ -0,0 +1,36 @@
+package com.reliaquest.api.controller;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Responses computed from the cached roster carry its version as their ETag. A client repeating a request with that
+ * ETag in If-None-Match gets a 304 from Spring, which then skips writing the body altogether.
+ *
+ * <p>The ETag is weak: the same roster goes out as JSON, Smile or CBOR, gzipped or not, and a strong ETag would both
+ * claim those bodies are byte for byte the same and stop Tomcat from compressing them. {@code Vary: Accept} keeps
+ * caches from handing one format to a client that asked for another.
+ */
+final class RosterResponses {
+
+    /**
+     * Smile, Jackson's binary JSON, which like CBOR is served alongside JSON wherever the client asks for it.
+     */
+    static final String SMILE_VALUE = "application/x-jackson-smile";
+
+    private RosterResponses() {
+    }
+
+    /**
+     * @param rosterVersion the version read before computing {@code body}, or {@code null} to send no ETag
+     */
+    static <T> ResponseEntity<T> ok(String rosterVersion, T body) {
+        if(rosterVersion == null)
+            return ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT).body(body);
+        return ResponseEntity.ok().eTag(weakETag(rosterVersion)).varyBy(HttpHeaders.ACCEPT).body(body);
+    }
+
+    private static String weakETag(String rosterVersion) {
+        return "W/\"" + rosterVersion + "\"";
+    }
+}
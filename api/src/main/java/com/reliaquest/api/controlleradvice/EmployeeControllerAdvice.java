@@ -1,11 +1,16 @@
 package com.reliaquest.api.controlleradvice;
 
 import com.reliaquest.api.exceptions.EmployeeException;
+import com.reliaquest.api.exceptions.ErrorCode;
 import com.reliaquest.api.exceptions.InternalException;
+import com.reliaquest.api.exceptions.UpstreamRateLimitedException;
 import com.reliaquest.api.exceptions.ValidationException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -18,10 +23,19 @@ import java.util.Map;
 @ControllerAdvice
 public class EmployeeControllerAdvice {
     private static final Logger logger = LoggerFactory.getLogger(EmployeeControllerAdvice.class); //lombok
+    static final String ERRORS = "employee.api.errors";
+    private static final String GENERAL_ERROR = "GENERAL_ERROR";
+
+    private final MeterRegistry meterRegistry;
+
+    public EmployeeControllerAdvice(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
 
     @ExceptionHandler(EmployeeException.class)
     public ResponseEntity<Map<String, String>> handleCustomException(EmployeeException ex) {
         logger.info("handling CustomException because " + ex.getMessage());
+        countError(ex.getError(), ex);
         Map<String, String> errorResponse = new HashMap<>();
         errorResponse.put("error", ex.getError().getCode());
         errorResponse.put("message", ex.getMessage());
@@ -31,15 +45,30 @@ public class EmployeeControllerAdvice {
     @ExceptionHandler(InternalException.class)
     public ResponseEntity<Map<String, String>> handleInternalException(InternalException ex) {
         logger.info("handling InternalException because " + ex.getMessage());
+        countError(ex.getError(), ex);
         Map<String, String> errorResponse = new HashMap<>();
         errorResponse.put("error", ex.getError().getCode());
         errorResponse.put("message", ex.getError().getMessage());
         return ResponseEntity.badRequest().body(errorResponse);
     }
 
+    @ExceptionHandler(UpstreamRateLimitedException.class)
+    public ResponseEntity<Map<String, String>> handleUpstreamRateLimitedException(UpstreamRateLimitedException ex) {
+        logger.info("handling UpstreamRateLimitedException because " + ex.getMessage());
+        countError(ex.getError(), ex);
+        Map<String, String> errorResponse = new HashMap<>();
+        errorResponse.put("error", ex.getError().getCode());
+        errorResponse.put("message", ex.getError().getMessage());
+        long retryAfterSeconds = Math.max(1, (ex.getRetryAfter().toMillis() + 999) / 1000);
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .body(errorResponse);
+    }
+
     @ExceptionHandler(ValidationException.class)
     public ResponseEntity<Map<String, String>> handleValidationException(ValidationException ex) {
         logger.info("handling ValidationException because " + ex.getMessage());
+        countError(ex.getError(), ex);
         Map<String, String> errorResponse = new HashMap<>();
         errorResponse.put("error", ex.getError().getCode());
         errorResponse.put("message", ex.getError().getMessage());
@@ -49,9 +78,20 @@ public class EmployeeControllerAdvice {
     @ExceptionHandler(Exception.class)
     public ResponseEntity<Map<String, String>> handleGeneralException(Exception ex) {
         logger.info("handling Exception because " + ex.getMessage());
+        countError(null, ex);
         Map<String, String> errorResponse = new HashMap<>();
-        errorResponse.put("error", "GENERAL_ERROR");
+        errorResponse.put("error", GENERAL_ERROR);
         errorResponse.put("message", "An unexpected error occurred");
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
     }
+
+    private void countError(ErrorCode errorCode, Exception ex) {
+        Counter.builder(ERRORS)
+                .description("Errors returned by the employee API, by error code")
+                .tag("error", errorCode == null ? GENERAL_ERROR : errorCode.name())
+                .tag("code", errorCode == null ? GENERAL_ERROR : errorCode.getCode())
+                .tag("exception", ex.getClass().getSimpleName())
+                .register(meterRegistry)
+                .increment();
+    }
 }
\ No newline at end of file
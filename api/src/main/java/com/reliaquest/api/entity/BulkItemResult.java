@@ -0,0 +1,31 @@
+package com.reliaquest.api.entity;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.reliaquest.api.exceptions.ErrorCode;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of one item of a bulk request, at the same {@code index} it had in the request. Successful items carry
+ * {@code data}; failed ones carry the error code and message a single request would have answered with.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkItemResult<T> {
+    private int index;
+    private boolean success;
+    private T data;
+    private String error;
+    private String message;
+
+    public static <T> BulkItemResult<T> succeeded(int index, T data) {
+        return new BulkItemResult<>(index, true, data, null, null);
+    }
+
+    public static <T> BulkItemResult<T> failed(int index, ErrorCode errorCode) {
+        return new BulkItemResult<>(index, false, null, errorCode.getCode(), errorCode.getMessage());
+    }
+}
@@ -0,0 +1,21 @@
+package com.reliaquest.api.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkResponse<T> {
+    private int succeeded;
+    private int failed;
+    private List<BulkItemResult<T>> results;
+
+    public static <T> BulkResponse<T> of(List<BulkItemResult<T>> results) {
+        int succeeded = (int) results.stream().filter(BulkItemResult::isSuccess).count();
+        return new BulkResponse<>(succeeded, results.size() - succeeded, results);
+    }
+}
@@ -0,0 +1,90 @@
+package com.reliaquest.api.entity;
+
+import java.util.UUID;
+
+/**
+ * Internal, parsed-once form of an {@link Employee}.
+ *
+ * <p>The upstream API sends salary and age as JSON numbers that {@link Employee} keeps as strings for the public
+ * contract. Analytics work on this form instead, so those strings are parsed exactly once when a roster is ingested
+ * rather than on every comparison. UUID ids are held as two longs; any other id is kept as it came in.
+ * Use {@link #toEmployee()} to get back to the public representation at the controller edge.
+ */
+public record CompactEmployee(
+        long idMostSignificantBits,
+        long idLeastSignificantBits,
+        String rawId,
+        String name,
+        int salary,
+        int age,
+        String title,
+        String email) {
+
+    /** Marks a salary or age that was missing or not a whole number. */
+    public static final int MISSING = Integer.MIN_VALUE;
+
+    private static final int UUID_LENGTH = 36;
+
+    public static CompactEmployee from(Employee employee) {
+        String id = employee.getId();
+        UUID uuid = parseUuid(id);
+        return new CompactEmployee(
+                uuid == null ? 0L : uuid.getMostSignificantBits(),
+                uuid == null ? 0L : uuid.getLeastSignificantBits(),
+                uuid == null ? id : null,
+                employee.getName(),
+                parseNumber(employee.getSalary()),
+                parseNumber(employee.getAge()),
+                employee.getTitle(),
+                employee.getEmail());
+    }
+
+    public String id() {
+        if (rawId != null) {
+            return rawId;
+        }
+        return new UUID(idMostSignificantBits, idLeastSignificantBits).toString();
+    }
+
+    public boolean hasSalary() {
+        return salary != MISSING;
+    }
+
+    public boolean hasAge() {
+        return age != MISSING;
+    }
+
+    public Employee toEmployee() {
+        return new Employee(
+                id(),
+                name,
+                hasSalary() ? Integer.toString(salary) : null,
+                hasAge() ? Integer.toString(age) : null,
+                title,
+                email);
+    }
+
+    private static UUID parseUuid(String id) {
+        // Only canonical lower-case UUIDs round-trip through toString(); anything else stays a raw string.
+        if (id == null || id.length() != UUID_LENGTH) {
+            return null;
+        }
+        try {
+            UUID uuid = UUID.fromString(id);
+            return uuid.toString().equals(id) ? uuid : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static int parseNumber(String value) {
+        if (value == null) {
+            return MISSING;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            return MISSING;
+        }
+    }
+}
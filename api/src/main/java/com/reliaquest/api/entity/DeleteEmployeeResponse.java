@@ -0,0 +1,12 @@
+package com.reliaquest.api.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeleteEmployeeResponse {
+    private Employee data;
+}
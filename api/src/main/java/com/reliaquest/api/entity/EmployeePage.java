@@ -0,0 +1,23 @@
+package com.reliaquest.api.entity;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of the roster, as returned by the upstream API and passed on as is. {@code nextOffset} is set on offset
+ * pages and {@code nextCursor} on cursor pages, each only when there is a next page.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class EmployeePage {
+    private List<Employee> employees;
+    private int total;
+    private Integer nextOffset;
+    private String nextCursor;
+}
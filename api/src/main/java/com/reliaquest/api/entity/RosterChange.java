@@ -0,0 +1,21 @@
+package com.reliaquest.api.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One create or delete from the upstream API's roster change log.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RosterChange {
+    private Type type;
+    private Employee employee;
+
+    public enum Type {
+        ADDED,
+        REMOVED
+    }
+}
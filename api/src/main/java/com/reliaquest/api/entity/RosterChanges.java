@@ -0,0 +1,19 @@
+package com.reliaquest.api.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * The changes to the upstream roster after some version, oldest first; applied to the roster at that version they
+ * give the roster at {@code version}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RosterChanges {
+    private String version;
+    private List<RosterChange> changes;
+}
@@ -0,0 +1,33 @@
+package com.reliaquest.api.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Salary statistics computed by the upstream API. {@code employees} counts the whole roster, the summaries only those
+ * with a salary; {@code all} is null when nobody has one.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SalaryStats {
+    private int employees;
+    private Summary all;
+    private Map<String, Summary> byTitle;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Summary {
+        private int count;
+        private int min;
+        private int max;
+        private double average;
+        private int p50;
+        private int p90;
+        private int p99;
+    }
+}
@@ -0,0 +1,15 @@
+package com.reliaquest.api.entity;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// The upstream API wraps data with its status and error, which are not needed here.
+@JsonIgnoreProperties(ignoreUnknown = true)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SalaryStatsResponse {
+    private SalaryStats data;
+}
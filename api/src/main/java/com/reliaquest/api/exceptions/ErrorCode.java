@@ -3,6 +3,7 @@ package com.reliaquest.api.exceptions;
 public enum ErrorCode {
     API_REQUEST_FAILURE("ERR-101", "REST API request execution failed"),
     JSON_DESERIALIZATION_FAILURE("ERR-102", "Failed to parse JSON data"),
+    UPSTREAM_RATE_LIMITED("ERR-103", "Upstream API is rate limiting requests, retry later"),
     NO_RECORDS_FOUND("ERR-201", "Employee data not found"),
     EMPLOYEE_NAME_NOT_FOUND("ERR-202", "No matching employees for the provided name"),
     MISSING_ID("ERR-301", "Employee ID cannot be empty"),
@@ -11,7 +12,14 @@ public enum ErrorCode {
     SALARY_BELOW_ZERO("ERR-304", "Salary must be non-negative"),
     INVALID_OR_EMPTY_AGE("ERR-305", "Age is either empty or invalid"),
     AGE_BELOW_ZERO("ERR-306", "Age must be a positive value"),
-    AGE_OVER_LIMIT("ERR-307", "Age cannot be above 100");
+    AGE_OVER_LIMIT("ERR-307", "Age cannot be above 100"),
+    INVALID_LIMIT("ERR-308", "Limit must be a non-negative number"),
+    INVALID_SORT_ORDER("ERR-309", "Sort order must be either asc or desc"),
+    INVALID_SEARCH_MODE("ERR-310", "Search mode must be either contains or prefix"),
+    INVALID_OFFSET("ERR-311", "Offset must be a non-negative number"),
+    BULK_LIMIT_EXCEEDED("ERR-312", "Bulk request is missing or holds more items than allowed"),
+    INVALID_CURSOR("ERR-313", "Cursor is invalid or was combined with an offset"),
+    INVALID_PAGE_SIZE("ERR-314", "Page size must be between 1 and 1000");
 
     private final String code;
     private final String message;
@@ -0,0 +1,19 @@
+package com.reliaquest.api.exceptions;
+
+import java.time.Duration;
+
+/**
+ * Thrown when the upstream employee API keeps answering 429, or is expected to, for longer than a caller may wait.
+ */
+public class UpstreamRateLimitedException extends InternalException {
+    private final Duration retryAfter;
+
+    public UpstreamRateLimitedException(Duration retryAfter) {
+        super(ErrorCode.UPSTREAM_RATE_LIMITED);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,479 @@
+package com.reliaquest.api.index;
+
+import com.reliaquest.api.entity.Employee;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Immutable n-gram index over {@link Employee#getName()} for substring and prefix search.
+ *
+ * <p>Every lower-cased name is split into its 2- and 3-character grams, and each gram maps to the sorted ordinals of
+ * the names containing it. A substring query intersects the posting lists of its own grams, so only names sharing all
+ * of them are compared against the query. Prefix queries binary-search a copy of the ordinals sorted by lower-cased
+ * name. Queries shorter than two characters fall back to a scan that stops as soon as the page is filled.
+ *
+ * <p>Creates and deletes do not rebuild the index: {@link #withAdded(Employee)} appends to a small unindexed tail and
+ * {@link #withRemoved(Employee)} marks a tombstone, both in arrays shared with the index they were derived from, so
+ * neither copies the roster. Once the tail and tombstones outgrow {@link #MIN_DELTA_BEFORE_REBUILD} or a sixteenth of
+ * the base, the next update rebuilds from the live employees.
+ */
+public final class NameIndex {
+
+    static final int MIN_DELTA_BEFORE_REBUILD = 256;
+
+    private static final int[] NO_ORDINALS = new int[0];
+    private static final int LIVE = Integer.MAX_VALUE;
+
+    private final Entries entries;
+
+    /** Number of entries this index sees, base and tail. */
+    private final int length;
+
+    /** Number of tombstones this index sees. */
+    private final int removedCount;
+
+    private final int baseSize;
+    private final Map<Long, int[]> postings;
+    private final int[] baseOrdinalsByName;
+
+    private NameIndex(
+            Entries entries,
+            int length,
+            int removedCount,
+            int baseSize,
+            Map<Long, int[]> postings,
+            int[] baseOrdinalsByName) {
+        this.entries = entries;
+        this.length = length;
+        this.removedCount = removedCount;
+        this.baseSize = baseSize;
+        this.postings = postings;
+        this.baseOrdinalsByName = baseOrdinalsByName;
+    }
+
+    public static NameIndex of(List<Employee> roster) {
+        int size = roster.size();
+        // Room for every update before the next rebuild, so the shared arrays never have to grow.
+        Entries entries = new Entries(size + Math.max(MIN_DELTA_BEFORE_REBUILD, size / 16) + 1);
+        Map<Long, IntList> builders = new HashMap<>();
+        for (int ordinal = 0; ordinal < size; ordinal++) {
+            Employee employee = roster.get(ordinal);
+            String lowerName = lowerCase(employee.getName());
+            entries.append(employee, lowerName);
+            for (long gram : grams(lowerName)) {
+                IntList ordinals = builders.computeIfAbsent(gram, ignored -> new IntList());
+                // Ordinals arrive in ascending order, so a repeated gram in one name is always the last entry.
+                if (ordinals.size == 0 || ordinals.last() != ordinal) {
+                    ordinals.add(ordinal);
+                }
+            }
+        }
+        Map<Long, int[]> postings = new HashMap<>(Math.max(16, builders.size() * 4 / 3 + 1));
+        builders.forEach((gram, ordinals) -> postings.put(gram, ordinals.toArray()));
+
+        int[] ordinalsByName = sortedByName(entries.lowerNames, size);
+        return new NameIndex(entries, size, 0, size, postings, ordinalsByName);
+    }
+
+    public int size() {
+        return length - removedCount;
+    }
+
+    public NameIndex withAdded(Employee employee) {
+        if (needsRebuild(1)) {
+            List<Employee> live = liveEntries();
+            live.add(employee);
+            return of(live);
+        }
+        Entries appended = entries.append(length, removedCount, employee, lowerCase(employee.getName()));
+        return new NameIndex(appended, length + 1, removedCount, baseSize, postings, baseOrdinalsByName);
+    }
+
+    public NameIndex withRemoved(Employee employee) {
+        int ordinal = ordinalOf(employee);
+        if (ordinal < 0) {
+            return this;
+        }
+        Entries tombstoned = entries.remove(length, removedCount, ordinal);
+        NameIndex updated =
+                new NameIndex(tombstoned, length, removedCount + 1, baseSize, postings, baseOrdinalsByName);
+        return needsRebuild(1) ? of(updated.liveEntries()) : updated;
+    }
+
+    /**
+     * @param query substring to look for; an empty query matches everyone
+     * @param mode {@link NameMatch#CONTAINS} returns matches in roster order, {@link NameMatch#PREFIX} in name order
+     * @param ignoreCase whether {@code query} is compared case-insensitively
+     * @param offset number of matches to skip
+     * @param limit maximum number of matches to return
+     */
+    public List<Employee> search(String query, NameMatch mode, boolean ignoreCase, int offset, int limit) {
+        Matcher matcher = new Matcher(query == null ? "" : query, ignoreCase, mode, offset, limit);
+        if (limit <= 0) {
+            return matcher.results;
+        }
+        if (mode == NameMatch.PREFIX) {
+            searchPrefix(matcher);
+        } else {
+            searchContains(matcher);
+        }
+        return matcher.results;
+    }
+
+    private void searchContains(Matcher matcher) {
+        int[] candidates = matcher.lowerQuery.length() < 2 ? null : baseCandidates(matcher.lowerQuery);
+        if (candidates == null) {
+            for (int ordinal = 0; ordinal < length && !matcher.isFull(); ordinal++) {
+                matcher.offer(ordinal);
+            }
+            return;
+        }
+        for (int i = 0; i < candidates.length && !matcher.isFull(); i++) {
+            matcher.offer(candidates[i]);
+        }
+        for (int ordinal = baseSize; ordinal < length && !matcher.isFull(); ordinal++) {
+            matcher.offer(ordinal);
+        }
+    }
+
+    private void searchPrefix(Matcher matcher) {
+        String lowerQuery = matcher.lowerQuery;
+        String[] lowerNames = entries.lowerNames;
+        int base = lowerBound(lowerQuery);
+        int[] tail = tailMatches(lowerQuery);
+        int t = 0;
+        while (!matcher.isFull()) {
+            boolean baseInRange = base < baseOrdinalsByName.length
+                    && lowerNames[baseOrdinalsByName[base]].startsWith(lowerQuery);
+            boolean tailInRange = t < tail.length;
+            if (!baseInRange && !tailInRange) {
+                return;
+            }
+            if (tailInRange
+                    && (!baseInRange
+                            || lowerNames[tail[t]].compareTo(lowerNames[baseOrdinalsByName[base]]) < 0)) {
+                matcher.offer(tail[t++]);
+            } else {
+                matcher.offer(baseOrdinalsByName[base++]);
+            }
+        }
+    }
+
+    /** Live tail ordinals whose lower-cased name starts with {@code lowerQuery}, sorted by that name. */
+    private int[] tailMatches(String lowerQuery) {
+        String[] lowerNames = entries.lowerNames;
+        IntList matches = new IntList();
+        for (int ordinal = baseSize; ordinal < length; ordinal++) {
+            if (isLive(ordinal) && lowerNames[ordinal].startsWith(lowerQuery)) {
+                matches.add(ordinal);
+            }
+        }
+        return matches.size < 2 ? matches.toArray() : sortedByName(lowerNames, matches.toArray());
+    }
+
+    /**
+     * @return ordinals of base entries containing every gram of {@code lowerQuery}, or {@code null} when the query has
+     *     no grams to look up
+     */
+    private int[] baseCandidates(String lowerQuery) {
+        long[] queryGrams = lowerQuery.length() == 2 ? new long[] {gram(lowerQuery, 0, 2)} : trigrams(lowerQuery);
+        int[][] lists = new int[queryGrams.length][];
+        for (int i = 0; i < queryGrams.length; i++) {
+            int[] ordinals = postings.get(queryGrams[i]);
+            if (ordinals == null) {
+                return NO_ORDINALS;
+            }
+            lists[i] = ordinals;
+        }
+        Arrays.sort(lists, Comparator.comparingInt(ordinals -> ordinals.length));
+        int[] candidates = lists[0];
+        for (int i = 1; i < lists.length && candidates.length > 0; i++) {
+            candidates = intersect(candidates, lists[i]);
+        }
+        return candidates;
+    }
+
+    /** Finds {@code employee} by identity, looking only at ordinals whose names share its grams. */
+    private int ordinalOf(Employee employee) {
+        String lowerName = lowerCase(employee.getName());
+        if (lowerName.length() < 2) {
+            return indexOf(employee, 0, length);
+        }
+        for (int ordinal : baseCandidates(lowerName)) {
+            if (isLive(ordinal) && entry(ordinal) == employee) {
+                return ordinal;
+            }
+        }
+        return indexOf(employee, baseSize, length);
+    }
+
+    private int indexOf(Employee employee, int from, int to) {
+        for (int ordinal = from; ordinal < to; ordinal++) {
+            if (isLive(ordinal) && entry(ordinal) == employee) {
+                return ordinal;
+            }
+        }
+        return -1;
+    }
+
+    private Employee entry(int ordinal) {
+        return entries.employees[ordinal];
+    }
+
+    /** A tombstone is seen only by the indexes derived from the one it was marked in. */
+    private boolean isLive(int ordinal) {
+        return entries.removedAt[ordinal] >= removedCount;
+    }
+
+    private boolean needsRebuild(int pendingChanges) {
+        int delta = length - baseSize + removedCount + pendingChanges;
+        return delta > Math.max(MIN_DELTA_BEFORE_REBUILD, baseSize / 16);
+    }
+
+    private List<Employee> liveEntries() {
+        List<Employee> live = new ArrayList<>(size() + 1);
+        for (int ordinal = 0; ordinal < length; ordinal++) {
+            if (isLive(ordinal)) {
+                live.add(entry(ordinal));
+            }
+        }
+        return live;
+    }
+
+    private int lowerBound(String lowerQuery) {
+        int low = 0;
+        int high = baseOrdinalsByName.length;
+        String[] lowerNames = entries.lowerNames;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (lowerNames[baseOrdinalsByName[mid]].compareTo(lowerQuery) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static int[] sortedByName(String[] lowerNames, int size) {
+        int[] ordinals = new int[size];
+        for (int i = 0; i < size; i++) {
+            ordinals[i] = i;
+        }
+        return sortedByName(lowerNames, ordinals);
+    }
+
+    /** Sorts {@code ordinals} by name, keeping equal names in ordinal order. */
+    private static int[] sortedByName(String[] lowerNames, int[] ordinals) {
+        Integer[] boxed = new Integer[ordinals.length];
+        for (int i = 0; i < ordinals.length; i++) {
+            boxed[i] = ordinals[i];
+        }
+        Arrays.sort(boxed, Comparator.comparing(ordinal -> lowerNames[ordinal]));
+        for (int i = 0; i < ordinals.length; i++) {
+            ordinals[i] = boxed[i];
+        }
+        return ordinals;
+    }
+
+    private static int[] intersect(int[] smaller, int[] larger) {
+        int[] result = new int[smaller.length];
+        int count = 0;
+        int from = 0;
+        for (int ordinal : smaller) {
+            int found = Arrays.binarySearch(larger, from, larger.length, ordinal);
+            if (found >= 0) {
+                result[count++] = ordinal;
+                from = found + 1;
+            } else {
+                from = -found - 1;
+            }
+            if (from >= larger.length) {
+                break;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    private static long[] grams(String lowerName) {
+        int length = lowerName.length();
+        if (length < 2) {
+            return new long[0];
+        }
+        long[] grams = new long[(length - 1) + Math.max(0, length - 2)];
+        int count = 0;
+        for (int i = 0; i + 2 <= length; i++) {
+            grams[count++] = gram(lowerName, i, 2);
+        }
+        for (int i = 0; i + 3 <= length; i++) {
+            grams[count++] = gram(lowerName, i, 3);
+        }
+        return grams;
+    }
+
+    private static long[] trigrams(String lowerQuery) {
+        long[] grams = new long[lowerQuery.length() - 2];
+        for (int i = 0; i < grams.length; i++) {
+            grams[i] = gram(lowerQuery, i, 3);
+        }
+        return grams;
+    }
+
+    /** Packs {@code length} (2 or 3) chars starting at {@code start} into one key, with the length in the top bits. */
+    private static long gram(String value, int start, int length) {
+        long key = length;
+        for (int i = start; i < start + length; i++) {
+            key = (key << 16) | value.charAt(i);
+        }
+        return key;
+    }
+
+    private static String lowerCase(String name) {
+        return name == null ? "" : name.toLowerCase(Locale.ROOT);
+    }
+
+    private final class Matcher {
+
+        private final String query;
+        private final String lowerQuery;
+        private final boolean ignoreCase;
+        private final NameMatch mode;
+        private final int limit;
+        private int toSkip;
+        private final List<Employee> results = new ArrayList<>();
+
+        private Matcher(String query, boolean ignoreCase, NameMatch mode, int offset, int limit) {
+            this.query = query;
+            this.lowerQuery = lowerCase(query);
+            this.ignoreCase = ignoreCase;
+            this.mode = mode;
+            this.toSkip = offset;
+            this.limit = limit;
+        }
+
+        private boolean isFull() {
+            return results.size() >= limit;
+        }
+
+        private void offer(int ordinal) {
+            if (!isLive(ordinal) || !matches(ordinal)) {
+                return;
+            }
+            if (toSkip > 0) {
+                toSkip--;
+                return;
+            }
+            results.add(entry(ordinal));
+        }
+
+        private boolean matches(int ordinal) {
+            String[] lowerNames = entries.lowerNames;
+            if (ignoreCase) {
+                return mode == NameMatch.PREFIX
+                        ? lowerNames[ordinal].startsWith(lowerQuery)
+                        : lowerNames[ordinal].contains(lowerQuery);
+            }
+            String name = entry(ordinal).getName();
+            if (name == null) {
+                return query.isEmpty();
+            }
+            return mode == NameMatch.PREFIX ? name.startsWith(query) : name.contains(query);
+        }
+    }
+
+    /**
+     * Entries of a base and its tail in roster order, with the lower-cased names and, for each entry, the tombstone
+     * sequence number it was removed at. An index sees a prefix of the entries and of the tombstones; only an update to
+     * the index seeing all of them extends them in place, any other update copies what its index sees first.
+     */
+    private static final class Entries {
+
+        private volatile Employee[] employees;
+        private volatile String[] lowerNames;
+        private volatile int[] removedAt;
+
+        // Guarded by this.
+        private int size;
+        private int removals;
+
+        private Entries(int capacity) {
+            employees = new Employee[capacity];
+            lowerNames = new String[capacity];
+            removedAt = new int[capacity];
+            Arrays.fill(removedAt, LIVE);
+        }
+
+        private synchronized Entries append(int length, int removedCount, Employee employee, String lowerName) {
+            Entries target = sharedBy(length, removedCount) ? this : copy(length, removedCount);
+            target.append(employee, lowerName);
+            return target;
+        }
+
+        private synchronized Entries remove(int length, int removedCount, int ordinal) {
+            Entries target = sharedBy(length, removedCount) ? this : copy(length, removedCount);
+            target.removedAt[ordinal] = target.removals++;
+            return target;
+        }
+
+        private boolean sharedBy(int length, int removedCount) {
+            return size == length && removals == removedCount;
+        }
+
+        private void append(Employee employee, String lowerName) {
+            if (size == employees.length) {
+                grow(size * 2 + 1);
+            }
+            employees[size] = employee;
+            lowerNames[size] = lowerName;
+            size++;
+        }
+
+        private void grow(int capacity) {
+            int[] removedAt = Arrays.copyOf(this.removedAt, capacity);
+            Arrays.fill(removedAt, size, capacity, LIVE);
+            employees = Arrays.copyOf(employees, capacity);
+            lowerNames = Arrays.copyOf(lowerNames, capacity);
+            this.removedAt = removedAt;
+        }
+
+        private Entries copy(int length, int removedCount) {
+            Entries copy = new Entries(employees.length);
+            System.arraycopy(employees, 0, copy.employees, 0, length);
+            System.arraycopy(lowerNames, 0, copy.lowerNames, 0, length);
+            for (int ordinal = 0; ordinal < length; ordinal++) {
+                if (removedAt[ordinal] < removedCount) {
+                    copy.removedAt[ordinal] = removedAt[ordinal];
+                }
+            }
+            copy.size = length;
+            copy.removals = removedCount;
+            return copy;
+        }
+    }
+
+    private static final class IntList {
+
+        private int[] values = new int[4];
+        private int size;
+
+        private void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        private int last() {
+            return values[size - 1];
+        }
+
+        private int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
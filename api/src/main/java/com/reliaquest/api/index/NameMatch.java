@@ -0,0 +1,20 @@
+package com.reliaquest.api.index;
+
+import com.reliaquest.api.exceptions.ErrorCode;
+import com.reliaquest.api.exceptions.ValidationException;
+
+public enum NameMatch {
+    CONTAINS,
+    PREFIX;
+
+    public static NameMatch from(String mode) {
+        if (mode != null) {
+            for (NameMatch nameMatch : values()) {
+                if (nameMatch.name().equalsIgnoreCase(mode.trim())) {
+                    return nameMatch;
+                }
+            }
+        }
+        throw new ValidationException(ErrorCode.INVALID_SEARCH_MODE);
+    }
+}
@@ -0,0 +1,98 @@
+package com.reliaquest.api.index;
+
+import com.reliaquest.api.entity.CompactEmployee;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Employees of one roster snapshot ordered by salary, highest first.
+ *
+ * <p>The index is built from {@link CompactEmployee}s, so every salary is parsed once, and keeps the salaries as a
+ * primitive {@code int[]}, so the highest salary is a single array read and the top {@code n} employees are a walk
+ * over the first {@code n} slots. Employees with equal salaries keep their roster order in both
+ * directions. Employees whose salary is missing or not a number are left out of the index.
+ */
+public final class SalaryIndex {
+
+    private static final SalaryIndex EMPTY = new SalaryIndex(new int[0], new CompactEmployee[0]);
+
+    private final int[] salaries;
+    private final CompactEmployee[] employees;
+
+    private SalaryIndex(int[] salaries, CompactEmployee[] employees) {
+        this.salaries = salaries;
+        this.employees = employees;
+    }
+
+    public static SalaryIndex of(List<CompactEmployee> roster) {
+        if (roster.isEmpty()) {
+            return EMPTY;
+        }
+        // Pack (inverted salary, roster position) into one long so a primitive sort yields salary-descending order
+        // with ties kept in roster order, without boxing or a comparator.
+        long[] keys = new long[roster.size()];
+        int indexed = 0;
+        for (int position = 0; position < roster.size(); position++) {
+            CompactEmployee employee = roster.get(position);
+            if (employee.hasSalary()) {
+                keys[indexed++] = ((long) ~employee.salary() << 32) | position;
+            }
+        }
+        Arrays.sort(keys, 0, indexed);
+
+        int[] salaries = new int[indexed];
+        CompactEmployee[] employees = new CompactEmployee[indexed];
+        for (int i = 0; i < indexed; i++) {
+            salaries[i] = ~(int) (keys[i] >> 32);
+            employees[i] = roster.get((int) keys[i]);
+        }
+        return new SalaryIndex(salaries, employees);
+    }
+
+    public int size() {
+        return salaries.length;
+    }
+
+    /**
+     * @return the highest salary, or {@code 0} when no employee has a valid salary
+     */
+    public int highestSalary() {
+        return salaries.length == 0 ? 0 : salaries[0];
+    }
+
+    /**
+     * @return the lowest salary, or {@code 0} when no employee has a valid salary
+     */
+    public int lowestSalary() {
+        return salaries.length == 0 ? 0 : salaries[salaries.length - 1];
+    }
+
+    /**
+     * @return at most {@code limit} employees, highest earners first for {@link SalaryOrder#DESC} and lowest first
+     *     for {@link SalaryOrder#ASC}
+     */
+    public List<CompactEmployee> top(int limit, SalaryOrder order) {
+        int count = Math.min(Math.max(limit, 0), salaries.length);
+        List<CompactEmployee> result = new ArrayList<>(count);
+        if (order == SalaryOrder.DESC) {
+            for (int i = 0; i < count; i++) {
+                result.add(employees[i]);
+            }
+            return result;
+        }
+        // Walk runs of equal salaries from the low end, emitting each run front-to-back so ties stay in roster order.
+        int runEnd = salaries.length - 1;
+        while (result.size() < count) {
+            int runStart = runEnd;
+            while (runStart > 0 && salaries[runStart - 1] == salaries[runEnd]) {
+                runStart--;
+            }
+            for (int i = runStart; i <= runEnd && result.size() < count; i++) {
+                result.add(employees[i]);
+            }
+            runEnd = runStart - 1;
+        }
+        return result;
+    }
+}
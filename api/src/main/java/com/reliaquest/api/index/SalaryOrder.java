@@ -0,0 +1,20 @@
+package com.reliaquest.api.index;
+
+import com.reliaquest.api.exceptions.ErrorCode;
+import com.reliaquest.api.exceptions.ValidationException;
+
+public enum SalaryOrder {
+    ASC,
+    DESC;
+
+    public static SalaryOrder from(String order) {
+        if (order != null) {
+            for (SalaryOrder salaryOrder : values()) {
+                if (salaryOrder.name().equalsIgnoreCase(order.trim())) {
+                    return salaryOrder;
+                }
+            }
+        }
+        throw new ValidationException(ErrorCode.INVALID_SORT_ORDER);
+    }
+}
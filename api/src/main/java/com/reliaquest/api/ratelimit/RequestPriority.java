@@ -0,0 +1,9 @@
+package com.reliaquest.api.ratelimit;
+
+/**
+ * How an upstream call is scheduled when the request budget runs low: writes may use the slots reads leave free.
+ */
+public enum RequestPriority {
+    READ,
+    WRITE
+}
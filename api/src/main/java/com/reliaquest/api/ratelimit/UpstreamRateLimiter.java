@@ -0,0 +1,289 @@
+package com.reliaquest.api.ratelimit;
+
+import com.reliaquest.api.configurations.RateLimitProperties;
+import com.reliaquest.api.exceptions.UpstreamRateLimitedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+
+/**
+ * Client-side limiter for the upstream employee API, which accepts a fixed number of requests and then answers 429
+ * until a cooldown has passed since the last request it accepted.
+ *
+ * <p>Neither number is published, so both are learned: the budget is the number of requests accepted in the window
+ * before the first 429, not counting calls still in flight, and the cooldown is the time from the last accepted request until one is accepted again. Until the
+ * cooldown is known, consecutive 429s back off exponentially with jitter. Once the budget is known, calls that would
+ * exceed it wait for the window to reopen instead of spending a request on a 429, and reads stop
+ * {@link RateLimitProperties#writeReserve()} requests short of it so creates and deletes still get through.
+ *
+ * <p>A call that cannot get a permit within its priority's maximum wait, or is still throttled after
+ * {@link RateLimitProperties#maxAttempts()}, fails with {@link UpstreamRateLimitedException}. Blocking callers wait
+ * by parking their own thread; {@link #executeAsync} waits on a delayed executor instead and holds no thread.
+ */
+@Slf4j
+@Component
+public class UpstreamRateLimiter {
+
+    private static final int UNKNOWN = -1;
+
+    private final RateLimitProperties properties;
+    private final LongSupplier nanoClock;
+    private final Counter retries;
+    private final Counter rejectedReads;
+    private final Counter rejectedWrites;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    // Everything below is guarded by lock.
+    private int learnedBudget = UNKNOWN;
+    private long learnedCooldownNanos = UNKNOWN;
+    private int usedInWindow;
+    private int acceptedInWindow;
+    private long lastAcceptedNanos;
+    private long cooldownUntilNanos;
+    private int consecutiveThrottles;
+    private long throttledAfterNanos;
+
+    @Autowired
+    public UpstreamRateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, System::nanoTime);
+    }
+
+    UpstreamRateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry, LongSupplier nanoClock) {
+        this.properties = properties;
+        this.nanoClock = nanoClock;
+        this.retries = Counter.builder("employee.upstream.ratelimit.retries")
+                .description("Upstream calls retried after a 429")
+                .register(meterRegistry);
+        this.rejectedReads = rejectedCounter(meterRegistry, RequestPriority.READ);
+        this.rejectedWrites = rejectedCounter(meterRegistry, RequestPriority.WRITE);
+        Gauge.builder("employee.upstream.ratelimit.budget", this, UpstreamRateLimiter::learnedBudget)
+                .description("Requests the upstream accepts per window, as learned from 429s; -1 until known")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs {@code call} once a permit for {@code priority} is available, retrying it while the upstream answers 429.
+     */
+    public <T> T execute(RequestPriority priority, Supplier<T> call) {
+        if (!properties.enabled()) {
+            return call.get();
+        }
+        for (int attempt = 1; ; attempt++) {
+            acquire(priority);
+            try {
+                T result = call.get();
+                onAccepted();
+                return result;
+            } catch (HttpClientErrorException.TooManyRequests e) {
+                long backoffNanos = onThrottled();
+                if (attempt >= properties.maxAttempts()) {
+                    log.warn("Upstream still throttling after {} attempts, giving up", attempt);
+                    throw new UpstreamRateLimitedException(Duration.ofNanos(backoffNanos));
+                }
+                retries.increment();
+                log.info("Upstream throttled attempt {}, backing off for {} ms", attempt, backoffNanos / 1_000_000);
+            }
+        }
+    }
+
+    public int learnedBudget() {
+        lock.lock();
+        try {
+            return learnedBudget;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Non-blocking variant of {@link #execute}: waits for permits and backoffs on a delayed executor, so no thread is
+     * held while the call is throttled. Failures complete the returned future with the underlying exception.
+     */
+    public <T> CompletableFuture<T> executeAsync(RequestPriority priority, Supplier<CompletableFuture<T>> call) {
+        if (!properties.enabled()) {
+            return call.get();
+        }
+        return attemptAsync(priority, call, 1);
+    }
+
+    private <T> CompletableFuture<T> attemptAsync(RequestPriority priority, Supplier<CompletableFuture<T>> call, int attempt) {
+        return acquireAsync(priority, deadline(priority))
+                .thenCompose(ignored -> call.get())
+                .handle((result, failure) -> {
+                    if (failure == null) {
+                        onAccepted();
+                        return CompletableFuture.completedFuture(result);
+                    }
+                    Throwable cause = failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+                    if (!(cause instanceof HttpClientErrorException.TooManyRequests)) {
+                        return CompletableFuture.<T>failedFuture(cause);
+                    }
+                    long backoffNanos = onThrottled();
+                    if (attempt >= properties.maxAttempts()) {
+                        log.warn("Upstream still throttling after {} attempts, giving up", attempt);
+                        return CompletableFuture.<T>failedFuture(new UpstreamRateLimitedException(Duration.ofNanos(backoffNanos)));
+                    }
+                    retries.increment();
+                    log.info("Upstream throttled attempt {}, backing off for {} ms", attempt, backoffNanos / 1_000_000);
+                    return attemptAsync(priority, call, attempt + 1);
+                })
+                .thenCompose(next -> next);
+    }
+
+    void acquire(RequestPriority priority) {
+        long deadline = deadline(priority);
+        while (true) {
+            long now = nanoClock.getAsLong();
+            long delay = tryAcquire(priority, now);
+            if (delay == 0) {
+                return;
+            }
+            if (now + delay > deadline) {
+                throw reject(priority, delay);
+            }
+            LockSupport.parkNanos(delay);
+            if (Thread.currentThread().isInterrupted()) {
+                throw new UpstreamRateLimitedException(Duration.ofNanos(delay));
+            }
+        }
+    }
+
+    CompletableFuture<Void> acquireAsync(RequestPriority priority, long deadline) {
+        long now = nanoClock.getAsLong();
+        long delay = tryAcquire(priority, now);
+        if (delay == 0) {
+            return CompletableFuture.completedFuture(null);
+        }
+        if (now + delay > deadline) {
+            return CompletableFuture.failedFuture(reject(priority, delay));
+        }
+        return CompletableFuture.runAsync(() -> {}, CompletableFuture.delayedExecutor(delay, TimeUnit.NANOSECONDS))
+                .thenCompose(ignored -> acquireAsync(priority, deadline));
+    }
+
+    private long deadline(RequestPriority priority) {
+        Duration maxWait = priority == RequestPriority.WRITE ? properties.writeMaxWait() : properties.readMaxWait();
+        return nanoClock.getAsLong() + maxWait.toNanos();
+    }
+
+    /**
+     * Takes a permit if one is available.
+     *
+     * @return {@code 0} if a permit was taken, otherwise how long until one may be
+     */
+    private long tryAcquire(RequestPriority priority, long now) {
+        lock.lock();
+        try {
+            long delay = permitDelay(priority, now);
+            if (delay == 0) {
+                usedInWindow++;
+            }
+            return delay;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private UpstreamRateLimitedException reject(RequestPriority priority, long delay) {
+        (priority == RequestPriority.WRITE ? rejectedWrites : rejectedReads).increment();
+        return new UpstreamRateLimitedException(Duration.ofNanos(delay));
+    }
+
+    /**
+     * @return {@code 0} if a call may go out now, otherwise how long until it may
+     */
+    private long permitDelay(RequestPriority priority, long now) {
+        if (cooldownUntilNanos != 0) {
+            if (now < cooldownUntilNanos) {
+                return cooldownUntilNanos - now;
+            }
+            // Backoff elapsed; let calls probe whether the upstream window has reopened.
+            cooldownUntilNanos = 0;
+            usedInWindow = 0;
+            acceptedInWindow = 0;
+        }
+        if (learnedBudget == UNKNOWN || learnedCooldownNanos == UNKNOWN) {
+            return 0;
+        }
+        int reserve = priority == RequestPriority.WRITE ? 0 : Math.min(properties.writeReserve(), learnedBudget - 1);
+        if (learnedBudget - usedInWindow > reserve) {
+            return 0;
+        }
+        long reopensAt = lastAcceptedNanos + learnedCooldownNanos;
+        if (now < reopensAt) {
+            return reopensAt - now;
+        }
+        usedInWindow = 0;
+        acceptedInWindow = 0;
+        return 0;
+    }
+
+    private void onAccepted() {
+        long now = nanoClock.getAsLong();
+        lock.lock();
+        try {
+            if (consecutiveThrottles > 0) {
+                learnedCooldownNanos = now - throttledAfterNanos;
+                consecutiveThrottles = 0;
+                log.info("Upstream accepted requests again after {} ms", learnedCooldownNanos / 1_000_000);
+            }
+            lastAcceptedNanos = now;
+            acceptedInWindow++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return how long calls are held back before the next attempt
+     */
+    private long onThrottled() {
+        long now = nanoClock.getAsLong();
+        lock.lock();
+        try {
+            if (consecutiveThrottles == 0) {
+                // usedInWindow would also count calls that were let out but have not been answered yet.
+                learnedBudget = Math.max(1, acceptedInWindow);
+                throttledAfterNanos = lastAcceptedNanos == 0 ? now : lastAcceptedNanos;
+                log.info("Upstream throttled after {} requests in this window", learnedBudget);
+            }
+            consecutiveThrottles++;
+            long backoff;
+            if (learnedCooldownNanos != UNKNOWN && consecutiveThrottles == 1) {
+                backoff = Math.max(throttledAfterNanos + learnedCooldownNanos - now, 0) + jitter(properties.initialBackoff().toNanos());
+            } else {
+                long exponential = properties.initialBackoff().toNanos() << Math.min(consecutiveThrottles - 1, 20);
+                long capped = Math.min(exponential, properties.maxBackoff().toNanos());
+                backoff = capped / 2 + jitter(capped / 2);
+            }
+            cooldownUntilNanos = now + Math.max(backoff, 1);
+            return cooldownUntilNanos - now;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static long jitter(long boundNanos) {
+        return boundNanos <= 0 ? 0 : ThreadLocalRandom.current().nextLong(boundNanos);
+    }
+
+    private static Counter rejectedCounter(MeterRegistry meterRegistry, RequestPriority priority) {
+        return Counter.builder("employee.upstream.ratelimit.rejected")
+                .description("Upstream calls not sent because the request budget was exhausted")
+                .tag("priority", priority.name())
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,152 @@
+package com.reliaquest.api.services;
+
+import com.reliaquest.api.cache.EmployeeRosterCache;
+import com.reliaquest.api.cache.RosterSnapshot;
+import com.reliaquest.api.entity.CreateEmployeeDTO;
+import com.reliaquest.api.entity.Employee;
+import com.reliaquest.api.entity.EmployeePage;
+import com.reliaquest.api.exceptions.EmployeeException;
+import com.reliaquest.api.exceptions.ErrorCode;
+import com.reliaquest.api.exceptions.UpstreamRateLimitedException;
+import com.reliaquest.api.exceptions.ValidationException;
+import com.reliaquest.api.index.NameMatch;
+import com.reliaquest.api.index.SalaryOrder;
+import com.reliaquest.api.utils.AsyncEmployeeAPIUtils;
+import com.reliaquest.api.validator.InputValidator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * {@link EmployeeService} for {@code employee.client.mode=async}: the same operations, returning futures that complete
+ * once the roster or employee is available instead of blocking the caller while it is fetched.
+ *
+ * <p>Input is validated before anything is fetched, and validation failures are thrown directly rather than through
+ * the future. The roster computations themselves, and the choice of pushing a query down to the upstream API, are
+ * shared with {@link EmployeeService}.
+ */
+@Service
+@Slf4j
+@ConditionalOnProperty(name = "employee.client.mode", havingValue = "async")
+public class AsyncEmployeeService {
+
+    private final AsyncEmployeeAPIUtils asyncEmployeeAPIUtils;
+    private final EmployeeRosterCache employeeRosterCache;
+    private final EmployeeService employeeService;
+
+    public AsyncEmployeeService(AsyncEmployeeAPIUtils asyncEmployeeAPIUtils, EmployeeRosterCache employeeRosterCache,
+                                EmployeeService employeeService) {
+        this.asyncEmployeeAPIUtils = asyncEmployeeAPIUtils;
+        this.employeeRosterCache = employeeRosterCache;
+        this.employeeService = employeeService;
+    }
+
+    /**
+     * @see EmployeeService#getRosterVersion()
+     */
+    public String getRosterVersion() {
+        return employeeRosterCache.freshRosterVersion();
+    }
+
+    public CompletableFuture<List<Employee>> getAllEmployees() {
+        return getRoster().thenApply(RosterSnapshot::getEmployees);
+    }
+
+    public CompletableFuture<EmployeePage> getEmployeePage(int limit, Integer offset, String cursor) {
+        EmployeeService.validatePageRequest(limit, offset, cursor);
+        return asyncEmployeeAPIUtils.getEmployeePage(limit, offset, cursor);
+    }
+
+    public CompletableFuture<List<Employee>> getEmployeesByNameSearch(String name) {
+        return searchEmployeesByName(name, NameMatch.CONTAINS, false, 0, Integer.MAX_VALUE);
+    }
+
+    public CompletableFuture<List<Employee>> searchEmployeesByName(String name, NameMatch mode, boolean ignoreCase,
+                                                                  int offset, int limit) {
+        EmployeeService.validatePage(offset, limit);
+        return pushDownOrCompute(
+                () -> asyncEmployeeAPIUtils.searchEmployees(name, mode, ignoreCase, offset, limit)
+                        .thenApply(matches -> EmployeeService.requireMatches(matches, name, offset)),
+                roster -> employeeService.searchEmployeesByName(roster, name, mode, ignoreCase, offset, limit));
+    }
+
+    public CompletableFuture<Integer> getHighestSalaryOfEmployees() {
+        return pushDownOrCompute(
+                () -> asyncEmployeeAPIUtils.getSalaryStats().thenApply(EmployeeService::highestSalary),
+                roster -> employeeService.getHighestSalaryOfEmployees(roster));
+    }
+
+    public CompletableFuture<List<String>> getTopTenHighestEarningEmployeeNames() {
+        return getEmployeeNamesRankedBySalary(10, SalaryOrder.DESC);
+    }
+
+    public CompletableFuture<List<String>> getEmployeeNamesRankedBySalary(int limit, SalaryOrder order) {
+        EmployeeService.validateLimit(limit);
+        return pushDownOrCompute(
+                () -> asyncEmployeeAPIUtils.getEmployeesRankedBySalary(limit, order)
+                        .thenApply(ranked -> EmployeeService.rankedNames(ranked, limit, order)),
+                roster -> employeeService.getEmployeeNamesRankedBySalary(roster, limit, order));
+    }
+
+    public CompletableFuture<Employee> getEmployeeById(String id) {
+        if(id == null)
+            throw new ValidationException(ErrorCode.MISSING_ID);
+        return employeeRosterCache.getEmployeeByIdAsync(id, asyncEmployeeAPIUtils::getEmployeeById)
+                .thenApply(employee -> {
+                    if(employee == null)
+                        throw new EmployeeException(ErrorCode.NO_RECORDS_FOUND);
+                    log.info("Successfully found Employee with id : {}", employee);
+                    return employee;
+                });
+    }
+
+    public CompletableFuture<Employee> createEmployee(Map<String, Object> employeeInput) {
+        CreateEmployeeDTO createEmployeeDTO = InputValidator.convertAndValidateEmployeeInput(employeeInput);
+        return asyncEmployeeAPIUtils.createEmployee(createEmployeeDTO).thenApply(createEmployee -> {
+            log.info("Successfully created Employee with id : {}", createEmployee);
+            Employee createdEmployee = EmployeeService.toEmployee(createEmployee);
+            employeeRosterCache.applyCreated(createdEmployee);
+            return createdEmployee;
+        });
+    }
+
+    public CompletableFuture<String> deleteEmployee(String id) {
+        if(id == null)
+            throw new ValidationException(ErrorCode.MISSING_ID);
+        return asyncEmployeeAPIUtils.deleteEmployee(id).thenApply(deletedEmployee -> {
+            employeeRosterCache.applyDeleted(id);
+            if(deletedEmployee == null)
+                throw new EmployeeException(ErrorCode.NO_RECORDS_FOUND);
+            log.info("Successfully deleted Employee with id : {}", id);
+            return deletedEmployee.getName();
+        });
+    }
+
+    /**
+     * @see EmployeeService#pushDown()
+     */
+    private <T> CompletableFuture<T> pushDownOrCompute(Supplier<CompletableFuture<T>> pushedDown,
+                                                       Function<RosterSnapshot, T> computed) {
+        if(!employeeService.pushDown())
+            return getRoster().thenApply(computed);
+        return pushedDown.get().exceptionallyCompose(failure -> {
+            Throwable cause = failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+            if(!(cause instanceof UpstreamRateLimitedException))
+                return CompletableFuture.failedFuture(cause);
+            log.warn("Upstream is rate limiting a pushed-down query, answering it from the roster");
+            return getRoster().thenApply(computed);
+        });
+    }
+
+    private CompletableFuture<RosterSnapshot> getRoster() {
+        return employeeRosterCache.currentSnapshotAsync(asyncEmployeeAPIUtils::getAllEmployees)
+                .thenApply(EmployeeService::requireRecords);
+    }
+}
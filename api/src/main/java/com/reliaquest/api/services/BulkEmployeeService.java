@@ -0,0 +1,145 @@
+package com.reliaquest.api.services;
+
+import com.reliaquest.api.entity.BulkItemResult;
+import com.reliaquest.api.entity.BulkResponse;
+import com.reliaquest.api.entity.CreateEmployee;
+import com.reliaquest.api.entity.CreateEmployeeDTO;
+import com.reliaquest.api.entity.Employee;
+import com.reliaquest.api.exceptions.EmployeeException;
+import com.reliaquest.api.exceptions.ErrorCode;
+import com.reliaquest.api.exceptions.InternalException;
+import com.reliaquest.api.exceptions.UpstreamRateLimitedException;
+import com.reliaquest.api.exceptions.ValidationException;
+import com.reliaquest.api.validator.InputValidator;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Creates and deletes employees in bulk, answering with a result per item instead of failing the whole request.
+ *
+ * <p>Items are validated in a single pass and each valid one is handed straight to a pool of
+ * {@code employee.bulk.concurrency} threads, shared by all bulk requests, that makes the upstream calls. So upstream
+ * calls are pipelined while validation carries on, and bulk loads never have more than that many upstream writes in
+ * flight. Every call still goes through the upstream rate limiter at write priority. Once the limiter gives up on one
+ * item, the items of that request not yet sent fail straight away with the same error rather than each waiting out
+ * the limit again.
+ */
+@Service
+@Slf4j
+public class BulkEmployeeService {
+
+    private final EmployeeService employeeService;
+    private final ExecutorService upstreamCalls;
+    private final int maxItems;
+
+    public BulkEmployeeService(EmployeeService employeeService,
+                               @Value("${employee.bulk.concurrency:8}") int concurrency,
+                               @Value("${employee.bulk.max-items:10000}") int maxItems) {
+        this.employeeService = employeeService;
+        this.upstreamCalls = Executors.newFixedThreadPool(concurrency, new CustomizableThreadFactory("employee-bulk-"));
+        this.maxItems = maxItems;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        upstreamCalls.shutdownNow();
+    }
+
+    public BulkResponse<Employee> createEmployees(List<CreateEmployee> employeeInputs) {
+        validateSize(employeeInputs);
+        AtomicReference<UpstreamRateLimitedException> rateLimited = new AtomicReference<>();
+        List<CompletableFuture<BulkItemResult<Employee>>> results = new ArrayList<>(employeeInputs.size());
+        for (int i = 0; i < employeeInputs.size(); i++) {
+            int index = i;
+            CreateEmployeeDTO createEmployeeDTO;
+            try {
+                createEmployeeDTO = InputValidator.convertAndValidateEmployeeInput(employeeInputs.get(i));
+            } catch (ValidationException e) {
+                results.add(CompletableFuture.completedFuture(BulkItemResult.failed(index, e.getError())));
+                continue;
+            }
+            results.add(submit(rateLimited, () -> employeeService.createValidatedEmployee(createEmployeeDTO))
+                    .handle((employee, failure) -> toResult(index, employee, failure)));
+        }
+        BulkResponse<Employee> response = collect(results);
+        log.info("Bulk create finished: {} created, {} failed", response.getSucceeded(), response.getFailed());
+        return response;
+    }
+
+    public BulkResponse<String> deleteEmployees(List<String> ids) {
+        validateSize(ids);
+        AtomicReference<UpstreamRateLimitedException> rateLimited = new AtomicReference<>();
+        // Repeats of an id share one upstream delete rather than racing each other for it.
+        Map<String, CompletableFuture<String>> deletions = new HashMap<>();
+        List<CompletableFuture<BulkItemResult<String>>> results = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            int index = i;
+            String id = ids.get(i);
+            if (id == null) {
+                results.add(CompletableFuture.completedFuture(BulkItemResult.failed(index, ErrorCode.MISSING_ID)));
+                continue;
+            }
+            CompletableFuture<String> deletion = deletions.computeIfAbsent(id,
+                    key -> submit(rateLimited, () -> employeeService.deleteEmployee(key)));
+            results.add(deletion.handle((name, failure) -> toResult(index, name, failure)));
+        }
+        BulkResponse<String> response = collect(results);
+        log.info("Bulk delete finished: {} deleted, {} failed", response.getSucceeded(), response.getFailed());
+        return response;
+    }
+
+    private void validateSize(List<?> items) {
+        if (items == null || items.size() > maxItems)
+            throw new ValidationException(ErrorCode.BULK_LIMIT_EXCEEDED);
+    }
+
+    private <T> CompletableFuture<T> submit(AtomicReference<UpstreamRateLimitedException> rateLimited, Supplier<T> call) {
+        return CompletableFuture.supplyAsync(() -> {
+            UpstreamRateLimitedException limited = rateLimited.get();
+            if (limited != null)
+                throw limited;
+            try {
+                return call.get();
+            } catch (UpstreamRateLimitedException e) {
+                rateLimited.compareAndSet(null, e);
+                throw e;
+            }
+        }, upstreamCalls);
+    }
+
+    private static <T> BulkItemResult<T> toResult(int index, T data, Throwable failure) {
+        if (failure == null)
+            return BulkItemResult.succeeded(index, data);
+        Throwable cause = failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+        if (cause instanceof InternalException e)
+            return BulkItemResult.failed(index, e.getError());
+        if (cause instanceof EmployeeException e)
+            return BulkItemResult.failed(index, e.getError());
+        if (cause instanceof ValidationException e)
+            return BulkItemResult.failed(index, e.getError());
+        log.error("Unexpected failure for bulk item " + index + ": " + cause.getMessage(), cause);
+        return BulkItemResult.failed(index, ErrorCode.API_REQUEST_FAILURE);
+    }
+
+    private static <T> BulkResponse<T> collect(List<CompletableFuture<BulkItemResult<T>>> results) {
+        List<BulkItemResult<T>> collected = new ArrayList<>(results.size());
+        for (CompletableFuture<BulkItemResult<T>> result : results) {
+            collected.add(result.join());
+        }
+        return BulkResponse.of(collected);
+    }
+}
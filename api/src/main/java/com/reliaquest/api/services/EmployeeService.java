@@ -2,20 +2,33 @@ package com.reliaquest.api.services;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.reliaquest.api.cache.EmployeeRosterCache;
+import com.reliaquest.api.cache.RosterSnapshot;
+import com.reliaquest.api.index.NameMatch;
+import com.reliaquest.api.index.SalaryOrder;
 import com.reliaquest.api.utils.EmployeeAPIUtils;
 import com.reliaquest.api.exceptions.ErrorCode;
 import com.reliaquest.api.exceptions.EmployeeException;
+import com.reliaquest.api.exceptions.UpstreamRateLimitedException;
 import com.reliaquest.api.exceptions.ValidationException;
+import com.reliaquest.api.entity.CompactEmployee;
 import com.reliaquest.api.entity.CreateEmployee;
 import com.reliaquest.api.entity.CreateEmployeeDTO;
 import com.reliaquest.api.entity.Employee;
+import com.reliaquest.api.entity.EmployeePage;
+import com.reliaquest.api.entity.SalaryStats;
 import com.reliaquest.api.validator.InputValidator;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 //log info statement change
@@ -26,53 +39,90 @@ import java.util.stream.Collectors;
 @Slf4j
 public class EmployeeService {
 
+    static final int MAX_PAGE_SIZE = 1000;
+
     private final EmployeeAPIUtils employeeAPIUtils;
+    private final EmployeeRosterCache employeeRosterCache;
+    private final boolean queryPushdown;
+
+    public EmployeeService(EmployeeAPIUtils employeeAPI, EmployeeRosterCache employeeRosterCache) {
+        this(employeeAPI, employeeRosterCache, false);
+    }
 
-    public EmployeeService(EmployeeAPIUtils employeeAPI) {
+    /**
+     * @param queryPushdown whether searches, rankings and the highest salary are asked of the upstream API when no
+     *                      roster is cached at all, instead of fetching the whole roster to compute them
+     */
+    @Autowired
+    public EmployeeService(EmployeeAPIUtils employeeAPI, EmployeeRosterCache employeeRosterCache,
+                           @Value("${employee.query.pushdown:true}") boolean queryPushdown) {
         this.employeeAPIUtils = employeeAPI;
+        this.employeeRosterCache = employeeRosterCache;
+        this.queryPushdown = queryPushdown;
     }
 
     public List<Employee> getAllEmployees() {
-        List<Employee> allEmployees = employeeAPIUtils.getAllEmployees();
-        if(allEmployees.size() == 0)
-            throw new EmployeeException(ErrorCode.NO_RECORDS_FOUND);
-        log.info("List of all Employees is : {}", allEmployees.toString());
+        List<Employee> allEmployees = getRoster().getEmployees();
+        log.debug("List of all Employees is : {}", allEmployees);
         return allEmployees;
     }
 
+    /**
+     * Hands every employee to {@code consumer} in roster order, on a miss as the roster load parses them off the
+     * upstream response, see {@link EmployeeRosterCache#streamSnapshot}.
+     *
+     * @return number of employees passed to {@code consumer}; an empty roster is reported like by
+     * {@link #getAllEmployees()}, before anything is passed
+     */
+    public int streamAllEmployees(Consumer<Employee> consumer) {
+        int streamed = requireRecords(employeeRosterCache.streamSnapshot(consumer)).size();
+        log.debug("Streamed {} employees", streamed);
+        return streamed;
+    }
+
+    /**
+     * One page of the roster fetched straight from the upstream API, at {@code offset} or after {@code cursor}, so
+     * serving it never needs the whole roster; the first page when neither is given.
+     */
+    public EmployeePage getEmployeePage(int limit, Integer offset, String cursor) {
+        validatePageRequest(limit, offset, cursor);
+        EmployeePage page = employeeAPIUtils.getEmployeePage(limit, offset, cursor);
+        log.info("Fetched a page of the {} employees, next cursor : {}", page.getTotal(), page.getNextCursor());
+        return page;
+    }
+
     public List<Employee> getEmployeesByNameSearch(String name) {
-        List<Employee> employeesFoundByName = getAllEmployees().stream()
-                .filter(employee -> employee.getName().contains(name))
-                .collect(Collectors.toList());
-        if(employeesFoundByName.size()==0)
-            throw new EmployeeException(ErrorCode.EMPLOYEE_NAME_NOT_FOUND);
-        log.info("Employees with name " + name + " are : {}", employeesFoundByName);
-        return employeesFoundByName;
+        return searchEmployeesByName(name, NameMatch.CONTAINS, false, 0, Integer.MAX_VALUE);
+    }
+
+    public List<Employee> searchEmployeesByName(String name, NameMatch mode, boolean ignoreCase, int offset, int limit) {
+        validatePage(offset, limit);
+        return pushDownOrCompute(
+                () -> requireMatches(employeeAPIUtils.searchEmployees(name, mode, ignoreCase, offset, limit), name, offset),
+                roster -> searchEmployeesByName(roster, name, mode, ignoreCase, offset, limit));
     }
 
     public int getHighestSalaryOfEmployees() {
-        int highestSalaryOfEmployees = getAllEmployees().stream()
-                .mapToInt(employee -> Integer.parseInt(employee.getSalary()))
-                .max()
-                .orElse(0);
-        log.info("Highest earning employee salary is: {}", highestSalaryOfEmployees);
-        return highestSalaryOfEmployees;
+        return pushDownOrCompute(() -> highestSalary(employeeAPIUtils.getSalaryStats()), this::getHighestSalaryOfEmployees);
     }
 
     public List<String> getTopTenHighestEarningEmployeeNames() {
-        List<String> top10HighestEarningEmployeeNames = getAllEmployees().stream()
-                .sorted((e1, e2) -> Integer.compare(Integer.parseInt(e2.getSalary()), Integer.parseInt(e1.getSalary())))
-                .limit(10)
-                .map(Employee::getName)
-                .collect(Collectors.toList());
+        List<String> top10HighestEarningEmployeeNames = getEmployeeNamesRankedBySalary(10, SalaryOrder.DESC);
         log.info("Top 10 highest earning employee names: {}", top10HighestEarningEmployeeNames);
         return top10HighestEarningEmployeeNames;
     }
 
+    public List<String> getEmployeeNamesRankedBySalary(int limit, SalaryOrder order) {
+        validateLimit(limit);
+        return pushDownOrCompute(
+                () -> rankedNames(employeeAPIUtils.getEmployeesRankedBySalary(limit, order), limit, order),
+                roster -> getEmployeeNamesRankedBySalary(roster, limit, order));
+    }
+
     public Employee getEmployeeById(String id) {
         if(id == null)
             throw new ValidationException(ErrorCode.MISSING_ID);
-        Employee employee = employeeAPIUtils.getEmployeeById(id);
+        Employee employee = employeeRosterCache.getEmployeeById(id);
         if(employee == null)
             throw new EmployeeException(ErrorCode.NO_RECORDS_FOUND);
         log.info("Successfully found Employee with id : {}", employee);
@@ -80,16 +130,143 @@ public class EmployeeService {
     }
     public Employee createEmployee(Map<String,Object>  employeeInput) {
         CreateEmployeeDTO createEmployeeDTO = InputValidator.convertAndValidateEmployeeInput(employeeInput);
+        return createValidatedEmployee(createEmployeeDTO);
+    }
+
+    Employee createValidatedEmployee(CreateEmployeeDTO createEmployeeDTO) {
         CreateEmployee createEmployee = employeeAPIUtils.createEmployee(createEmployeeDTO);
-        log.info("Successfully created Employee with id : {}", createEmployee);
-        return new Employee(createEmployee.getId().toString(), createEmployee.getName(), createEmployee.getSalary(), createEmployee.getAge(), createEmployee.getTitle(), createEmployee.getEmail());
+        log.info("Successfully created Employee with id : {}", createEmployee.getId());
+        Employee createdEmployee = toEmployee(createEmployee);
+        employeeRosterCache.applyCreated(createdEmployee);
+        return createdEmployee;
     }
 
+    /**
+     * Deletes by id upstream with a single call, answering with the name of the employee the upstream API says it
+     * deleted.
+     */
     public String deleteEmployee(String id) {
         if(id == null)
             throw new ValidationException(ErrorCode.MISSING_ID);
-        Employee employeeToBeDeleted = getEmployeeById(id);
-        employeeAPIUtils.deleteEmployee(employeeToBeDeleted);
-        return employeeToBeDeleted.getName();
+        Employee deletedEmployee = employeeAPIUtils.deleteEmployee(id);
+        // Either way the employee is gone upstream, so it must not be served from the cache any more.
+        employeeRosterCache.applyDeleted(id);
+        if(deletedEmployee == null)
+            throw new EmployeeException(ErrorCode.NO_RECORDS_FOUND);
+        log.info("Successfully deleted Employee with id : {}", id);
+        return deletedEmployee.getName();
+    }
+
+    private RosterSnapshot getRoster() {
+        return requireRecords(employeeRosterCache.currentSnapshot());
+    }
+
+    /**
+     * @return the version of the cached roster, to tag responses computed from it, or {@code null} when there is no
+     * fresh one; read it before computing the response so that the response is never older than its tag
+     */
+    public String getRosterVersion() {
+        return employeeRosterCache.freshRosterVersion();
+    }
+
+    /**
+     * Without any cached roster, fetching the whole roster for a single query costs far more than asking the upstream
+     * API for just the result. A fresh roster answers without any upstream call, and an expired one is reloaded, which
+     * refills the cache, or served stale while upstream is rate limiting; neither is pushed down.
+     */
+    boolean pushDown() {
+        return queryPushdown && !employeeRosterCache.hasServableRoster();
+    }
+
+    /**
+     * A pushed-down query that upstream rate limits is answered from the roster instead, as any other query would be.
+     */
+    private <T> T pushDownOrCompute(Supplier<T> pushedDown, Function<RosterSnapshot, T> computed) {
+        if(pushDown()) {
+            try {
+                return pushedDown.get();
+            } catch (UpstreamRateLimitedException e) {
+                log.warn("Upstream is rate limiting a pushed-down query, answering it from the roster");
+            }
+        }
+        return computed.apply(getRoster());
+    }
+
+    // The methods below hold the roster computations shared with AsyncEmployeeService, which loads the roster
+    // without blocking and then applies them to it.
+
+    List<Employee> searchEmployeesByName(RosterSnapshot roster, String name, NameMatch mode, boolean ignoreCase, int offset, int limit) {
+        return requireMatches(roster.getNameIndex().search(name, mode, ignoreCase, offset, limit), name, offset);
+    }
+
+    int getHighestSalaryOfEmployees(RosterSnapshot roster) {
+        int highestSalaryOfEmployees = roster.getSalaryIndex().highestSalary();
+        log.info("Highest earning employee salary is: {}", highestSalaryOfEmployees);
+        return highestSalaryOfEmployees;
+    }
+
+    List<String> getEmployeeNamesRankedBySalary(RosterSnapshot roster, int limit, SalaryOrder order) {
+        List<String> rankedEmployeeNames = roster.getSalaryIndex().top(limit, order).stream()
+                .map(CompactEmployee::name)
+                .collect(Collectors.toList());
+        log.info("{} employee names ranked by salary {}: {}", limit, order, rankedEmployeeNames);
+        return rankedEmployeeNames;
+    }
+
+    // The pushed-down results are checked the same way as the ones computed from the roster.
+
+    static List<Employee> requireMatches(List<Employee> employeesFoundByName, String name, int offset) {
+        if(employeesFoundByName.size()==0 && offset == 0)
+            throw new EmployeeException(ErrorCode.EMPLOYEE_NAME_NOT_FOUND);
+        log.info("Employees with name " + name + " are : {}", employeesFoundByName);
+        return employeesFoundByName;
+    }
+
+    static int highestSalary(SalaryStats salaryStats) {
+        if(salaryStats.getEmployees() == 0)
+            throw new EmployeeException(ErrorCode.NO_RECORDS_FOUND);
+        int highestSalaryOfEmployees = salaryStats.getAll() == null ? 0 : salaryStats.getAll().getMax();
+        log.info("Highest earning employee salary is: {}", highestSalaryOfEmployees);
+        return highestSalaryOfEmployees;
+    }
+
+    static List<String> rankedNames(List<Employee> rankedEmployees, int limit, SalaryOrder order) {
+        if(rankedEmployees.isEmpty() && limit > 0)
+            throw new EmployeeException(ErrorCode.NO_RECORDS_FOUND);
+        List<String> rankedEmployeeNames = rankedEmployees.stream()
+                .map(Employee::getName)
+                .collect(Collectors.toList());
+        log.info("{} employee names ranked by salary {}: {}", limit, order, rankedEmployeeNames);
+        return rankedEmployeeNames;
+    }
+
+    static void validatePage(int offset, int limit) {
+        if(offset < 0)
+            throw new ValidationException(ErrorCode.INVALID_OFFSET);
+        validateLimit(limit);
+    }
+
+    static void validatePageRequest(int limit, Integer offset, String cursor) {
+        if(limit < 1 || limit > MAX_PAGE_SIZE)
+            throw new ValidationException(ErrorCode.INVALID_PAGE_SIZE);
+        if(offset != null && offset < 0)
+            throw new ValidationException(ErrorCode.INVALID_OFFSET);
+        if(offset != null && cursor != null)
+            throw new ValidationException(ErrorCode.INVALID_CURSOR);
+    }
+
+    static void validateLimit(int limit) {
+        if(limit < 0)
+            throw new ValidationException(ErrorCode.INVALID_LIMIT);
+    }
+
+    static RosterSnapshot requireRecords(RosterSnapshot roster) {
+        if(roster.size() == 0)
+            throw new EmployeeException(ErrorCode.NO_RECORDS_FOUND);
+        return roster;
+    }
+
+    static Employee toEmployee(CreateEmployee createEmployee) {
+        return new Employee(createEmployee.getId().toString(), createEmployee.getName(), createEmployee.getSalary(), createEmployee.getAge(), createEmployee.getTitle(), createEmployee.getEmail());
     }
-}
\ No newline at end of file
+}
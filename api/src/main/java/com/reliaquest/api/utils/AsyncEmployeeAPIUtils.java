@@ -0,0 +1,361 @@
+package com.reliaquest.api.utils;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reliaquest.api.configurations.HttpClientProperties;
+import com.reliaquest.api.entity.*;
+import com.reliaquest.api.exceptions.ErrorCode;
+import com.reliaquest.api.exceptions.InternalException;
+import com.reliaquest.api.exceptions.ValidationException;
+import com.reliaquest.api.index.NameMatch;
+import com.reliaquest.api.index.SalaryOrder;
+import com.reliaquest.api.ratelimit.RequestPriority;
+import com.reliaquest.api.ratelimit.UpstreamRateLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Non-blocking counterpart of {@link EmployeeAPIUtils}, used when {@code employee.client.mode} is {@code async}.
+ *
+ * <p>Requests go out through {@link HttpClient#sendAsync}, so no thread waits on the upstream API: the caller gets a
+ * {@link CompletableFuture} that completes on the client's executor once the body has arrived and been parsed. Rate
+ * limiting, coalescing of identical reads, metrics and error codes are the same as for the blocking client; the futures
+ * fail with the same exceptions the blocking methods throw.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "employee.client.mode", havingValue = "async")
+public class AsyncEmployeeAPIUtils {
+    private static final String BASE_URL = "http://localhost:8112/api/v1/employee";
+    private static final URI ALL_EMPLOYEES_URI = URI.create(BASE_URL);
+    private static final Function<HttpClientErrorException, RuntimeException> UPSTREAM_FAILURE =
+            clientError -> new InternalException(ErrorCode.API_REQUEST_FAILURE);
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final UpstreamRateLimiter rateLimiter;
+    private final RequestCoalescer requestCoalescer;
+    private final UpstreamMetricsInterceptor upstreamMetrics;
+    private final Duration readTimeout;
+    private final RosterReplica rosterReplica = new RosterReplica();
+    private final RosterFormat rosterFormat;
+
+    public AsyncEmployeeAPIUtils(HttpClient upstreamAsyncHttpClient, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                                 UpstreamRateLimiter rateLimiter, HttpClientProperties properties) {
+        this(upstreamAsyncHttpClient, objectMapper, meterRegistry, rateLimiter, properties, "json");
+    }
+
+    /**
+     * @param rosterFormat encoding the roster is asked for in, see {@link RosterFormat}; the roster is also asked for
+     *                     gzipped, which the JDK client leaves to us to undo
+     */
+    @Autowired
+    public AsyncEmployeeAPIUtils(HttpClient upstreamAsyncHttpClient, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                                 UpstreamRateLimiter rateLimiter, HttpClientProperties properties,
+                                 @Value("${employee.upstream.roster-format:smile}") String rosterFormat) {
+        this.httpClient = upstreamAsyncHttpClient;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.rateLimiter = rateLimiter;
+        this.requestCoalescer = new RequestCoalescer(meterRegistry);
+        this.upstreamMetrics = new UpstreamMetricsInterceptor(meterRegistry);
+        this.readTimeout = properties.readTimeout();
+        this.rosterFormat = new RosterFormat(objectMapper, rosterFormat);
+    }
+
+    /**
+     * Concurrent callers share one upstream request and the resulting list, which is therefore unmodifiable.
+     */
+    public CompletableFuture<List<Employee>> getAllEmployees() {
+        return requestCoalescer.executeAsync("GET " + BASE_URL, "getAllEmployees", () -> {
+            RosterReplica.State replicated = rosterReplica.current();
+            if (replicated == null)
+                return fetchAllEmployees(null);
+            return catchUp(replicated).thenCompose(caughtUp ->
+                    caughtUp != null ? CompletableFuture.completedFuture(caughtUp) : fetchAllEmployees(replicated));
+        });
+    }
+
+    /**
+     * @param known the roster last fetched, if any, which is asked for conditionally and reused if unchanged
+     */
+    private CompletableFuture<List<Employee>> fetchAllEmployees(RosterReplica.State known) {
+        HttpRequest.Builder request = request(ALL_EMPLOYEES_URI).GET()
+                .setHeader(HttpHeaders.ACCEPT, rosterFormat.acceptHeader())
+                .setHeader(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        if (known != null)
+            request.header(HttpHeaders.IF_NONE_MATCH, known.eTag());
+        return sendForResponse(RequestPriority.READ, request.build(), UPSTREAM_FAILURE).thenApply(response -> {
+            if (known != null && response.statusCode() == HttpStatus.NOT_MODIFIED.value())
+                return known.employees();
+            return parse("getAllEmployees", response.body(), bytes -> {
+                List<Employee> employees = new ArrayList<>();
+                ObjectMapper mapper = rosterFormat.mapperFor(response.headers().firstValue(HttpHeaders.CONTENT_TYPE)
+                        .map(MediaType::parseMediaType).orElse(null));
+                int count = EmployeeAPIUtils.readEmployees(mapper, decoded(response, bytes), employees::add);
+                log.info("Successfully fetched {} employees from api", count);
+                List<Employee> roster = Collections.unmodifiableList(employees);
+                rosterReplica.reset(RosterReplica.versionOf(response.headers().firstValue(HttpHeaders.ETAG).orElse(null)), roster);
+                return roster;
+            });
+        });
+    }
+
+    /**
+     * @see EmployeeAPIUtils#getAllEmployees()
+     * @return a future of the roster brought up to date from {@code replicated}, or of {@code null} when the upstream
+     * API no longer knows the changes since its version
+     */
+    private CompletableFuture<List<Employee>> catchUp(RosterReplica.State replicated) {
+        HttpRequest request = request(EmployeeAPIUtils.changesUri(replicated.version())).GET().build();
+        return send(RequestPriority.READ, request, clientError -> clientError instanceof HttpClientErrorException.Gone
+                        ? new ChangesGoneException()
+                        : new InternalException(ErrorCode.API_REQUEST_FAILURE))
+                .thenApply(body -> parse("getRosterChanges", body, bytes -> {
+                    RosterChangesResponse response = objectMapper.readValue(bytes, RosterChangesResponse.class);
+                    if (response == null || response.getData() == null)
+                        throw new InternalException(ErrorCode.JSON_DESERIALIZATION_FAILURE);
+                    return rosterReplica.apply(replicated, response.getData());
+                }))
+                .exceptionally(failure -> {
+                    Throwable cause = unwrap(failure);
+                    if (cause instanceof ChangesGoneException) {
+                        log.info("Upstream API no longer has the roster changes since " + replicated.version() + ", fetching the whole roster");
+                        return null;
+                    }
+                    throw cause instanceof RuntimeException runtimeException ? runtimeException : new CompletionException(cause);
+                });
+    }
+
+    /**
+     * @see EmployeeAPIUtils#getEmployeePage(int, Integer, String)
+     */
+    public CompletableFuture<EmployeePage> getEmployeePage(int limit, Integer offset, String cursor) {
+        HttpRequest request = request(EmployeeAPIUtils.pageUri(limit, offset, cursor)).GET().build();
+        // Limit and offset are validated before we get here, so a 400 means the upstream API rejected the cursor.
+        return send(RequestPriority.READ, request, clientError -> clientError instanceof HttpClientErrorException.BadRequest
+                        ? new ValidationException(ErrorCode.INVALID_CURSOR)
+                        : new InternalException(ErrorCode.API_REQUEST_FAILURE))
+                .thenApply(body -> parse("getEmployeePage", body, bytes -> {
+                    EmployeePageResponse response = objectMapper.readValue(bytes, EmployeePageResponse.class);
+                    if (response == null || response.getData() == null)
+                        throw new InternalException(ErrorCode.JSON_DESERIALIZATION_FAILURE);
+                    return response.getData();
+                }));
+    }
+
+    /**
+     * @see EmployeeAPIUtils#searchEmployees(String, NameMatch, boolean, int, int)
+     */
+    public CompletableFuture<List<Employee>> searchEmployees(String name, NameMatch mode, boolean ignoreCase, int offset, int limit) {
+        return fetchEmployees(EmployeeAPIUtils.searchUri(name, mode, ignoreCase, offset, limit), "searchEmployees");
+    }
+
+    /**
+     * @see EmployeeAPIUtils#getEmployeesRankedBySalary(int, SalaryOrder)
+     */
+    public CompletableFuture<List<Employee>> getEmployeesRankedBySalary(int limit, SalaryOrder order) {
+        return fetchEmployees(EmployeeAPIUtils.rankedBySalaryUri(limit, order), "getEmployeesRankedBySalary");
+    }
+
+    /**
+     * @see EmployeeAPIUtils#getSalaryStats()
+     */
+    public CompletableFuture<SalaryStats> getSalaryStats() {
+        URI uri = EmployeeAPIUtils.SALARY_STATS_URI;
+        return requestCoalescer.executeAsync("GET " + uri, "getSalaryStats", () ->
+                send(RequestPriority.READ, request(uri).GET().build())
+                        .thenApply(body -> parse("getSalaryStats", body, bytes -> {
+                            SalaryStatsResponse response = objectMapper.readValue(bytes, SalaryStatsResponse.class);
+                            if (response == null || response.getData() == null)
+                                throw new InternalException(ErrorCode.JSON_DESERIALIZATION_FAILURE);
+                            return response.getData();
+                        })));
+    }
+
+    /**
+     * Concurrent callers asking for the same id share one upstream request and parse.
+     */
+    public CompletableFuture<Employee> getEmployeeById(String id) {
+        String externalUrl = BASE_URL + "/" + id;
+        return requestCoalescer.executeAsync("GET " + externalUrl, "getEmployeeById", () ->
+                send(RequestPriority.READ, request(URI.create(externalUrl)).GET().build())
+                        .thenApply(body -> parse("getEmployeeById", body,
+                                bytes -> objectMapper.readValue(bytes, EmployeeResponse.class).getData())));
+    }
+
+    public CompletableFuture<CreateEmployee> createEmployee(CreateEmployeeDTO createEmployeeDTO) {
+        byte[] requestBody;
+        try {
+            requestBody = objectMapper.writeValueAsBytes(createEmployeeDTO);
+        } catch (JsonProcessingException e) {
+            log.error("Error while serializing employee " + e.getMessage(), e);
+            return CompletableFuture.failedFuture(new InternalException(ErrorCode.JSON_DESERIALIZATION_FAILURE));
+        }
+        HttpRequest request = request(URI.create(BASE_URL + "/create"))
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(requestBody))
+                .build();
+        return send(RequestPriority.WRITE, request)
+                .whenComplete((body, failure) -> forgetReadsIfWritten(failure))
+                .thenApply(body -> parse("createEmployee", body,
+                        bytes -> objectMapper.readValue(bytes, CreateEmployeeResponse.class).getData()));
+    }
+
+    /**
+     * @return the employee the upstream API deleted, or null when it had none with that id
+     * @see EmployeeAPIUtils#deleteEmployee(String)
+     */
+    public CompletableFuture<Employee> deleteEmployee(String id) {
+        HttpRequest request = request(URI.create(BASE_URL + "/" + id)).DELETE().build();
+        return send(RequestPriority.WRITE, request)
+                .whenComplete((body, failure) -> forgetReadsIfWritten(failure))
+                .thenApply(body -> parse("deleteEmployee", body,
+                        bytes -> objectMapper.readValue(bytes, DeleteEmployeeResponse.class).getData()));
+    }
+
+    private CompletableFuture<List<Employee>> fetchEmployees(URI uri, String operation) {
+        return requestCoalescer.executeAsync("GET " + uri, operation, () ->
+                send(RequestPriority.READ, request(uri).GET().build())
+                        .thenApply(body -> parse(operation, body, bytes -> {
+                            List<Employee> employees = new ArrayList<>();
+                            EmployeeAPIUtils.readEmployees(objectMapper, new ByteArrayInputStream(bytes), employees::add);
+                            return Collections.unmodifiableList(employees);
+                        })));
+    }
+
+    /**
+     * @see RequestCoalescer#forgetInFlight()
+     */
+    private void forgetReadsIfWritten(Throwable failure) {
+        if (failure == null)
+            requestCoalescer.forgetInFlight();
+    }
+
+    private HttpRequest.Builder request(URI uri) {
+        return HttpRequest.newBuilder(uri)
+                .timeout(readTimeout)
+                .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE);
+    }
+
+    private CompletableFuture<byte[]> send(RequestPriority priority, HttpRequest request) {
+        return send(priority, request, UPSTREAM_FAILURE);
+    }
+
+    private CompletableFuture<byte[]> send(RequestPriority priority, HttpRequest request,
+                                           Function<HttpClientErrorException, RuntimeException> onClientError) {
+        return sendForResponse(priority, request, onClientError).thenApply(HttpResponse::body);
+    }
+
+    private CompletableFuture<HttpResponse<byte[]>> sendForResponse(RequestPriority priority, HttpRequest request,
+                                                                    Function<HttpClientErrorException, RuntimeException> onClientError) {
+        log.info("calling external api at " + request.uri());
+        return rateLimiter.executeAsync(priority, () -> exchange(request))
+                .exceptionally(failure -> {
+                    Throwable cause = unwrap(failure);
+                    if (cause instanceof HttpClientErrorException clientError) {
+                        // 400s and 410s, and 429s with rate limiting disabled; the limiter reports exhausted retries itself.
+                        log.error("Error while calling " + request.uri() + " " + cause.getMessage(), cause);
+                        throw onClientError.apply(clientError);
+                    }
+                    throw cause instanceof RuntimeException runtimeException ? runtimeException : new CompletionException(cause);
+                });
+    }
+
+    private CompletableFuture<HttpResponse<byte[]>> exchange(HttpRequest request) {
+        long start = System.nanoTime();
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                .handle((response, failure) -> {
+                    long elapsedNanos = System.nanoTime() - start;
+                    if (failure != null) {
+                        upstreamMetrics.recordFailure(request.method(), request.uri(), elapsedNanos);
+                        log.error("Error while calling " + request.uri() + " " + failure.getMessage(), failure);
+                        throw new InternalException(ErrorCode.API_REQUEST_FAILURE);
+                    }
+                    int status = response.statusCode();
+                    byte[] body = response.body();
+                    upstreamMetrics.record(request.method(), request.uri(), status, elapsedNanos, body.length);
+                    if (status == HttpStatus.TOO_MANY_REQUESTS.value() || status == HttpStatus.BAD_REQUEST.value()
+                            || status == HttpStatus.GONE.value()) {
+                        // Same exceptions RestTemplate raises, so UpstreamRateLimiter handles both clients alike.
+                        HttpStatus httpStatus = HttpStatus.valueOf(status);
+                        throw HttpClientErrorException.create(httpStatus, httpStatus.getReasonPhrase(),
+                                HttpHeaders.EMPTY, body, StandardCharsets.UTF_8);
+                    }
+                    // 304 only ever answers a conditional request, whose caller handles it.
+                    if ((status < 200 || status >= 300) && status != HttpStatus.NOT_MODIFIED.value()) {
+                        log.error("Upstream answered {} to {}", status, request.uri());
+                        throw new InternalException(ErrorCode.API_REQUEST_FAILURE);
+                    }
+                    return response;
+                });
+    }
+
+    private <T> T parse(String operation, byte[] body, BodyParser<T> parser) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            return parser.parse(body);
+        } catch (IOException e) {
+            log.error("Error while parsing " + operation + " response " + e.getMessage(), e);
+            throw new InternalException(ErrorCode.JSON_DESERIALIZATION_FAILURE);
+        } finally {
+            sample.stop(Timer.builder(EmployeeAPIUtils.PARSE_TIMER)
+                    .description("Time spent deserializing upstream employee API responses")
+                    .tag("operation", operation)
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Gunzips {@code body} while it is parsed, when the upstream API gzipped it.
+     */
+    private static InputStream decoded(HttpResponse<?> response, byte[] body) throws IOException {
+        InputStream in = new ByteArrayInputStream(body);
+        return "gzip".equalsIgnoreCase(response.headers().firstValue(HttpHeaders.CONTENT_ENCODING).orElse(null))
+                ? new GZIPInputStream(in) : in;
+    }
+
+    private static Throwable unwrap(Throwable failure) {
+        return failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+    }
+
+    /**
+     * The upstream API answered 410 to a request for roster changes.
+     */
+    private static final class ChangesGoneException extends RuntimeException {
+        ChangesGoneException() {
+            super(null, null, false, false);
+        }
+    }
+
+    @FunctionalInterface
+    private interface BodyParser<T> {
+        T parse(byte[] body) throws IOException;
+    }
+}
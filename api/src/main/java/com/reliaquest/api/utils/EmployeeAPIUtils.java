@@ -1,17 +1,40 @@
 package com.reliaquest.api.utils;
 
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.reliaquest.api.entity.*;
 import com.reliaquest.api.exceptions.ErrorCode;
 import com.reliaquest.api.exceptions.InternalException;
+import com.reliaquest.api.exceptions.ValidationException;
+import com.reliaquest.api.index.NameMatch;
+import com.reliaquest.api.index.SalaryOrder;
+import com.reliaquest.api.ratelimit.RequestPriority;
+import com.reliaquest.api.ratelimit.UpstreamRateLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RequestCallback;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
+import java.util.function.Consumer;
 
 //log info statement change
 //naming conventions change
@@ -21,52 +44,350 @@ import java.util.List;
 @Component
 public class EmployeeAPIUtils {
     private static final String BASE_URL = "http://localhost:8112/api/v1/employee";
+    private static final URI ALL_EMPLOYEES_URI = URI.create(BASE_URL);
+    static final URI SALARY_STATS_URI = URI.create(BASE_URL + "/salary-stats");
+    private static final RequestCallback ACCEPT_JSON =
+            request -> request.getHeaders().setAccept(List.of(MediaType.APPLICATION_JSON));
+    static final String PARSE_TIMER = "employee.upstream.parse";
     private final RestTemplate restTemplate;
     private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final UpstreamRateLimiter rateLimiter;
+    private final RequestCoalescer requestCoalescer;
+    private final RosterReplica rosterReplica = new RosterReplica();
+    private final RosterFormat rosterFormat;
 
-    public EmployeeAPIUtils(RestTemplate restTemplate, ObjectMapper objectMapper) {
+    public EmployeeAPIUtils(RestTemplate restTemplate, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                            UpstreamRateLimiter rateLimiter) {
+        this(restTemplate, objectMapper, meterRegistry, rateLimiter, "json");
+    }
+
+    /**
+     * @param rosterFormat encoding the roster is asked for in, see {@link RosterFormat}; with the Apache client the
+     *                     upstream API may also gzip it, which the client undoes transparently
+     */
+    @Autowired
+    public EmployeeAPIUtils(RestTemplate restTemplate, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                            UpstreamRateLimiter rateLimiter, @Value("${employee.upstream.roster-format:smile}") String rosterFormat) {
         this.restTemplate = restTemplate;
         this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.rateLimiter = rateLimiter;
+        this.requestCoalescer = new RequestCoalescer(meterRegistry);
+        this.rosterFormat = new RosterFormat(objectMapper, rosterFormat);
     }
 
 
+    /**
+     * Concurrent callers share one upstream request and the resulting list, which is therefore unmodifiable.
+     *
+     * <p>Once the roster has been fetched, later calls ask the upstream API only for the creates and deletes since and
+     * apply them to the roster they last got, so each costs O(changes) on the wire and in parsing. The whole roster is
+     * fetched again, conditionally on its ETag, when the API no longer knows the changes since that version.
+     */
     public List<Employee> getAllEmployees() {
-        try {
-            String externalUrl =  BASE_URL;
-            log.info("calling external api at to get all employees "  + externalUrl );
-            String response = restTemplate.getForObject(externalUrl, String.class);
-            log.info("Successfully fetched response from api: {}", response);
+        return getAllEmployees(employee -> {});
+    }
 
-            EmployeeResponses employeeResponse = objectMapper.readValue(response, EmployeeResponses.class);
-            log.info("Successfully parsed response: {}", employeeResponse);
+    /**
+     * {@link #getAllEmployees()}, also handing each employee to {@code onParsed} as soon as it is parsed off the
+     * response stream when the whole roster is fetched, or all of them when it comes back unchanged. It is not called
+     * when the roster is brought up to date from its changes, nor for a caller that joined another one's request.
+     */
+    public List<Employee> getAllEmployees(Consumer<Employee> onParsed) {
+        return requestCoalescer.execute("GET " + BASE_URL, "getAllEmployees", () -> {
+            RosterReplica.State replicated = rosterReplica.current();
+            if (replicated != null) {
+                List<Employee> caughtUp = catchUp(replicated);
+                if (caughtUp != null)
+                    return caughtUp;
+            }
+            List<Employee> employees = new ArrayList<>();
+            FetchedRoster fetched = fetchAllEmployees(employee -> {
+                employees.add(employee);
+                onParsed.accept(employee);
+            }, replicated);
+            if (fetched.notModified())
+                return replicated.employees();
+            List<Employee> roster = Collections.unmodifiableList(employees);
+            rosterReplica.reset(fetched.version(), roster);
+            return roster;
+        });
+    }
 
-            return employeeResponse.getData();
+    /**
+     * @param known the roster last fetched, if any; it is asked for conditionally and handed to {@code consumer} again
+     *              when the upstream API answers that it has not changed
+     */
+    private FetchedRoster fetchAllEmployees(Consumer<Employee> consumer, RosterReplica.State known) {
+        RequestCallback requestCallback = request -> {
+            request.getHeaders().setAccept(rosterFormat.accept());
+            if (known != null)
+                request.getHeaders().setIfNoneMatch(known.eTag());
+        };
+        try {
+            log.info("calling external api at to get all employees "  + BASE_URL );
+            FetchedRoster fetched = rateLimiter.execute(RequestPriority.READ, () -> restTemplate.execute(ALL_EMPLOYEES_URI, HttpMethod.GET, requestCallback,
+                    response -> {
+                        if (known != null && response.getStatusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+                            known.employees().forEach(consumer);
+                            return new FetchedRoster(known.employees().size(), known.version(), true);
+                        }
+                        // The roster is parsed while it is read off the wire, so this covers both.
+                        Timer.Sample sample = Timer.start(meterRegistry);
+                        try {
+                            int count = readEmployees(rosterFormat.mapperFor(response.getHeaders().getContentType()), response.getBody(), consumer);
+                            return new FetchedRoster(count, RosterReplica.versionOf(response.getHeaders().getETag()), false);
+                        } finally {
+                            sample.stop(parseTimer("getAllEmployees"));
+                        }
+                    }));
+            if (fetched == null)
+                return new FetchedRoster(0, null, false);
+            log.info("Successfully streamed {} employees from api", fetched.count());
+            return fetched;
         }
         catch (RestClientException e) {
             log.error("Error while fetching all employees " + e.getMessage(), e);
             throw new InternalException(ErrorCode.API_REQUEST_FAILURE);
+        }
+    }
+
+    /**
+     * @return the roster brought up to date from {@code replicated}, or {@code null} when the upstream API no longer
+     * knows the changes since its version
+     */
+    private List<Employee> catchUp(RosterReplica.State replicated) {
+        URI changesUri = changesUri(replicated.version());
+        try {
+            log.info("calling external api at to get roster changes " + changesUri);
+            String response = rateLimiter.execute(RequestPriority.READ, () -> restTemplate.getForObject(changesUri, String.class));
+
+            Timer.Sample sample = Timer.start(meterRegistry);
+            RosterChangesResponse rosterChangesResponse;
+            try {
+                rosterChangesResponse = objectMapper.readValue(response, RosterChangesResponse.class);
+            } finally {
+                sample.stop(parseTimer("getRosterChanges"));
+            }
+            if (rosterChangesResponse == null || rosterChangesResponse.getData() == null)
+                throw new InternalException(ErrorCode.JSON_DESERIALIZATION_FAILURE);
+            RosterChanges changes = rosterChangesResponse.getData();
+            List<Employee> employees = rosterReplica.apply(replicated, changes);
+            log.info("Applied {} roster changes, now at version {}", changes.getChanges() == null ? 0 : changes.getChanges().size(), changes.getVersion());
+            return employees;
+        } catch (HttpClientErrorException.Gone e) {
+            log.info("Upstream API no longer has the roster changes since " + replicated.version() + ", fetching the whole roster");
+            return null;
+        } catch (RestClientException e) {
+            log.error("Error while fetching roster changes " + e.getMessage(), e);
+            throw new InternalException(ErrorCode.API_REQUEST_FAILURE);
+        } catch (JsonProcessingException e) {
+            log.error("Error while parsing roster changes response " + e.getMessage(), e);
+            throw new InternalException(ErrorCode.JSON_DESERIALIZATION_FAILURE);
+        }
+    }
+
+    static int readEmployees(ObjectMapper objectMapper, InputStream body, Consumer<Employee> consumer) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new InternalException(ErrorCode.JSON_DESERIALIZATION_FAILURE);
+            }
+            int count = 0;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String fieldName = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if (!"data".equals(fieldName) || value != JsonToken.START_ARRAY) {
+                    parser.skipChildren();
+                    continue;
+                }
+                for (JsonToken element = parser.nextToken(); element != JsonToken.END_ARRAY; element = parser.nextToken()) {
+                    if (element == JsonToken.START_OBJECT) {
+                        consumer.accept(objectMapper.readValue(parser, Employee.class));
+                        count++;
+                    } else if (element != JsonToken.VALUE_NULL) {
+                        throw new InternalException(ErrorCode.JSON_DESERIALIZATION_FAILURE);
+                    }
+                }
+            }
+            return count;
+        } catch (JsonProcessingException e) {
+            log.error("Error while parsing employees response " + e.getMessage(), e);
+            throw new InternalException(ErrorCode.JSON_DESERIALIZATION_FAILURE);
+        }
+    }
+
+    /**
+     * Fetches a single page of the roster, at {@code offset} or after {@code cursor}, so only that page is ever
+     * transferred or held. Pages are not coalesced or cached: each is cheap, and a cursor is rarely requested twice.
+     */
+    public EmployeePage getEmployeePage(int limit, Integer offset, String cursor) {
+        URI pageUri = pageUri(limit, offset, cursor);
+        try {
+            log.info("calling external api at to get a page of employees " + pageUri);
+            String response = rateLimiter.execute(RequestPriority.READ, () -> restTemplate.getForObject(pageUri, String.class));
+
+            Timer.Sample sample = Timer.start(meterRegistry);
+            EmployeePageResponse employeePageResponse;
+            try {
+                employeePageResponse = objectMapper.readValue(response, EmployeePageResponse.class);
+            } finally {
+                sample.stop(parseTimer("getEmployeePage"));
+            }
+            if (employeePageResponse == null || employeePageResponse.getData() == null)
+                throw new InternalException(ErrorCode.JSON_DESERIALIZATION_FAILURE);
+            return employeePageResponse.getData();
+        } catch (HttpClientErrorException.BadRequest e) {
+            // Limit and offset are validated before we get here, so the upstream API rejected the cursor.
+            log.warn("Upstream API rejected page request " + pageUri + " " + e.getMessage());
+            throw new ValidationException(ErrorCode.INVALID_CURSOR);
+        } catch (RestClientException e) {
+            log.error("Error while fetching a page of employees " + e.getMessage(), e);
+            throw new InternalException(ErrorCode.API_REQUEST_FAILURE);
         } catch (JsonProcessingException e) {
             log.error("Error while parsing employees response " + e.getMessage(), e);
             throw new InternalException(ErrorCode.JSON_DESERIALIZATION_FAILURE);
         }
     }
 
+    /**
+     * Name search evaluated by the upstream API, so only the matches are transferred. Same matching and ordering as
+     * {@link com.reliaquest.api.index.NameIndex#search}.
+     */
+    public List<Employee> searchEmployees(String name, NameMatch mode, boolean ignoreCase, int offset, int limit) {
+        return fetchEmployees(searchUri(name, mode, ignoreCase, offset, limit), "searchEmployees");
+    }
+
+    /**
+     * @return the {@code limit} highest or lowest earners as ranked by the upstream API, equal salaries in roster order
+     */
+    public List<Employee> getEmployeesRankedBySalary(int limit, SalaryOrder order) {
+        return fetchEmployees(rankedBySalaryUri(limit, order), "getEmployeesRankedBySalary");
+    }
+
+    /**
+     * Concurrent callers share one upstream request and the parsed result.
+     */
+    public SalaryStats getSalaryStats() {
+        return requestCoalescer.execute("GET " + SALARY_STATS_URI, "getSalaryStats", () -> {
+            try {
+                log.info("calling external api at to get salary statistics " + SALARY_STATS_URI);
+                String response = rateLimiter.execute(RequestPriority.READ, () -> restTemplate.getForObject(SALARY_STATS_URI, String.class));
+
+                Timer.Sample sample = Timer.start(meterRegistry);
+                SalaryStatsResponse salaryStatsResponse;
+                try {
+                    salaryStatsResponse = objectMapper.readValue(response, SalaryStatsResponse.class);
+                } finally {
+                    sample.stop(parseTimer("getSalaryStats"));
+                }
+                if (salaryStatsResponse == null || salaryStatsResponse.getData() == null)
+                    throw new InternalException(ErrorCode.JSON_DESERIALIZATION_FAILURE);
+                return salaryStatsResponse.getData();
+            } catch (RestClientException e) {
+                log.error("Error while fetching salary statistics " + e.getMessage(), e);
+                throw new InternalException(ErrorCode.API_REQUEST_FAILURE);
+            } catch (JsonProcessingException e) {
+                log.error("Error while parsing salary statistics response " + e.getMessage(), e);
+                throw new InternalException(ErrorCode.JSON_DESERIALIZATION_FAILURE);
+            }
+        });
+    }
+
+    /**
+     * Concurrent callers of the same query share one upstream request and the resulting list, which is therefore
+     * unmodifiable.
+     */
+    private List<Employee> fetchEmployees(URI uri, String operation) {
+        return requestCoalescer.execute("GET " + uri, operation, () -> {
+            try {
+                log.info("calling external api at " + uri);
+                List<Employee> employees = rateLimiter.execute(RequestPriority.READ, () -> restTemplate.execute(uri, HttpMethod.GET, ACCEPT_JSON,
+                        response -> {
+                            Timer.Sample sample = Timer.start(meterRegistry);
+                            try {
+                                List<Employee> matches = new ArrayList<>();
+                                readEmployees(objectMapper, response.getBody(), matches::add);
+                                return matches;
+                            } finally {
+                                sample.stop(parseTimer(operation));
+                            }
+                        }));
+                return employees == null ? List.of() : Collections.unmodifiableList(employees);
+            } catch (RestClientException e) {
+                log.error("Error while calling " + uri + " " + e.getMessage(), e);
+                throw new InternalException(ErrorCode.API_REQUEST_FAILURE);
+            }
+        });
+    }
+
+    static URI changesUri(String since) {
+        return UriComponentsBuilder.fromUri(ALL_EMPLOYEES_URI).path("/changes")
+                .queryParam("since", "{since}")
+                .encode()
+                .buildAndExpand(since)
+                .toUri();
+    }
+
+    static URI searchUri(String name, NameMatch mode, boolean ignoreCase, int offset, int limit) {
+        // The name goes in as a URI variable so that reserved characters such as + and & in it are encoded too.
+        return UriComponentsBuilder.fromUri(ALL_EMPLOYEES_URI).path("/search")
+                .queryParam("name", "{name}")
+                .queryParam("mode", mode.name().toLowerCase(Locale.ROOT))
+                .queryParam("ignoreCase", ignoreCase)
+                .queryParam("offset", offset)
+                .queryParam("limit", limit)
+                .encode()
+                .buildAndExpand(name == null ? "" : name)
+                .toUri();
+    }
+
+    static URI rankedBySalaryUri(int limit, SalaryOrder order) {
+        return UriComponentsBuilder.fromUri(ALL_EMPLOYEES_URI).path("/top-by-salary")
+                .queryParam("limit", limit)
+                .queryParam("order", order.name().toLowerCase(Locale.ROOT))
+                .build()
+                .toUri();
+    }
+
+    static URI pageUri(int limit, Integer offset, String cursor) {
+        UriComponentsBuilder builder = UriComponentsBuilder.fromUri(ALL_EMPLOYEES_URI).queryParam("limit", limit);
+        if (offset != null)
+            builder.queryParam("offset", offset);
+        if (cursor != null)
+            builder.queryParam("cursor", cursor);
+        return builder.encode().build().toUri();
+    }
+
+    /**
+     * Concurrent callers asking for the same id share one upstream request and parse.
+     */
     public Employee getEmployeeById(String id) {
+        String externalUrl =  BASE_URL+"/" + id;
+        return requestCoalescer.execute("GET " + externalUrl, "getEmployeeById", () -> fetchEmployeeById(externalUrl));
+    }
+
+    private Employee fetchEmployeeById(String externalUrl) {
         try {
-            String externalUrl =  BASE_URL+"/" + id;
-            log.info("calling external api at to get all employees "  + externalUrl );
-            String response = restTemplate.getForObject(externalUrl, String.class);
-            log.info("Successfully fetched response from api: {}", response);
+            log.info("calling external api at to get employee "  + externalUrl );
+            String response = rateLimiter.execute(RequestPriority.READ, () -> restTemplate.getForObject(externalUrl, String.class));
+            log.debug("Successfully fetched response from api: {}", response);
 
-            EmployeeResponse employeeResponse = objectMapper.readValue(response, EmployeeResponse.class);
-            log.info("Successfully parsed response: {}", employeeResponse);
+            Timer.Sample sample = Timer.start(meterRegistry);
+            EmployeeResponse employeeResponse;
+            try {
+                employeeResponse = objectMapper.readValue(response, EmployeeResponse.class);
+            } finally {
+                sample.stop(parseTimer("getEmployeeById"));
+            }
+            log.debug("Successfully parsed response: {}", employeeResponse);
 
             return employeeResponse.getData();
         } catch (RestClientException e) {
-            log.error("Error while fetching all employees " + e.getMessage(), e);
+            log.error("Error while fetching employee " + externalUrl + " " + e.getMessage(), e);
             throw new InternalException(ErrorCode.API_REQUEST_FAILURE);
         } catch (JsonProcessingException e) {
-            log.error("Error while parsing employees response " + e.getMessage(), e);
+            log.error("Error while parsing employee response " + e.getMessage(), e);
             throw new InternalException(ErrorCode.JSON_DESERIALIZATION_FAILURE);
         }
     }
@@ -74,32 +395,67 @@ public class EmployeeAPIUtils {
     public CreateEmployee createEmployee(CreateEmployeeDTO createEmployeeDTO) {
         try {
             String externalUrl =  BASE_URL + "/create";
-            log.info("calling external api at to get all employees "  + externalUrl );
-            String response = restTemplate.postForObject(externalUrl, createEmployeeDTO, String.class);
-            log.info("Successfully fetched response from api: {}", response);
+            log.info("calling external api at to create employee "  + externalUrl );
+            String response = rateLimiter.execute(RequestPriority.WRITE, () -> restTemplate.postForObject(externalUrl, createEmployeeDTO, String.class));
+            requestCoalescer.forgetInFlight();
+            log.debug("Successfully fetched response from api: {}", response);
 
-            CreateEmployeeResponse createEmployeeResponse = objectMapper.readValue(response, CreateEmployeeResponse.class);
-            log.info("Successfully parsed response: {}", createEmployeeResponse);
+            Timer.Sample sample = Timer.start(meterRegistry);
+            CreateEmployeeResponse createEmployeeResponse;
+            try {
+                createEmployeeResponse = objectMapper.readValue(response, CreateEmployeeResponse.class);
+            } finally {
+                sample.stop(parseTimer("createEmployee"));
+            }
+            log.debug("Successfully parsed response: {}", createEmployeeResponse);
 
             return createEmployeeResponse.getData();
         } catch (RestClientException e) {
-            log.error("Error while fetching all employees " + e.getMessage(), e);
+            log.error("Error while creating employee " + e.getMessage(), e);
             throw new InternalException(ErrorCode.API_REQUEST_FAILURE);
         } catch (JsonProcessingException e) {
-            log.error("Error while parsing employees response " + e.getMessage(), e);
+            log.error("Error while parsing create response " + e.getMessage(), e);
             throw new InternalException(ErrorCode.JSON_DESERIALIZATION_FAILURE);
         }
     }
 
-    public String deleteEmployee(Employee employeeToBeDeleted) {
+    /**
+     * Deletes the employee with a single DELETE to its own URL, so exactly that employee is removed even when others
+     * share its name.
+     *
+     * @return the employee the upstream API deleted, or null when it had none with that id
+     */
+    public Employee deleteEmployee(String id) {
         try {
-            String id = employeeToBeDeleted.getId();
-            String externalUrl = BASE_URL + "/delete/" + id;
-            String response = restTemplate.exchange(externalUrl, HttpMethod.DELETE, null, String.class).getBody();
-            return response.contains("successfully! deleted Record") ? employeeToBeDeleted.getName() : "failed";
+            String externalUrl = BASE_URL + "/" + id;
+            log.info("calling external api at to delete employee "  + externalUrl );
+            String response = rateLimiter.execute(RequestPriority.WRITE, () -> restTemplate.exchange(externalUrl, HttpMethod.DELETE, null, String.class).getBody());
+            requestCoalescer.forgetInFlight();
+            log.debug("Successfully fetched response from api: {}", response);
+
+            Timer.Sample sample = Timer.start(meterRegistry);
+            DeleteEmployeeResponse deleteEmployeeResponse;
+            try {
+                deleteEmployeeResponse = objectMapper.readValue(response, DeleteEmployeeResponse.class);
+            } finally {
+                sample.stop(parseTimer("deleteEmployee"));
+            }
+            return deleteEmployeeResponse == null ? null : deleteEmployeeResponse.getData();
         }  catch (RestClientException e) {
-            log.error("Error while fetching all employees " + e.getMessage(), e);
+            log.error("Error while deleting employee " + id + " " + e.getMessage(), e);
             throw new InternalException(ErrorCode.API_REQUEST_FAILURE);
+        } catch (JsonProcessingException e) {
+            log.error("Error while parsing delete response " + e.getMessage(), e);
+            throw new InternalException(ErrorCode.JSON_DESERIALIZATION_FAILURE);
         }
     }
-}
\ No newline at end of file
+
+    private Timer parseTimer(String operation) {
+        return Timer.builder(PARSE_TIMER)
+                .description("Time spent deserializing upstream employee API responses")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+
+    private record FetchedRoster(int count, String version, boolean notModified) {}
+}
@@ -0,0 +1,75 @@
+package com.reliaquest.api.utils;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.reliaquest.api.entity.Employee;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * Writes employees to an {@link OutputStream} as newline-delimited JSON, one record per line.
+ *
+ * <p>Output is flushed every {@link #FLUSH_EVERY} records so clients see the first records while the rest are still
+ * being produced. Writes block while the client is slow to read, which in turn holds back whoever feeds this consumer.
+ *
+ * <p>The output is only opened for the first record, so until then whoever serves the response can still answer
+ * differently, e.g. with an error.
+ */
+public class NdjsonEmployeeWriter implements Consumer<Employee> {
+
+    static final int FLUSH_EVERY = 64;
+
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter objectWriter;
+    private final Output output;
+    private JsonGenerator generator;
+    private int written;
+
+    /**
+     * Where the records go, opened when the first one is written.
+     */
+    public interface Output {
+        OutputStream open() throws IOException;
+    }
+
+    public NdjsonEmployeeWriter(ObjectMapper objectMapper, OutputStream outputStream) {
+        this(objectMapper, () -> outputStream);
+    }
+
+    public NdjsonEmployeeWriter(ObjectMapper objectMapper, Output output) {
+        this.objectMapper = objectMapper;
+        // Flushing is batched below, so the per-value flush Jackson does by default is turned off.
+        this.objectWriter =
+                objectMapper.writerFor(Employee.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.output = output;
+    }
+
+    @Override
+    public void accept(Employee employee) {
+        try {
+            if (generator == null) {
+                generator = objectMapper.getFactory().createGenerator(output.open());
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.setRootValueSeparator(null);
+            }
+            objectWriter.writeValue(generator, employee);
+            generator.writeRaw('\n');
+            if (++written % FLUSH_EVERY == 0) {
+                generator.flush();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public int finish() throws IOException {
+        if (generator != null) {
+            generator.close();
+        }
+        return written;
+    }
+}
@@ -0,0 +1,117 @@
+package com.reliaquest.api.utils;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Deduplicates identical upstream reads that are in flight at the same time.
+ *
+ * <p>The first caller for a key runs the call; callers arriving before it finishes wait on the same
+ * {@link CompletableFuture} and get its result, or its exception, instead of issuing their own request. Once the call
+ * finishes the key is released, so later callers start a fresh request; so does {@link #forgetInFlight()}, after a
+ * write. Results are shared between callers and must therefore not be mutated.
+ */
+public class RequestCoalescer {
+
+    static final String COALESCED = "employee.upstream.coalesced";
+
+    private final ConcurrentMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    public RequestCoalescer(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * @param key identifies the upstream request, typically method and URL
+     * @param operation low-cardinality name used to tag the coalesced-calls counter
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String key, String operation, Supplier<T> call) {
+        CompletableFuture<Object> pending = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, pending);
+        if (existing != null) {
+            coalesced(operation).increment();
+            return (T) await(existing);
+        }
+        try {
+            T result = call.get();
+            inFlight.remove(key, pending);
+            pending.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            inFlight.remove(key, pending);
+            pending.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Non-blocking variant of {@link #execute}: followers get a copy of the leader's future, so completing or
+     * cancelling it does not affect the other callers.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> CompletableFuture<T> executeAsync(String key, String operation, Supplier<CompletableFuture<T>> call) {
+        CompletableFuture<Object> pending = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, pending);
+        if (existing != null) {
+            coalesced(operation).increment();
+            return (CompletableFuture<T>) existing.copy();
+        }
+        CompletableFuture<T> started;
+        try {
+            started = call.get();
+        } catch (RuntimeException e) {
+            started = CompletableFuture.failedFuture(e);
+        }
+        started.whenComplete((result, failure) -> {
+            inFlight.remove(key, pending);
+            if (failure == null) {
+                pending.complete(result);
+            } else {
+                pending.completeExceptionally(failure instanceof CompletionException && failure.getCause() != null
+                        ? failure.getCause() : failure);
+            }
+        });
+        return (CompletableFuture<T>) pending.copy();
+    }
+
+    /**
+     * Stops sharing the reads in flight: they finish for the callers already waiting on them, and every later caller
+     * starts a fresh request. Called after an upstream write, so that nobody arriving after it gets a read that may
+     * have been answered before it.
+     */
+    public void forgetInFlight() {
+        inFlight.clear();
+    }
+
+    int inFlightCount() {
+        return inFlight.size();
+    }
+
+    private Counter coalesced(String operation) {
+        return Counter.builder(COALESCED)
+                .description("Upstream reads answered by a concurrent identical request already in flight")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+
+    private static Object await(CompletableFuture<Object> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
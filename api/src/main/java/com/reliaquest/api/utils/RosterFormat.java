@@ -0,0 +1,67 @@
+package com.reliaquest.api.utils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.http.MediaType;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The encoding the roster is asked for in, {@code employee.upstream.roster-format}. Smile and CBOR are binary forms of
+ * the same documents, smaller on the wire and cheaper to parse than JSON; Smile also sends each repeated key, such as
+ * the {@code employee_} prefixed ones, only once and refers back to it afterwards. JSON stays acceptable at a lower
+ * quality, so an upstream API that knows neither still answers, and the answer is parsed in whichever encoding it
+ * comes in.
+ */
+final class RosterFormat {
+
+    static final MediaType SMILE = MediaType.valueOf("application/x-jackson-smile");
+    static final MediaType CBOR = MediaType.APPLICATION_CBOR;
+
+    private static final MediaType JSON_FALLBACK = MediaType.valueOf("application/json;q=0.9");
+
+    private final List<MediaType> accept;
+    private final ObjectMapper jsonMapper;
+    private final ObjectMapper binaryMapper;
+    private final MediaType binaryType;
+
+    /**
+     * @param format {@code json}, {@code smile} or {@code cbor}; {@code null} is taken as {@code json}
+     */
+    RosterFormat(ObjectMapper objectMapper, String format) {
+        this.jsonMapper = objectMapper;
+        switch (format == null ? "json" : format.toLowerCase(Locale.ROOT)) {
+            case "json" -> {
+                binaryType = null;
+                binaryMapper = null;
+            }
+            case "smile" -> {
+                binaryType = SMILE;
+                binaryMapper = objectMapper.copyWith(new SmileFactory());
+            }
+            case "cbor" -> {
+                binaryType = CBOR;
+                binaryMapper = objectMapper.copyWith(new CBORFactory());
+            }
+            default -> throw new IllegalArgumentException("Unknown roster format: " + format);
+        }
+        this.accept = binaryType == null ? List.of(MediaType.APPLICATION_JSON) : List.of(binaryType, JSON_FALLBACK);
+    }
+
+    List<MediaType> accept() {
+        return accept;
+    }
+
+    String acceptHeader() {
+        return MediaType.toString(accept);
+    }
+
+    /**
+     * @return the mapper reading a body of {@code contentType}, JSON unless it is the binary format asked for
+     */
+    ObjectMapper mapperFor(MediaType contentType) {
+        return binaryType != null && contentType != null && binaryType.isCompatibleWith(contentType) ? binaryMapper : jsonMapper;
+    }
+}
@@ -0,0 +1,94 @@
+package com.reliaquest.api.utils;
+
+import com.reliaquest.api.entity.Employee;
+import com.reliaquest.api.entity.RosterChange;
+import com.reliaquest.api.entity.RosterChanges;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * The roster as last fetched from the upstream API, with the version the API reported for it in the ETag, so that the
+ * next fetch only needs to transfer and parse the changes since that version instead of the whole roster, or nothing
+ * at all when the roster is fetched conditionally and has not changed.
+ *
+ * <p>Rosters without a version, e.g. from an upstream API without a change log, are not kept.
+ */
+final class RosterReplica {
+
+    private final AtomicReference<State> state = new AtomicReference<>();
+
+    /**
+     * @return the roster last fetched and its version, or {@code null} when the whole roster has to be fetched
+     */
+    State current() {
+        return state.get();
+    }
+
+    void reset(String version, List<Employee> employees) {
+        state.set(version == null ? null : new State(version, employees));
+    }
+
+    /**
+     * Applies {@code changes} to the roster at {@code base}, keeping the result unless another fetch has moved the
+     * replica on in the meantime.
+     *
+     * @return the unmodifiable roster at {@code changes.getVersion()}
+     */
+    List<Employee> apply(State base, RosterChanges changes) {
+        List<RosterChange> applied = changes.getChanges() == null ? List.of() : changes.getChanges();
+        List<Employee> employees = applied.isEmpty() ? base.employees() : applied(base.employees(), applied);
+        state.compareAndSet(base, new State(changes.getVersion(), employees));
+        return employees;
+    }
+
+    /**
+     * One pass over the roster whatever the number of changes: added employees go at the end, in the order they were
+     * added, and an employee both added and removed since {@code employees} never shows up.
+     */
+    static List<Employee> applied(List<Employee> employees, List<RosterChange> changes) {
+        Map<String, Employee> added = new LinkedHashMap<>();
+        Set<String> removed = new HashSet<>();
+        for (RosterChange change : changes) {
+            String id = change.getEmployee().getId();
+            if (change.getType() == RosterChange.Type.ADDED) {
+                added.put(id, change.getEmployee());
+            } else if (added.remove(id) == null) {
+                removed.add(id);
+            }
+        }
+        List<Employee> result = new ArrayList<>(employees.size() + added.size());
+        for (Employee employee : employees) {
+            if (removed.isEmpty() || !removed.contains(employee.getId())) {
+                result.add(employee);
+            }
+        }
+        result.addAll(added.values());
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * @return the roster version in an ETag, weak or strong, or {@code null} if there is no ETag
+     */
+    static String versionOf(String eTag) {
+        if (eTag == null) {
+            return null;
+        }
+        String opaque = eTag.startsWith("W/") ? eTag.substring(2) : eTag;
+        return opaque.length() >= 2 && opaque.startsWith("\"") && opaque.endsWith("\"")
+                ? opaque.substring(1, opaque.length() - 1)
+                : opaque;
+    }
+
+    record State(String version, List<Employee> employees) {
+
+        String eTag() {
+            return "\"" + version + "\"";
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.reliaquest.api.utils;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+/**
+ * Records every call to the upstream employee API.
+ *
+ * <ul>
+ *   <li>{@code employee.upstream.requests}: latency until the response status and headers arrive, as a histogram
+ *       tagged with method, uri template, status and outcome. Reading the body is covered by
+ *       {@code employee.upstream.parse} in {@link EmployeeAPIUtils}.
+ *   <li>{@code employee.upstream.throttled}: responses with status 429.
+ *   <li>{@code employee.upstream.response.bytes}: response body bytes actually read, recorded when the response is
+ *       closed.
+ * </ul>
+ *
+ * Id path segments are collapsed to {@code {id}} so the uri tag stays low-cardinality. Clients that do not go through
+ * {@link org.springframework.web.client.RestTemplate}, such as {@link AsyncEmployeeAPIUtils}, report their exchanges
+ * with {@link #record} and {@link #recordFailure}.
+ */
+public class UpstreamMetricsInterceptor implements ClientHttpRequestInterceptor {
+
+    static final String REQUESTS = "employee.upstream.requests";
+    static final String THROTTLED = "employee.upstream.throttled";
+    static final String RESPONSE_BYTES = "employee.upstream.response.bytes";
+
+    private static final Pattern ID_SEGMENT =
+            Pattern.compile("\\d+|[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}");
+
+    private final MeterRegistry meterRegistry;
+    private final Counter throttled;
+    private final DistributionSummary responseBytes;
+
+    public UpstreamMetricsInterceptor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.throttled = Counter.builder(THROTTLED)
+                .description("Upstream employee API responses rejected with 429 Too Many Requests")
+                .register(meterRegistry);
+        this.responseBytes = DistributionSummary.builder(RESPONSE_BYTES)
+                .description("Bytes read from upstream employee API response bodies")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        String method = request.getMethod().name();
+        long start = System.nanoTime();
+        ClientHttpResponse response;
+        try {
+            response = execution.execute(request, body);
+        } catch (IOException | RuntimeException e) {
+            recordFailure(method, request.getURI(), System.nanoTime() - start);
+            throw e;
+        }
+        recordStatus(method, request.getURI(), response.getStatusCode(), System.nanoTime() - start);
+        return new CountingResponse(response, responseBytes);
+    }
+
+    /**
+     * Records a completed exchange whose body has already been read in full.
+     */
+    public void record(String method, URI uri, int status, long elapsedNanos, long bodyBytes) {
+        recordStatus(method, uri, HttpStatusCode.valueOf(status), elapsedNanos);
+        responseBytes.record(bodyBytes);
+    }
+
+    /**
+     * Records an exchange that failed before any response arrived.
+     */
+    public void recordFailure(String method, URI uri, long elapsedNanos) {
+        requestTimer(method, uriTemplate(uri), "IO_ERROR", "UNKNOWN").record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private void recordStatus(String method, URI uri, HttpStatusCode status, long elapsedNanos) {
+        requestTimer(method, uriTemplate(uri), String.valueOf(status.value()), outcome(status))
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+        if (status.value() == HttpStatus.TOO_MANY_REQUESTS.value()) {
+            throttled.increment();
+        }
+    }
+
+    static String uriTemplate(URI uri) {
+        String path = uri.getPath();
+        if (path == null || path.isEmpty()) {
+            return "/";
+        }
+        String[] segments = path.split("/", -1);
+        for (int i = 0; i < segments.length; i++) {
+            if (ID_SEGMENT.matcher(segments[i]).matches()) {
+                segments[i] = "{id}";
+            }
+        }
+        return String.join("/", segments);
+    }
+
+    private Timer requestTimer(String method, String uri, String status, String outcome) {
+        return Timer.builder(REQUESTS)
+                .description("Latency of upstream employee API calls until the response headers arrive")
+                .tags("method", method, "uri", uri, "status", status, "outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private static String outcome(HttpStatusCode status) {
+        if (status.is2xxSuccessful()) {
+            return "SUCCESS";
+        }
+        if (status.is4xxClientError()) {
+            return "CLIENT_ERROR";
+        }
+        if (status.is5xxServerError()) {
+            return "SERVER_ERROR";
+        }
+        return "UNKNOWN";
+    }
+
+    private static final class CountingResponse implements ClientHttpResponse {
+
+        private final ClientHttpResponse delegate;
+        private final DistributionSummary responseBytes;
+        private CountingInputStream body;
+
+        private CountingResponse(ClientHttpResponse delegate, DistributionSummary responseBytes) {
+            this.delegate = delegate;
+            this.responseBytes = responseBytes;
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return delegate.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return delegate.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return delegate.getHeaders();
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            if (body == null) {
+                body = new CountingInputStream(delegate.getBody());
+            }
+            return body;
+        }
+
+        @Override
+        public void close() {
+            if (body != null) {
+                responseBytes.record(body.count);
+            }
+            delegate.close();
+        }
+    }
+
+    private static final class CountingInputStream extends FilterInputStream {
+
+        private long count;
+
+        private CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = super.read(b, off, len);
+            if (read > 0) {
+                count += read;
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+    }
+}
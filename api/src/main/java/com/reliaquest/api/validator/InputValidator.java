@@ -2,7 +2,9 @@ package com.reliaquest.api.validator;
 
 
 import com.reliaquest.api.exceptions.ValidationException;
+import com.reliaquest.api.entity.CreateEmployee;
 import com.reliaquest.api.entity.CreateEmployeeDTO;
+import com.reliaquest.api.exceptions.ErrorCode;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.Map;
@@ -15,32 +17,59 @@ public class InputValidator {
 
     public static CreateEmployeeDTO convertAndValidateEmployeeInput(Map<String, Object> employeeInput) throws ValidationException {
         log.info("Starting validation for create employee input:{}", employeeInput);
+        CreateEmployeeDTO createEmployeeDTO = validate(employeeInput.get("name"), employeeInput.get("salary"), employeeInput.get("age"));
+        log.info("Validation successful for create employee input");
+
+        return createEmployeeDTO;
+    }
+
+    /**
+     * Same checks as {@link #convertAndValidateEmployeeInput(Map)}, reading the request body directly instead of a map
+     * copy of it and without logging the input, for validating the items of a bulk create.
+     */
+    public static CreateEmployeeDTO convertAndValidateEmployeeInput(CreateEmployee employeeInput) throws ValidationException {
+        if (employeeInput == null) {
+            throw new ValidationException(INVALID_OR_EMPTY_NAME);
+        }
+        return validate(employeeInput.getName(), employeeInput.getSalary(), employeeInput.getAge());
+    }
+
+    private static CreateEmployeeDTO validate(Object name, Object salaryInput, Object ageInput) {
         CreateEmployeeDTO createEmployeeDTO = new CreateEmployeeDTO();
 
-        if (!employeeInput.containsKey("name") || !(employeeInput.get("name") instanceof String)) {
+        if (!(name instanceof String)) {
             throw new ValidationException(INVALID_OR_EMPTY_NAME);
         }
-        createEmployeeDTO.setName((String) employeeInput.get("name"));
+        createEmployeeDTO.setName((String) name);
 
-        if (!employeeInput.containsKey("salary") || !(employeeInput.get("salary") instanceof String salaryStr)) {
+        if (!(salaryInput instanceof String salaryStr)) {
             throw new ValidationException(INVALID_OR_MISSING_SALARY);
         }
-        if (Integer.parseInt(salaryStr) < 0) {
+        int salary = parse(salaryStr, INVALID_OR_MISSING_SALARY);
+        if (salary < 0) {
             throw new ValidationException(SALARY_BELOW_ZERO);
         }
         createEmployeeDTO.setSalary(salaryStr);
 
-        if (!employeeInput.containsKey("age") || !(employeeInput.get("age") instanceof String ageStr)) {
+        if (!(ageInput instanceof String ageStr)) {
             throw new ValidationException(INVALID_OR_EMPTY_AGE);
         }
-        if (Integer.parseInt(ageStr) < 0) {
+        int age = parse(ageStr, INVALID_OR_EMPTY_AGE);
+        if (age < 0) {
             throw new ValidationException(AGE_BELOW_ZERO);
-        } else if (Integer.parseInt(ageStr) > 100) {
+        } else if (age > 100) {
             throw new ValidationException(AGE_OVER_LIMIT);
         }
         createEmployeeDTO.setAge(ageStr);
-        log.info("Validation successful for create employee input");
 
         return createEmployeeDTO;
     }
-}
\ No newline at end of file
+
+    private static int parse(String number, ErrorCode invalid) {
+        try {
+            return Integer.parseInt(number);
+        } catch (NumberFormatException e) {
+            throw new ValidationException(invalid);
+        }
+    }
+}
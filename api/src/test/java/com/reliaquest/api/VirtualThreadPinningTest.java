@@ -0,0 +1,103 @@
+package com.reliaquest.api;
+
+import com.reliaquest.api.cache.EmployeeRosterCache;
+import com.reliaquest.api.configurations.RateLimitProperties;
+import com.reliaquest.api.entity.Employee;
+import com.reliaquest.api.ratelimit.RequestPriority;
+import com.reliaquest.api.ratelimit.UpstreamRateLimiter;
+import com.reliaquest.api.utils.EmployeeAPIUtils;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the blocking upstream paths on virtual threads with a slow upstream and fails if JFR sees any virtual thread
+ * block while pinned to its carrier, e.g. because a {@code synchronized} block was put around an upstream call. Needs
+ * Java 21, so it is left out of {@code test} and run by {@code ./gradlew api:virtualThreadTest} on a Java 21 launcher;
+ * {@code check} includes it only with {@code -PjavaVersion=21} or {@code -PvirtualThreads}.
+ */
+@Tag("virtual-threads")
+class VirtualThreadPinningTest {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int CALLERS = 64;
+
+    @TempDir
+    Path recordingDirectory;
+
+    @Test
+    void upstreamPaths_OnVirtualThreads_ShouldNotPinCarriers() throws Exception {
+        assertTrue(Runtime.version().feature() >= 21, "virtual threads need Java 21, run ./gradlew api:virtualThreadTest");
+
+        Employee alice = new Employee("1", "Alice Brown", "55000", "29", "Software Engineer", "alicebrown@reliaquest.com");
+        // A plain subclass rather than a mock, so nothing but the code under test runs on the virtual threads.
+        EmployeeAPIUtils employeeAPIUtils = new EmployeeAPIUtils(null, null, new SimpleMeterRegistry(), null) {
+            @Override
+            public List<Employee> getAllEmployees() {
+                return slowUpstream(List.of(alice));
+            }
+
+            @Override
+            public Employee getEmployeeById(String id) {
+                return slowUpstream(null);
+            }
+        };
+        EmployeeRosterCache cache = new EmployeeRosterCache(employeeAPIUtils, Duration.ZERO, 100, Duration.ofMinutes(10));
+        UpstreamRateLimiter rateLimiter = new UpstreamRateLimiter(
+                new RateLimitProperties(true, 1, 3, Duration.ofMillis(1), Duration.ofMillis(5), Duration.ofSeconds(1), Duration.ofSeconds(1)),
+                new SimpleMeterRegistry());
+
+        SimpleAsyncTaskExecutor virtualThreads = new SimpleAsyncTaskExecutor("pinning-test-");
+        virtualThreads.setVirtualThreads(true);
+        Path dump = recordingDirectory.resolve("pinning.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(PINNED_EVENT).withThreshold(Duration.ZERO).withStackTrace();
+            recording.start();
+
+            CountDownLatch done = new CountDownLatch(CALLERS);
+            for (int i = 0; i < CALLERS; i++) {
+                virtualThreads.execute(() -> {
+                    try {
+                        cache.getAllEmployees();
+                        cache.getEmployeeById("2");
+                        rateLimiter.execute(RequestPriority.READ, () -> slowUpstream("ok"));
+                    } finally {
+                        done.countDown();
+                    }
+                });
+            }
+            assertTrue(done.await(30, TimeUnit.SECONDS));
+
+            recording.stop();
+            recording.dump(dump);
+        }
+
+        List<RecordedEvent> pinned = RecordingFile.readAllEvents(dump).stream()
+                .filter(event -> event.getEventType().getName().equals(PINNED_EVENT))
+                .toList();
+        assertEquals(List.of(), pinned.stream().map(event -> String.valueOf(event.getStackTrace())).toList());
+    }
+
+    private static <T> T slowUpstream(T result) {
+        try {
+            Thread.sleep(10);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return result;
+    }
+}
@@ -0,0 +1,344 @@
+package com.reliaquest.api.cache;
+
+import com.reliaquest.api.entity.Employee;
+import com.reliaquest.api.exceptions.ErrorCode;
+import com.reliaquest.api.exceptions.InternalException;
+import com.reliaquest.api.exceptions.UpstreamRateLimitedException;
+import com.reliaquest.api.utils.EmployeeAPIUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class EmployeeRosterCacheTest {
+
+    @Mock
+    private EmployeeAPIUtils employeeAPIUtils;
+
+    private final Employee alice = new Employee("1", "Alice Brown", "55000", "29", "Software Engineer", "alicebrown@reliaquest.com");
+    private final Employee bob = new Employee("2", "Bob Smith", "75000", "52", "Senior Software Engineer", "bobsmith@reliaquest.com");
+
+    @Test
+    void getAllEmployees_WhenCalledTwiceWithinTtl_ShouldLoadOnce() {
+        EmployeeRosterCache cache = new EmployeeRosterCache(employeeAPIUtils, Duration.ofMinutes(1), 100, Duration.ofMinutes(10));
+        when(employeeAPIUtils.getAllEmployees()).thenReturn(List.of(alice, bob));
+
+        assertEquals(List.of(alice, bob), cache.getAllEmployees());
+        assertEquals(List.of(alice, bob), cache.getAllEmployees());
+
+        verify(employeeAPIUtils, times(1)).getAllEmployees();
+        CacheStats stats = cache.stats();
+        assertEquals(1, stats.hits());
+        assertEquals(1, stats.misses());
+        assertEquals(1, stats.loads());
+        assertEquals(2, stats.rosterSize());
+    }
+
+    @Test
+    void getAllEmployees_WhenTtlExpired_ShouldReload() {
+        EmployeeRosterCache cache = new EmployeeRosterCache(employeeAPIUtils, Duration.ZERO, 100, Duration.ofMinutes(10));
+        when(employeeAPIUtils.getAllEmployees()).thenReturn(List.of(alice));
+
+        cache.getAllEmployees();
+        cache.getAllEmployees();
+
+        verify(employeeAPIUtils, times(2)).getAllEmployees();
+    }
+
+    @Test
+    void getAllEmployees_AfterInvalidate_ShouldReload() {
+        EmployeeRosterCache cache = new EmployeeRosterCache(employeeAPIUtils, Duration.ofMinutes(1), 100, Duration.ofMinutes(10));
+        when(employeeAPIUtils.getAllEmployees()).thenReturn(List.of(alice), List.of(alice, bob));
+
+        cache.getAllEmployees();
+        cache.invalidate();
+
+        assertEquals(List.of(alice, bob), cache.getAllEmployees());
+        verify(employeeAPIUtils, times(2)).getAllEmployees();
+    }
+
+    @Test
+    void applyCreatedAndDeleted_WhenRosterIsCached_ShouldUpdateItWithoutReload() {
+        EmployeeRosterCache cache = new EmployeeRosterCache(employeeAPIUtils, Duration.ofMinutes(1), 100, Duration.ofMinutes(10));
+        when(employeeAPIUtils.getAllEmployees()).thenReturn(List.of(alice));
+
+        cache.getAllEmployees();
+        cache.applyCreated(bob);
+        cache.applyDeleted("1");
+
+        assertEquals(List.of(bob), cache.getAllEmployees());
+        assertNull(cache.currentSnapshot().findById("1"));
+        verify(employeeAPIUtils, times(1)).getAllEmployees();
+    }
+
+    @Test
+    void applyCreated_WhenNothingIsCached_ShouldLoadOnNextRead() {
+        EmployeeRosterCache cache = new EmployeeRosterCache(employeeAPIUtils, Duration.ofMinutes(1), 100, Duration.ofMinutes(10));
+        when(employeeAPIUtils.getAllEmployees()).thenReturn(List.of(alice, bob));
+
+        cache.applyCreated(bob);
+
+        assertEquals(List.of(alice, bob), cache.getAllEmployees());
+        verify(employeeAPIUtils, times(1)).getAllEmployees();
+    }
+
+    @Test
+    void getAllEmployees_WhenRosterExceedsBound_ShouldNotRetainIt() {
+        EmployeeRosterCache cache = new EmployeeRosterCache(employeeAPIUtils, Duration.ofMinutes(1), 1, Duration.ofMinutes(10));
+        when(employeeAPIUtils.getAllEmployees()).thenReturn(List.of(alice, bob));
+
+        cache.getAllEmployees();
+        cache.getAllEmployees();
+
+        verify(employeeAPIUtils, times(2)).getAllEmployees();
+        assertEquals(0, cache.stats().rosterSize());
+    }
+
+    @Test
+    void getAllEmployees_WhenUpstreamFails_ShouldPropagateAndCountFailure() {
+        EmployeeRosterCache cache = new EmployeeRosterCache(employeeAPIUtils, Duration.ofMinutes(1), 100, Duration.ofMinutes(10));
+        when(employeeAPIUtils.getAllEmployees()).thenThrow(new InternalException(ErrorCode.API_REQUEST_FAILURE));
+
+        InternalException exception = assertThrows(InternalException.class, cache::getAllEmployees);
+
+        assertEquals(ErrorCode.API_REQUEST_FAILURE, exception.getError());
+        assertEquals(1, cache.stats().loadFailures());
+    }
+
+    @Test
+    void getAllEmployees_WhenUpstreamIsRateLimiting_ShouldServeStaleRoster() {
+        EmployeeRosterCache cache = new EmployeeRosterCache(employeeAPIUtils, Duration.ZERO, 100, Duration.ofMinutes(10));
+        when(employeeAPIUtils.getAllEmployees())
+                .thenReturn(List.of(alice, bob))
+                .thenThrow(new UpstreamRateLimitedException(Duration.ofSeconds(30)));
+
+        cache.getAllEmployees();
+
+        assertEquals(List.of(alice, bob), cache.getAllEmployees());
+        assertEquals(1, cache.stats().staleHits());
+    }
+
+    @Test
+    void getAllEmployees_WhenRateLimitedAfterInvalidate_ShouldNotServeStaleRoster() {
+        EmployeeRosterCache cache = new EmployeeRosterCache(employeeAPIUtils, Duration.ofMinutes(1), 100, Duration.ofMinutes(10));
+        when(employeeAPIUtils.getAllEmployees())
+                .thenReturn(List.of(alice, bob))
+                .thenThrow(new UpstreamRateLimitedException(Duration.ofSeconds(30)));
+
+        cache.getAllEmployees();
+        cache.invalidate();
+
+        assertThrows(UpstreamRateLimitedException.class, cache::getAllEmployees);
+    }
+
+    @Test
+    void getAllEmployees_WhenMissesAreConcurrent_ShouldCollapseIntoOneLoad() throws Exception {
+        EmployeeRosterCache cache = new EmployeeRosterCache(employeeAPIUtils, Duration.ofMinutes(1), 100, Duration.ofMinutes(10));
+        CountDownLatch loadStarted = new CountDownLatch(1);
+        CountDownLatch releaseLoad = new CountDownLatch(1);
+        when(employeeAPIUtils.getAllEmployees()).thenAnswer(invocation -> {
+            loadStarted.countDown();
+            releaseLoad.await(5, TimeUnit.SECONDS);
+            return List.of(alice, bob);
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<List<Employee>>> results = new ArrayList<>();
+            results.add(executor.submit(cache::getAllEmployees));
+            assertTrue(loadStarted.await(5, TimeUnit.SECONDS));
+            for (int i = 0; i < 7; i++) {
+                results.add(executor.submit(cache::getAllEmployees));
+            }
+            Thread.sleep(100);
+            releaseLoad.countDown();
+
+            for (Future<List<Employee>> result : results) {
+                assertEquals(List.of(alice, bob), result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        verify(employeeAPIUtils, times(1)).getAllEmployees();
+    }
+
+    @Test
+    void streamSnapshot_WhenMissStartsLoad_ShouldHandOverEmployeesWhileTheyAreParsed() {
+        EmployeeRosterCache cache = new EmployeeRosterCache(employeeAPIUtils, Duration.ofMinutes(1), 100, Duration.ofMinutes(10));
+        List<Employee> streamed = new ArrayList<>();
+        when(employeeAPIUtils.getAllEmployees(any())).thenAnswer(invocation -> {
+            Consumer<Employee> onParsed = invocation.getArgument(0);
+            onParsed.accept(alice);
+            assertEquals(List.of(alice), streamed);
+            onParsed.accept(bob);
+            return List.of(alice, bob);
+        });
+
+        RosterSnapshot snapshot = cache.streamSnapshot(streamed::add);
+
+        assertEquals(List.of(alice, bob), streamed);
+        assertEquals(List.of(alice, bob), snapshot.getEmployees());
+        assertEquals(List.of(alice, bob), cache.getAllEmployees());
+        verify(employeeAPIUtils, never()).getAllEmployees();
+        assertEquals(1, cache.stats().loads());
+    }
+
+    @Test
+    void streamSnapshot_WhenRosterIsFresh_ShouldHandOverCachedRoster() {
+        EmployeeRosterCache cache = new EmployeeRosterCache(employeeAPIUtils, Duration.ofMinutes(1), 100, Duration.ofMinutes(10));
+        when(employeeAPIUtils.getAllEmployees()).thenReturn(List.of(alice, bob));
+        cache.getAllEmployees();
+        List<Employee> streamed = new ArrayList<>();
+
+        cache.streamSnapshot(streamed::add);
+
+        assertEquals(List.of(alice, bob), streamed);
+        verify(employeeAPIUtils, never()).getAllEmployees(any());
+    }
+
+    @Test
+    void streamSnapshot_WhenConsumerFails_ShouldStillCacheRosterAndRethrow() {
+        EmployeeRosterCache cache = new EmployeeRosterCache(employeeAPIUtils, Duration.ofMinutes(1), 100, Duration.ofMinutes(10));
+        when(employeeAPIUtils.getAllEmployees(any())).thenAnswer(invocation -> {
+            Consumer<Employee> onParsed = invocation.getArgument(0);
+            onParsed.accept(alice);
+            onParsed.accept(bob);
+            return List.of(alice, bob);
+        });
+        UncheckedIOException clientGone = new UncheckedIOException(new IOException("Broken pipe"));
+
+        assertSame(clientGone, assertThrows(UncheckedIOException.class, () -> cache.streamSnapshot(employee -> {
+            throw clientGone;
+        })));
+        assertEquals(List.of(alice, bob), cache.getAllEmployees());
+        assertEquals(0, cache.stats().loadFailures());
+    }
+
+    @Test
+    void streamSnapshot_WhenUpstreamIsRateLimiting_ShouldHandOverStaleRoster() {
+        EmployeeRosterCache cache = new EmployeeRosterCache(employeeAPIUtils, Duration.ZERO, 100, Duration.ofMinutes(10));
+        when(employeeAPIUtils.getAllEmployees()).thenReturn(List.of(alice, bob));
+        when(employeeAPIUtils.getAllEmployees(any())).thenThrow(new UpstreamRateLimitedException(Duration.ofSeconds(30)));
+        cache.getAllEmployees();
+        List<Employee> streamed = new ArrayList<>();
+
+        cache.streamSnapshot(streamed::add);
+
+        assertEquals(List.of(alice, bob), streamed);
+        assertEquals(1, cache.stats().staleHits());
+    }
+
+    @Test
+    void getEmployeeById_WhenRosterIsCached_ShouldNotCallUpstream() {
+        EmployeeRosterCache cache = new EmployeeRosterCache(employeeAPIUtils, Duration.ofMinutes(1), 100, Duration.ofMinutes(10));
+        when(employeeAPIUtils.getAllEmployees()).thenReturn(List.of(alice, bob));
+
+        cache.getAllEmployees();
+
+        assertEquals(bob, cache.getEmployeeById("2"));
+        verify(employeeAPIUtils, never()).getEmployeeById(anyString());
+    }
+
+    @Test
+    void getEmployeeById_WhenBoundIsReached_ShouldEvictLeastRecentlyUsed() {
+        EmployeeRosterCache cache = new EmployeeRosterCache(employeeAPIUtils, Duration.ofMinutes(1), 1, Duration.ofMinutes(10));
+        when(employeeAPIUtils.getEmployeeById("1")).thenReturn(alice);
+        when(employeeAPIUtils.getEmployeeById("2")).thenReturn(bob);
+
+        cache.getEmployeeById("1");
+        cache.getEmployeeById("2");
+        cache.getEmployeeById("1");
+
+        verify(employeeAPIUtils, times(2)).getEmployeeById("1");
+        assertEquals(2, cache.stats().evictions());
+        assertEquals(1, cache.stats().cachedByIdEntries());
+    }
+
+    @Test
+    void currentSnapshotAsync_WhenMissesOverlap_ShouldShareOneLoadWithoutBlocking() throws Exception {
+        EmployeeRosterCache cache = new EmployeeRosterCache(employeeAPIUtils, Duration.ofMinutes(1), 100, Duration.ofMinutes(10));
+        CompletableFuture<List<Employee>> upstream = new CompletableFuture<>();
+        List<CompletableFuture<List<Employee>>> loads = new ArrayList<>();
+
+        CompletableFuture<RosterSnapshot> first = cache.currentSnapshotAsync(() -> {
+            loads.add(upstream);
+            return upstream;
+        });
+        CompletableFuture<RosterSnapshot> second = cache.currentSnapshotAsync(() -> {
+            loads.add(upstream);
+            return upstream;
+        });
+        assertFalse(first.isDone());
+        upstream.complete(List.of(alice, bob));
+
+        assertEquals(List.of(alice, bob), first.get(5, TimeUnit.SECONDS).getEmployees());
+        assertEquals(List.of(alice, bob), second.get(5, TimeUnit.SECONDS).getEmployees());
+        assertEquals(1, loads.size());
+        assertEquals(1, cache.stats().coalescedLoads());
+        // The async load is retained like a blocking one.
+        assertEquals(List.of(alice, bob), cache.getAllEmployees());
+        verify(employeeAPIUtils, never()).getAllEmployees();
+    }
+
+    @Test
+    void currentSnapshotAsync_WhenMissFollowsLocalWrite_ShouldNotJoinLoadStartedBeforeIt() throws Exception {
+        EmployeeRosterCache cache = new EmployeeRosterCache(employeeAPIUtils, Duration.ofMinutes(1), 100, Duration.ofMinutes(10));
+        CompletableFuture<List<Employee>> beforeWrite = new CompletableFuture<>();
+        Employee carol = new Employee("3", "Carol King", "65000", "31", "Engineer", "carolking@reliaquest.com");
+
+        CompletableFuture<RosterSnapshot> first = cache.currentSnapshotAsync(() -> beforeWrite);
+        cache.applyCreated(carol);
+        CompletableFuture<RosterSnapshot> second = cache.currentSnapshotAsync(
+                () -> CompletableFuture.completedFuture(List.of(alice, bob, carol)));
+        beforeWrite.complete(List.of(alice, bob));
+
+        assertEquals(List.of(alice, bob), first.get(5, TimeUnit.SECONDS).getEmployees());
+        assertEquals(List.of(alice, bob, carol), second.get(5, TimeUnit.SECONDS).getEmployees());
+        assertEquals(0, cache.stats().coalescedLoads());
+        // The load that started before the write is not retained either.
+        assertEquals(List.of(alice, bob, carol), cache.getAllEmployees());
+        verify(employeeAPIUtils, never()).getAllEmployees();
+    }
+
+    @Test
+    void currentSnapshotAsync_WhenUpstreamIsRateLimiting_ShouldServeStaleRoster() throws Exception {
+        EmployeeRosterCache cache = new EmployeeRosterCache(employeeAPIUtils, Duration.ZERO, 100, Duration.ofMinutes(10));
+        cache.currentSnapshotAsync(() -> CompletableFuture.completedFuture(List.of(alice, bob))).get(5, TimeUnit.SECONDS);
+
+        RosterSnapshot stale = cache.currentSnapshotAsync(
+                () -> CompletableFuture.failedFuture(new UpstreamRateLimitedException(Duration.ofSeconds(30))))
+                .get(5, TimeUnit.SECONDS);
+
+        assertEquals(List.of(alice, bob), stale.getEmployees());
+        assertEquals(1, cache.stats().staleHits());
+    }
+
+    @Test
+    void getEmployeeByIdAsync_WhenLoaded_ShouldCacheEmployee() throws Exception {
+        EmployeeRosterCache cache = new EmployeeRosterCache(employeeAPIUtils, Duration.ofMinutes(1), 100, Duration.ofMinutes(10));
+
+        assertEquals(alice, cache.getEmployeeByIdAsync("1", id -> CompletableFuture.completedFuture(alice)).get(5, TimeUnit.SECONDS));
+        assertEquals(alice, cache.getEmployeeByIdAsync("1", id -> fail("should be cached")).get(5, TimeUnit.SECONDS));
+
+        assertEquals(1, cache.stats().hits());
+        assertEquals(1, cache.stats().cachedByIdEntries());
+    }
+}
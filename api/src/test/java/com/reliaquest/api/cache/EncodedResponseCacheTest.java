@@ -0,0 +1,175 @@
+package com.reliaquest.api.cache;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class EncodedResponseCacheTest {
+
+    private static final String ENDPOINT = "/api/v1/employee/top-10-highest-earning";
+    private static final String ANSWER = "[\"Bob Smith\",\"Alice Brown\"]";
+
+    @Mock
+    private EmployeeRosterCache employeeRosterCache;
+
+    private final AtomicInteger handled = new AtomicInteger();
+
+    @Test
+    void doFilter_WhenRosterIsUnchanged_ShouldWriteKeptBytesWithoutCallingController() throws Exception {
+        EncodedResponseCache filter = new EncodedResponseCache(employeeRosterCache, true, 1024);
+        when(employeeRosterCache.freshRosterVersion()).thenReturn("a-1");
+
+        MockHttpServletResponse first = perform(filter, get(), "a-1");
+        MockHttpServletResponse second = perform(filter, get(), "a-1");
+
+        assertEquals(1, handled.get());
+        assertEquals(ANSWER, first.getContentAsString());
+        assertEquals(ANSWER, second.getContentAsString());
+        assertEquals("application/json", second.getContentType());
+        assertEquals("W/\"a-1\"", second.getHeader("ETag"));
+        assertEquals(List.of("Accept", "Accept-Encoding"), second.getHeaders("Vary"));
+    }
+
+    @Test
+    void doFilter_WhenGzipIsAccepted_ShouldWriteGzippedBytes() throws Exception {
+        EncodedResponseCache filter = new EncodedResponseCache(employeeRosterCache, true, 1024);
+        when(employeeRosterCache.freshRosterVersion()).thenReturn("a-1");
+        perform(filter, get(), "a-1");
+
+        MockHttpServletRequest request = get();
+        request.addHeader("Accept-Encoding", "gzip, deflate");
+        MockHttpServletResponse response = perform(filter, request, "a-1");
+
+        assertEquals("gzip", response.getHeader("Content-Encoding"));
+        assertEquals("W/\"a-1\"", response.getHeader("ETag"));
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray()))) {
+            assertEquals(ANSWER, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void doFilter_WhenIfNoneMatchHasRosterVersion_ShouldAnswerNotModified() throws Exception {
+        EncodedResponseCache filter = new EncodedResponseCache(employeeRosterCache, true, 1024);
+        when(employeeRosterCache.freshRosterVersion()).thenReturn("a-1");
+        perform(filter, get(), "a-1");
+
+        MockHttpServletRequest request = get();
+        request.addHeader("If-None-Match", "\"a-1\"");
+        MockHttpServletResponse response = perform(filter, request, "a-1");
+
+        assertEquals(304, response.getStatus());
+        assertEquals(0, response.getContentLength());
+        assertEquals(1, handled.get());
+    }
+
+    @Test
+    void doFilter_WhenGzipClientRevalidatesWithTagOfPlainAnswer_ShouldAnswerNotModified() throws Exception {
+        EncodedResponseCache filter = new EncodedResponseCache(employeeRosterCache, true, 1024);
+        when(employeeRosterCache.freshRosterVersion()).thenReturn("a-1");
+        MockHttpServletResponse first = perform(filter, get(), "a-1");
+
+        MockHttpServletRequest request = get();
+        request.addHeader("Accept-Encoding", "gzip");
+        request.addHeader("If-None-Match", first.getHeader("ETag"));
+        MockHttpServletResponse response = perform(filter, request, "a-1");
+
+        assertEquals(304, response.getStatus());
+        assertEquals(1, handled.get());
+    }
+
+    @Test
+    void doFilter_WhenRosterVersionChanges_ShouldCallControllerAgain() throws Exception {
+        EncodedResponseCache filter = new EncodedResponseCache(employeeRosterCache, true, 1024);
+        when(employeeRosterCache.freshRosterVersion()).thenReturn("a-1", "a-1", "a-2");
+
+        perform(filter, get(), "a-1");
+        perform(filter, get(), "a-2");
+
+        assertEquals(2, handled.get());
+    }
+
+    @Test
+    void doFilter_WhenAnswerIsUntagged_ShouldNotKeepIt() throws Exception {
+        EncodedResponseCache filter = new EncodedResponseCache(employeeRosterCache, true, 1024);
+        when(employeeRosterCache.freshRosterVersion()).thenReturn("a-1");
+
+        perform(filter, get(), null);
+        perform(filter, get(), null);
+
+        assertEquals(2, handled.get());
+    }
+
+    @Test
+    void doFilter_WhenAnswerIsTooLarge_ShouldNotKeepIt() throws Exception {
+        EncodedResponseCache filter = new EncodedResponseCache(employeeRosterCache, true, 8);
+        when(employeeRosterCache.freshRosterVersion()).thenReturn("a-1");
+
+        perform(filter, get(), "a-1");
+        MockHttpServletResponse second = perform(filter, get(), "a-1");
+
+        assertEquals(2, handled.get());
+        assertEquals(ANSWER, second.getContentAsString());
+    }
+
+    @Test
+    void doFilter_WhenNdjsonIsAccepted_ShouldLeaveRequestToController() throws Exception {
+        EncodedResponseCache filter = new EncodedResponseCache(employeeRosterCache, true, 1024);
+
+        MockHttpServletRequest request = get();
+        request.addHeader("Accept", "application/x-ndjson");
+        perform(filter, request, "a-1");
+
+        assertEquals(1, handled.get());
+    }
+
+    @Test
+    void acceptsGzip_ShouldHonourZeroQuality() {
+        MockHttpServletRequest request = get();
+        request.addHeader("Accept-Encoding", "br, gzip;q=0");
+
+        assertFalse(EncodedResponseCache.acceptsGzip(request));
+    }
+
+    private static MockHttpServletRequest get() {
+        return new MockHttpServletRequest("GET", ENDPOINT);
+    }
+
+    /**
+     * Runs {@code request} through {@code filter} to a controller answering {@link #ANSWER}, tagged with {@code eTag}
+     * when it is not null.
+     */
+    private MockHttpServletResponse perform(EncodedResponseCache filter, MockHttpServletRequest request, String eTag)
+            throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        HttpServlet controller = new HttpServlet() {
+            @Override
+            protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                handled.incrementAndGet();
+                if(eTag != null)
+                    resp.setHeader("ETag", "W/\"" + eTag + "\"");
+                resp.setContentType("application/json");
+                resp.getOutputStream().write(ANSWER.getBytes(StandardCharsets.UTF_8));
+            }
+        };
+        filter.doFilter(request, response, new MockFilterChain(controller));
+        return response;
+    }
+}
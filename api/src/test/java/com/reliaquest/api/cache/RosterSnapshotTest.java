@@ -0,0 +1,70 @@
+package com.reliaquest.api.cache;
+
+import com.reliaquest.api.entity.Employee;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RosterSnapshotTest {
+
+    private final Employee alice = new Employee("1", "Alice Brown", "55000", "29", "Software Engineer", "alicebrown@reliaquest.com");
+    private final Employee bob = new Employee("2", "Bob Smith", "75000", "52", "Senior Software Engineer", "bobsmith@reliaquest.com");
+    private final Employee malik = new Employee("3", "Malik Alito", "65000", "41", "Architect", "malikalito@reliaquest.com");
+
+    @Test
+    void withAddedAndWithRemoved_ShouldUpdateRosterWithoutTouchingOriginal() {
+        RosterSnapshot original = new RosterSnapshot(List.of(alice, bob), 0);
+
+        RosterSnapshot updated = original.withAdded(malik).withRemoved("1");
+
+        assertEquals(List.of(bob, malik), updated.getEmployees());
+        assertEquals(2, updated.size());
+        assertNull(updated.findById("1"));
+        assertSame(malik, updated.findById("3"));
+        assertEquals(List.of(alice, bob), original.getEmployees());
+        assertSame(alice, original.findById("1"));
+        assertNull(original.findById("3"));
+    }
+
+    @Test
+    void withRemoved_OnOlderSnapshot_ShouldNotSeeChangesMadeAfterIt() {
+        RosterSnapshot original = new RosterSnapshot(List.of(alice, bob), 0);
+        RosterSnapshot newer = original.withRemoved("2").withAdded(malik);
+
+        RosterSnapshot branched = original.withRemoved("1");
+
+        assertEquals(List.of(bob), branched.getEmployees());
+        assertSame(bob, branched.findById("2"));
+        assertNull(branched.findById("3"));
+        assertEquals(List.of(alice, malik), newer.getEmployees());
+    }
+
+    @Test
+    void withAdded_AfterRemovingSameId_ShouldFindNewEmployee() {
+        Employee rehired = new Employee("1", "Alice Brown", "60000", "30", "Staff Engineer", "alicebrown@reliaquest.com");
+
+        RosterSnapshot snapshot = new RosterSnapshot(List.of(alice, bob), 0).withRemoved("1").withAdded(rehired);
+
+        assertSame(rehired, snapshot.findById("1"));
+        assertEquals(List.of(bob, rehired), snapshot.getEmployees());
+    }
+
+    @Test
+    void withAdded_BeyondDeltaThreshold_ShouldCompactAndStayConsistent() {
+        RosterSnapshot snapshot = new RosterSnapshot(List.of(alice), 0);
+        List<Employee> added = new ArrayList<>();
+        for (int i = 0; i < RosterSnapshot.MIN_DELTA_BEFORE_COMPACTION * 2; i++) {
+            Employee employee = new Employee("n" + i, "Nina Number" + i, "1000", "30", "Clerk", "nina" + i + "@reliaquest.com");
+            added.add(employee);
+            snapshot = snapshot.withAdded(employee);
+        }
+        snapshot = snapshot.withRemoved("1");
+
+        assertEquals(added, snapshot.getEmployees());
+        assertSame(added.get(7), snapshot.findById("n7"));
+        assertEquals(added.size(), snapshot.getNameIndex().size());
+    }
+}
@@ -0,0 +1,82 @@
+package com.reliaquest.api.controllers;
+
+import com.reliaquest.api.controller.BulkEmployeeController;
+import com.reliaquest.api.entity.BulkItemResult;
+import com.reliaquest.api.entity.BulkResponse;
+import com.reliaquest.api.entity.CreateEmployee;
+import com.reliaquest.api.entity.Employee;
+import com.reliaquest.api.exceptions.ErrorCode;
+import com.reliaquest.api.services.BulkEmployeeService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(BulkEmployeeController.class)
+@Import(SimpleMeterRegistry.class)
+public class BulkEmployeeControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private BulkEmployeeService bulkEmployeeService;
+
+    private final String bulkUrl = "http://localhost:8112/api/v1/employee/bulk";
+
+    @Test
+    void createEmployees_FromNdjson_ShouldReadOneEmployeePerLine() throws Exception {
+        CreateEmployee alice = new CreateEmployee(null, "Alice Brown", "55000", "29", "Software Engineer", "alicebrown@reliaquest.com");
+        CreateEmployee bob = new CreateEmployee(null, "Bob Smith", "75000", "52", "Senior Software Engineer", "bobsmith@reliaquest.com");
+        Employee created = new Employee("1", "Alice Brown", "55000", "29", "Software Engineer", "alicebrown@reliaquest.com");
+        when(bulkEmployeeService.createEmployees(List.of(alice, bob))).thenReturn(BulkResponse.of(List.of(
+                BulkItemResult.succeeded(0, created), BulkItemResult.failed(1, ErrorCode.API_REQUEST_FAILURE))));
+
+        mockMvc.perform(post(bulkUrl)
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{\"name\":\"Alice Brown\",\"salary\":\"55000\",\"age\":\"29\",\"title\":\"Software Engineer\",\"email\":\"alicebrown@reliaquest.com\"}\n"
+                                + "{\"name\":\"Bob Smith\",\"salary\":\"75000\",\"age\":\"52\",\"title\":\"Senior Software Engineer\",\"email\":\"bobsmith@reliaquest.com\"}\n"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("{\"succeeded\":1,\"failed\":1,\"results\":["
+                        + "{\"index\":0,\"success\":true,\"data\":{\"id\":\"1\",\"employee_name\":\"Alice Brown\"}},"
+                        + "{\"index\":1,\"success\":false,\"error\":\"ERR-101\"}]}"));
+    }
+
+    @Test
+    void deleteEmployees_FromJsonArray_ShouldReturnResultPerId() throws Exception {
+        when(bulkEmployeeService.deleteEmployees(List.of("1", "2"))).thenReturn(BulkResponse.of(List.of(
+                BulkItemResult.succeeded(0, "Alice Brown"), BulkItemResult.failed(1, ErrorCode.NO_RECORDS_FOUND))));
+
+        mockMvc.perform(delete(bulkUrl)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[\"1\",\"2\"]"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("{\"succeeded\":1,\"failed\":1,\"results\":["
+                        + "{\"index\":0,\"success\":true,\"data\":\"Alice Brown\"},"
+                        + "{\"index\":1,\"success\":false,\"error\":\"ERR-201\",\"message\":\"Employee data not found\"}]}"));
+    }
+
+    @Test
+    void deleteEmployees_FromMalformedNdjson_ShouldFailWholeRequest() throws Exception {
+        mockMvc.perform(delete(bulkUrl)
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("\"1\"\n{not json\n"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().json("{\"error\":\"ERR-102\"}"));
+
+        verifyNoInteractions(bulkEmployeeService);
+    }
+}
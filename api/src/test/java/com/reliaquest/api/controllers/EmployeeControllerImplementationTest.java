@@ -8,7 +8,10 @@ import com.reliaquest.api.exceptions.EmployeeException;
 import com.reliaquest.api.exceptions.ErrorCode;
 import com.reliaquest.api.exceptions.InternalException;
 import com.reliaquest.api.exceptions.ValidationException;
+import com.reliaquest.api.index.NameMatch;
+import com.reliaquest.api.index.SalaryOrder;
 import com.reliaquest.api.services.EmployeeService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -16,21 +19,26 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.Consumer;
 
 
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyMap;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @ExtendWith(MockitoExtension.class)
 @WebMvcTest(EmployeeControllerImplementation.class)
+@Import(SimpleMeterRegistry.class)
 public class EmployeeControllerImplementationTest {
 
     @Autowired
@@ -68,6 +76,55 @@ public class EmployeeControllerImplementationTest {
                 .andExpect(content().json(objectMapper.writeValueAsString(employees)));
     }
 
+    @Test
+    void getAllEmployees_WhenRosterIsCached_ShouldTagResponseWithRosterVersion() throws Exception {
+        when(employeeService.getRosterVersion()).thenReturn("3f-7");
+        when(employeeService.getAllEmployees()).thenReturn(employees);
+
+        mockMvc.perform(get(baseUrl)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "W/\"3f-7\""))
+                .andExpect(header().string("Vary", "Accept"))
+                .andExpect(content().json(objectMapper.writeValueAsString(employees)));
+    }
+
+    @Test
+    void getHighestSalaryOfEmployees_WhenRosterIsUnchanged_ShouldAnswerNotModified() throws Exception {
+        when(employeeService.getRosterVersion()).thenReturn("3f-7");
+        when(employeeService.getHighestSalaryOfEmployees()).thenReturn(75000);
+
+        mockMvc.perform(get(baseUrl + "/highest-salary")
+                        .header("If-None-Match", "\"3f-7\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void streamAllEmployees_WhenNdjsonIsAccepted_ShouldWriteOneEmployeePerLine() throws Exception {
+        when(employeeService.streamAllEmployees(any())).thenAnswer(invocation -> {
+            employees.forEach(invocation.<Consumer<Employee>>getArgument(0));
+            return employees.size();
+        });
+
+        mockMvc.perform(get(baseUrl)
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(objectMapper.writeValueAsString(employees.get(0)) + "\n"
+                        + objectMapper.writeValueAsString(employees.get(1)) + "\n"));
+    }
+
+    @Test
+    void streamAllEmployees_WhenRosterIsEmpty_ShouldAnswerLikeJsonEndpoint() throws Exception {
+        when(employeeService.streamAllEmployees(any())).thenThrow(new EmployeeException(ErrorCode.NO_RECORDS_FOUND));
+
+        mockMvc.perform(get(baseUrl)
+                        .accept(MediaType.APPLICATION_NDJSON, MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().json("{\"error\":\"ERR-201\",\"message\":\"Employee data not found\"}"));
+    }
+
     @Test
     void getAllEmployees_RestClientError() throws Exception {
         when(employeeService.getAllEmployees()).thenThrow(new InternalException(ErrorCode.API_REQUEST_FAILURE));
@@ -128,6 +185,21 @@ public class EmployeeControllerImplementationTest {
                 .andExpect(content().json(objectMapper.writeValueAsString(employees)));
     }
 
+    @Test
+    void searchEmployeesByName_PrefixIgnoringCase_Success() throws Exception {
+        when(employeeService.searchEmployeesByName("ali", NameMatch.PREFIX, true, 0, 5)).thenReturn(List.of(employee));
+
+        String searchEmployeesUrl = baseUrl + "/search";
+        mockMvc.perform(get(searchEmployeesUrl)
+                        .param("name", "ali")
+                        .param("mode", "prefix")
+                        .param("ignoreCase", "true")
+                        .param("limit", "5")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().json(objectMapper.writeValueAsString(List.of(employee))));
+    }
+
     @Test
     void getHighestSalaryOfEmployees() throws Exception {
         Integer highestSalaryOfEmployees = 70000;
@@ -163,6 +235,30 @@ public class EmployeeControllerImplementationTest {
                 .andExpect(content().json(objectMapper.writeValueAsString(expectedTop10HighestEarningEmployeeNames)));
     }
 
+    @Test
+    void getEmployeeNamesRankedBySalary_Success() throws Exception {
+        List<String> expectedRankedEmployeeNames = List.of("Alice Brown", "Bob Smith");
+        when(employeeService.getEmployeeNamesRankedBySalary(2, SalaryOrder.ASC)).thenReturn(expectedRankedEmployeeNames);
+
+        String getRankedEmployeesUrl = baseUrl + "/salary-ranking";
+        mockMvc.perform(get(getRankedEmployeesUrl)
+                        .param("limit", "2")
+                        .param("order", "asc")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().json(objectMapper.writeValueAsString(expectedRankedEmployeeNames)));
+    }
+
+    @Test
+    void getEmployeeNamesRankedBySalary_InvalidOrder() throws Exception {
+        String getRankedEmployeesUrl = baseUrl + "/salary-ranking";
+        mockMvc.perform(get(getRankedEmployeesUrl)
+                        .param("order", "sideways")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().json("{\"error\":\"ERR-309\",\"message\":\"Sort order must be either asc or desc\"}"));
+    }
+
     @Test
     void getEmployeeById_Success() throws Exception {
         when(employeeService.getEmployeeById("1")).thenReturn(employee);
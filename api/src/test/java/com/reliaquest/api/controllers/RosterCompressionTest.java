@@ -0,0 +1,64 @@
+package com.reliaquest.api.controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reliaquest.api.entity.Employee;
+import com.reliaquest.api.services.EmployeeService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+/**
+ * Goes through Tomcat, which compresses responses itself and only those without a strong ETag, so a roster tagged
+ * with its version has to arrive gzipped here rather than in a MockMvc test.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class RosterCompressionTest {
+
+    @LocalServerPort
+    private int port;
+
+    @MockBean
+    private EmployeeService employeeService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void getAllEmployees_WhenGzipIsAccepted_ShouldArriveGzippedWithRosterVersion() throws Exception {
+        // Well above Tomcat's 2 KB compression threshold.
+        List<Employee> employees = IntStream.range(0, 200)
+                .mapToObj(i -> new Employee(String.valueOf(i), "Employee " + i, "50000", "30", "Software Engineer", "employee" + i + "@reliaquest.com"))
+                .toList();
+        when(employeeService.getRosterVersion()).thenReturn("3f-7");
+        when(employeeService.getAllEmployees()).thenReturn(employees);
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/v1/employee"))
+                .header("Accept", "application/json")
+                .header("Accept-Encoding", "gzip")
+                .build();
+        HttpResponse<byte[]> response = HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofByteArray());
+
+        assertEquals(200, response.statusCode());
+        assertEquals("gzip", response.headers().firstValue("Content-Encoding").orElse(null));
+        assertEquals("W/\"3f-7\"", response.headers().firstValue("ETag").orElse(null));
+        assertTrue(List.of(String.join(",", response.headers().allValues("Vary")).split(" *, *")).contains("Accept"));
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(response.body()))) {
+            assertEquals(objectMapper.readTree(objectMapper.writeValueAsBytes(employees)), objectMapper.readTree(in.readAllBytes()));
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.reliaquest.api.entity;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompactEmployeeTest {
+
+    @Test
+    void from_WithUuidId_ShouldStoreIdAsBitsAndRoundTrip() {
+        Employee employee = new Employee("4a3a170b-22cd-4ac2-aad1-9bb5b34a1507", "Alice Brown", "55000", "29", "Software Engineer", "alicebrown@reliaquest.com");
+
+        CompactEmployee compactEmployee = CompactEmployee.from(employee);
+
+        assertNull(compactEmployee.rawId());
+        assertEquals(55000, compactEmployee.salary());
+        assertEquals(29, compactEmployee.age());
+        assertEquals(employee, compactEmployee.toEmployee());
+    }
+
+    @Test
+    void from_WithNonUuidId_ShouldKeepRawId() {
+        Employee employee = new Employee("1", "Bob Smith", "75000", "52", "Senior Software Engineer", "bobsmith@reliaquest.com");
+
+        CompactEmployee compactEmployee = CompactEmployee.from(employee);
+
+        assertEquals("1", compactEmployee.id());
+        assertEquals(employee, compactEmployee.toEmployee());
+    }
+
+    @Test
+    void from_WithUnparseableNumbers_ShouldMarkThemMissing() {
+        Employee employee = new Employee("2", "Nina Gray", "n/a", null, "Designer", "nina.gray@reliaquest.com");
+
+        CompactEmployee compactEmployee = CompactEmployee.from(employee);
+
+        assertFalse(compactEmployee.hasSalary());
+        assertFalse(compactEmployee.hasAge());
+        assertNull(compactEmployee.toEmployee().getSalary());
+    }
+}
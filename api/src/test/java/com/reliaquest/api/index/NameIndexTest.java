@@ -0,0 +1,91 @@
+package com.reliaquest.api.index;
+
+import com.reliaquest.api.entity.Employee;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NameIndexTest {
+
+    private final Employee alice = new Employee("1", "Alice Brown", "55000", "29", "Software Engineer", "alicebrown@reliaquest.com");
+    private final Employee bob = new Employee("2", "Bob Smith", "75000", "52", "Senior Software Engineer", "bobsmith@reliaquest.com");
+    private final Employee aliceDoe = new Employee("3", "alice Doe", "60000", "35", "Data Engineer", "alicedoe@reliaquest.com");
+    private final Employee malik = new Employee("4", "Malik Alito", "65000", "41", "Architect", "malikalito@reliaquest.com");
+
+    @Test
+    void search_Contains_ShouldBeCaseSensitiveAndKeepRosterOrder() {
+        NameIndex nameIndex = NameIndex.of(List.of(alice, bob, aliceDoe, malik));
+
+        assertEquals(List.of(alice, malik), nameIndex.search("Ali", NameMatch.CONTAINS, false, 0, 10));
+        assertEquals(List.of(alice, aliceDoe, malik), nameIndex.search("ali", NameMatch.CONTAINS, true, 0, 10));
+    }
+
+    @Test
+    void search_Prefix_ShouldMatchStartOfNameInNameOrder() {
+        NameIndex nameIndex = NameIndex.of(List.of(malik, bob, aliceDoe, alice));
+
+        assertEquals(List.of(alice), nameIndex.search("Ali", NameMatch.PREFIX, false, 0, 10));
+        assertEquals(List.of(alice, aliceDoe), nameIndex.search("ALI", NameMatch.PREFIX, true, 0, 10));
+    }
+
+    @Test
+    void search_ShortAndEmptyQueries_ShouldFallBackToScan() {
+        NameIndex nameIndex = NameIndex.of(List.of(alice, bob, aliceDoe));
+
+        assertEquals(List.of(bob), nameIndex.search("S", NameMatch.CONTAINS, false, 0, 10));
+        assertEquals(List.of(alice, bob, aliceDoe), nameIndex.search("", NameMatch.CONTAINS, false, 0, 10));
+    }
+
+    @Test
+    void search_WithOffsetAndLimit_ShouldReturnRequestedPage() {
+        NameIndex nameIndex = NameIndex.of(List.of(alice, bob, aliceDoe, malik));
+
+        assertEquals(List.of(aliceDoe), nameIndex.search("ali", NameMatch.CONTAINS, true, 1, 1));
+        assertEquals(List.of(malik), nameIndex.search("ali", NameMatch.CONTAINS, true, 2, 5));
+        assertTrue(nameIndex.search("ali", NameMatch.CONTAINS, true, 3, 5).isEmpty());
+    }
+
+    @Test
+    void withAddedAndWithRemoved_ShouldUpdateResultsWithoutTouchingOriginal() {
+        NameIndex original = NameIndex.of(List.of(alice, bob));
+
+        NameIndex updated = original.withAdded(malik).withRemoved(alice);
+
+        assertEquals(List.of(malik), updated.search("Ali", NameMatch.CONTAINS, false, 0, 10));
+        assertEquals(List.of(malik), updated.search("Mal", NameMatch.PREFIX, false, 0, 10));
+        assertEquals(List.of(alice), original.search("Ali", NameMatch.CONTAINS, false, 0, 10));
+        assertEquals(2, updated.size());
+    }
+
+    @Test
+    void withAdded_BeyondDeltaThreshold_ShouldRebuildAndStayConsistent() {
+        NameIndex nameIndex = NameIndex.of(List.of(alice));
+        List<Employee> added = new ArrayList<>();
+        for (int i = 0; i < NameIndex.MIN_DELTA_BEFORE_REBUILD * 2; i++) {
+            Employee employee = new Employee("n" + i, "Nina Number" + i, "1000", "30", "Clerk", "nina" + i + "@reliaquest.com");
+            added.add(employee);
+            nameIndex = nameIndex.withAdded(employee);
+        }
+        nameIndex = nameIndex.withRemoved(added.get(0));
+
+        assertEquals(added.size(), nameIndex.size());
+        assertEquals(List.of(added.get(1)), nameIndex.search("Number1", NameMatch.CONTAINS, false, 0, 1));
+        assertEquals(List.of(alice), nameIndex.search("brown", NameMatch.CONTAINS, true, 0, 10));
+    }
+
+    @Test
+    void withAdded_OnOlderIndex_ShouldNotSeeUpdatesMadeAfterIt() {
+        NameIndex original = NameIndex.of(List.of(alice, bob));
+        NameIndex newer = original.withAdded(malik).withRemoved(bob);
+
+        NameIndex branched = original.withAdded(aliceDoe);
+
+        assertEquals(List.of(alice, aliceDoe), branched.search("ali", NameMatch.PREFIX, true, 0, 10));
+        assertEquals(List.of(bob), branched.search("Bob", NameMatch.CONTAINS, false, 0, 10));
+        assertEquals(List.of(alice, malik), newer.search("ali", NameMatch.CONTAINS, true, 0, 10));
+        assertTrue(newer.search("Bob", NameMatch.CONTAINS, false, 0, 10).isEmpty());
+    }
+}
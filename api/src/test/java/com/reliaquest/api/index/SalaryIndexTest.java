@@ -0,0 +1,75 @@
+package com.reliaquest.api.index;
+
+import com.reliaquest.api.entity.CompactEmployee;
+import com.reliaquest.api.entity.Employee;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SalaryIndexTest {
+
+    private final Employee alice = new Employee("1", "Alice Brown", "60000", "34", "Software Engineer", "alice.brown@reliaquest.com");
+    private final Employee bob = new Employee("2", "Bob Smith", "55000", "36", "Senior Developer", "bob.smith@reliaquest.com");
+    private final Employee jacob = new Employee("3", "Jacob Purple", "60000", "30", "Team Lead", "jacob.purple@reliaquest.com");
+    private final Employee eva = new Employee("4", "Eva White", "50000", "26", "Software Engineer", "eva.white@reliaquest.com");
+    private final Employee karen = new Employee("5", "Karen Silver", "50000", "34", "Backend Developer", "karen.silver@reliaquest.com");
+
+    @Test
+    void highestAndLowestSalary_ShouldComeFromIndexEnds() {
+        SalaryIndex salaryIndex = SalaryIndex.of(compact(bob, alice, eva));
+
+        assertEquals(60000, salaryIndex.highestSalary());
+        assertEquals(50000, salaryIndex.lowestSalary());
+    }
+
+    @Test
+    void top_Descending_ShouldKeepRosterOrderForEqualSalaries() {
+        SalaryIndex salaryIndex = SalaryIndex.of(compact(alice, bob, jacob, eva, karen));
+
+        assertEquals(List.of(alice, jacob, bob), employees(salaryIndex.top(3, SalaryOrder.DESC)));
+    }
+
+    @Test
+    void top_Ascending_ShouldKeepRosterOrderForEqualSalaries() {
+        SalaryIndex salaryIndex = SalaryIndex.of(compact(alice, bob, jacob, eva, karen));
+
+        assertEquals(List.of(eva, karen, bob, alice), employees(salaryIndex.top(4, SalaryOrder.ASC)));
+    }
+
+    @Test
+    void top_WhenLimitExceedsRoster_ShouldReturnEveryone() {
+        SalaryIndex salaryIndex = SalaryIndex.of(compact(alice, bob));
+
+        assertEquals(List.of(alice, bob), employees(salaryIndex.top(50, SalaryOrder.DESC)));
+        assertTrue(salaryIndex.top(0, SalaryOrder.ASC).isEmpty());
+    }
+
+    @Test
+    void of_WhenSalaryIsNotANumber_ShouldLeaveEmployeeOut() {
+        Employee unknownSalary = new Employee("6", "Nina Gray", "n/a", "30", "Designer", "nina.gray@reliaquest.com");
+
+        SalaryIndex salaryIndex = SalaryIndex.of(compact(unknownSalary, bob));
+
+        assertEquals(1, salaryIndex.size());
+        assertEquals(55000, salaryIndex.highestSalary());
+    }
+
+    @Test
+    void of_WhenRosterIsEmpty_ShouldReportZero() {
+        SalaryIndex salaryIndex = SalaryIndex.of(List.of());
+
+        assertEquals(0, salaryIndex.highestSalary());
+        assertTrue(salaryIndex.top(10, SalaryOrder.DESC).isEmpty());
+    }
+
+    private static List<CompactEmployee> compact(Employee... employees) {
+        return Arrays.stream(employees).map(CompactEmployee::from).toList();
+    }
+
+    private static List<Employee> employees(List<CompactEmployee> compactEmployees) {
+        return compactEmployees.stream().map(CompactEmployee::toEmployee).toList();
+    }
+}
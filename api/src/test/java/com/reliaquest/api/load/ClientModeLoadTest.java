@@ -0,0 +1,128 @@
+package com.reliaquest.api.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares the blocking and async client modes of the api under {@code loadtest.concurrency} simultaneous requests,
+ * reporting p99 latency and the api's live thread count while the requests are in flight.
+ *
+ * <p>Needs the server module and two api instances running locally, one per mode:
+ * <pre>
+ * ./gradlew server:bootRun
+ * ./gradlew api:bootRun
+ * ./gradlew api:bootRun --args='--server.port=8113 --employee.client.mode=async'
+ * ./gradlew api:loadTest --tests '*ClientModeLoadTest' -Dloadtest.concurrency=5000
+ * </pre>
+ *
+ * <p>Every request asks for a random id, so none is answered from the cache and each one waits on the upstream API (or
+ * on the upstream rate limit). Error responses count as completed: what is measured is how many threads the api needs
+ * to keep that many upstream waits open, not the mock data.
+ */
+@Tag("load")
+class ClientModeLoadTest {
+
+    private static final String BLOCKING_URL = System.getProperty("loadtest.blockingUrl", "http://localhost:8111");
+    private static final String ASYNC_URL = System.getProperty("loadtest.asyncUrl", "http://localhost:8113");
+    private static final int CONCURRENCY = Integer.getInteger("loadtest.concurrency", 5000);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    @Test
+    void asyncMode_ShouldServeConcurrentRequestsWithFewerThreads() throws Exception {
+        Result blocking = run("blocking (RestTemplate)", BLOCKING_URL);
+        Result async = run("async (HttpClient.sendAsync)", ASYNC_URL);
+
+        assertTrue(blocking.completed() > 0 && async.completed() > 0, "no request reached the api");
+        System.out.printf("peak live threads change: %+d, p99 change: %+.1f%%%n",
+                async.peakThreads() - blocking.peakThreads(), (async.p99Millis() / blocking.p99Millis() - 1) * 100);
+    }
+
+    private Result run(String label, String baseUrl) throws Exception {
+        AtomicLong peakThreads = new AtomicLong(liveThreads(baseUrl));
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+        sampler.scheduleAtFixedRate(() -> peakThreads.accumulateAndGet(liveThreads(baseUrl), Math::max),
+                100, 100, TimeUnit.MILLISECONDS);
+
+        AtomicLongArray latencies = new AtomicLongArray(CONCURRENCY);
+        AtomicLong failed = new AtomicLong();
+        List<CompletableFuture<?>> requests = new ArrayList<>(CONCURRENCY);
+        long start = System.nanoTime();
+        try {
+            for (int i = 0; i < CONCURRENCY; i++) {
+                int request = i;
+                long requestStart = System.nanoTime();
+                HttpRequest httpRequest = HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/employee/" + UUID.randomUUID()))
+                        .timeout(Duration.ofSeconds(60))
+                        .GET()
+                        .build();
+                requests.add(httpClient.sendAsync(httpRequest, HttpResponse.BodyHandlers.discarding())
+                        .whenComplete((response, failure) -> {
+                            latencies.set(request, System.nanoTime() - requestStart);
+                            if (failure != null) {
+                                failed.incrementAndGet();
+                            }
+                        }));
+            }
+            CompletableFuture.allOf(requests.toArray(CompletableFuture[]::new))
+                    .exceptionally(failure -> null)
+                    .get(5, TimeUnit.MINUTES);
+        } finally {
+            sampler.shutdownNow();
+        }
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+
+        long[] sorted = new long[CONCURRENCY];
+        for (int i = 0; i < CONCURRENCY; i++) {
+            sorted[i] = latencies.get(i);
+        }
+        Arrays.sort(sorted);
+        long completed = CONCURRENCY - failed.get();
+        Result result = new Result(completed, failed.get(), completed / elapsedSeconds,
+                sorted[(int) (sorted.length * 0.99) - 1] / 1e6, peakThreads.get());
+        System.out.printf("%-32s completed=%d failed=%d throughput=%.0f req/s p99=%.1f ms peak live threads=%d%n",
+                label, result.completed(), result.failed(), result.throughput(), result.p99Millis(), result.peakThreads());
+        return result;
+    }
+
+    private long liveThreads(String baseUrl) {
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/actuator/metrics/jvm.threads.live"))
+                    .timeout(Duration.ofSeconds(5))
+                    .build();
+            JsonNode metric = objectMapper.readTree(httpClient.send(request, HttpResponse.BodyHandlers.ofString()).body());
+            return metric.path("measurements").path(0).path("value").asLong();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 0;
+        } catch (Exception e) {
+            return 0;
+        }
+    }
+
+    private record Result(long completed, long failed, double throughput, double p99Millis, long peakThreads) {}
+}
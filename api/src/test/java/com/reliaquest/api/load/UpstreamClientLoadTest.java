@@ -0,0 +1,101 @@
+package com.reliaquest.api.load;
+
+import com.reliaquest.api.configurations.AppConfig;
+import com.reliaquest.api.configurations.HttpClientProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares upstream throughput of the bare {@code new RestTemplate()} the api used to build against the pooled client
+ * from {@link AppConfig}. Needs the server module running locally and is excluded from {@code test}; run it with
+ * {@code ./gradlew api:loadTest -Dloadtest.threads=32 -Dloadtest.requests=200}.
+ *
+ * <p>Responses rejected by the server's rate limiter still complete a full HTTP round trip, so they count towards
+ * throughput: the point is to measure the transport, not the mock data.
+ */
+@Tag("load")
+class UpstreamClientLoadTest {
+
+    private static final String URL = System.getProperty("loadtest.url", "http://localhost:8112/api/v1/employee");
+    private static final int THREADS = Integer.getInteger("loadtest.threads", 32);
+    private static final int REQUESTS_PER_THREAD = Integer.getInteger("loadtest.requests", 200);
+
+    @Test
+    void pooledClient_ShouldOutperformUnpooledClient() throws Exception {
+        Result unpooled = run("unpooled SimpleClientHttpRequestFactory", new RestTemplate());
+
+        AppConfig appConfig = new AppConfig();
+        HttpClientProperties properties = new HttpClientProperties(
+                "apache", THREADS * 2, THREADS, Duration.ofSeconds(2), Duration.ofSeconds(5),
+                Duration.ofSeconds(1), Duration.ofSeconds(30), Duration.ofMinutes(5));
+        PoolingHttpClientConnectionManager connectionManager = appConfig.upstreamConnectionManager(properties);
+        try (CloseableHttpClient httpClient = appConfig.upstreamHttpClient(connectionManager, properties)) {
+            RestTemplate pooledRestTemplate = appConfig.restTemplate(
+                    new RestTemplateBuilder(), appConfig.apacheClientHttpRequestFactory(httpClient), new SimpleMeterRegistry());
+            Result pooled = run("pooled HttpComponentsClientHttpRequestFactory", pooledRestTemplate);
+
+            assertTrue(pooled.completed() > 0 && unpooled.completed() > 0, "no request reached " + URL);
+            System.out.printf("throughput change: %+.1f%%%n", (pooled.throughput() / unpooled.throughput() - 1) * 100);
+        }
+    }
+
+    private Result run(String label, RestTemplate restTemplate) throws Exception {
+        AtomicLong completed = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+        long[][] latencies = new long[THREADS][REQUESTS_PER_THREAD];
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        long start = System.nanoTime();
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                long[] threadLatencies = latencies[t];
+                workers.add(executor.submit(() -> {
+                    for (int i = 0; i < REQUESTS_PER_THREAD; i++) {
+                        long requestStart = System.nanoTime();
+                        try {
+                            restTemplate.getForObject(URL, String.class);
+                            completed.incrementAndGet();
+                        } catch (HttpStatusCodeException e) {
+                            completed.incrementAndGet();
+                        } catch (RuntimeException e) {
+                            failed.incrementAndGet();
+                        }
+                        threadLatencies[i] = System.nanoTime() - requestStart;
+                    }
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+
+        long[] allLatencies = Arrays.stream(latencies).flatMapToLong(Arrays::stream).sorted().toArray();
+        Result result = new Result(completed.get(), failed.get(), completed.get() / elapsedSeconds,
+                allLatencies[(int) (allLatencies.length * 0.99) - 1] / 1e6);
+        System.out.printf("%-48s completed=%d failed=%d throughput=%.0f req/s p99=%.1f ms%n",
+                label, result.completed(), result.failed(), result.throughput(), result.p99Millis());
+        return result;
+    }
+
+    private record Result(long completed, long failed, double throughput, double p99Millis) {}
+}
@@ -0,0 +1,130 @@
+package com.reliaquest.api.ratelimit;
+
+import com.reliaquest.api.configurations.RateLimitProperties;
+import com.reliaquest.api.exceptions.UpstreamRateLimitedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UpstreamRateLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong(Duration.ofSeconds(1).toNanos());
+    private UpstreamRateLimiter rateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        // No waiting and a single attempt, so every decision of the limiter is visible to the caller.
+        RateLimitProperties properties = new RateLimitProperties(
+                true, 1, 1, Duration.ofSeconds(1), Duration.ofSeconds(8), Duration.ZERO, Duration.ZERO);
+        rateLimiter = new UpstreamRateLimiter(properties, new SimpleMeterRegistry(), clock::get);
+    }
+
+    @Test
+    void execute_WhenUpstreamThrottles_ShouldLearnBudgetAndHoldBackCalls() {
+        for (int i = 0; i < 3; i++) {
+            assertEquals("ok", rateLimiter.execute(RequestPriority.READ, () -> "ok"));
+        }
+
+        assertThrows(UpstreamRateLimitedException.class, () -> rateLimiter.execute(RequestPriority.READ, this::throttle));
+        assertEquals(3, rateLimiter.learnedBudget());
+
+        // Still inside the backoff: the call is rejected without reaching the upstream.
+        assertThrows(UpstreamRateLimitedException.class,
+                () -> rateLimiter.execute(RequestPriority.WRITE, () -> fail("should not be called")));
+    }
+
+    @Test
+    void execute_OnceCooldownIsKnown_ShouldKeepReservedRequestsForWrites() {
+        for (int i = 0; i < 3; i++) {
+            rateLimiter.execute(RequestPriority.READ, () -> "ok");
+        }
+        assertThrows(UpstreamRateLimitedException.class, () -> rateLimiter.execute(RequestPriority.READ, this::throttle));
+        clock.addAndGet(Duration.ofSeconds(2).toNanos());
+        rateLimiter.execute(RequestPriority.READ, () -> "ok");
+
+        rateLimiter.execute(RequestPriority.READ, () -> "ok");
+        assertThrows(UpstreamRateLimitedException.class,
+                () -> rateLimiter.execute(RequestPriority.READ, () -> fail("should not be called")));
+        assertEquals("created", rateLimiter.execute(RequestPriority.WRITE, () -> "created"));
+        assertThrows(UpstreamRateLimitedException.class,
+                () -> rateLimiter.execute(RequestPriority.WRITE, () -> fail("should not be called")));
+
+        clock.addAndGet(Duration.ofSeconds(2).toNanos());
+        assertEquals("ok", rateLimiter.execute(RequestPriority.READ, () -> "ok"));
+    }
+
+    @Test
+    void execute_WhenDisabled_ShouldPassThrottlingStraightThrough() {
+        RateLimitProperties properties = new RateLimitProperties(
+                false, 1, 3, Duration.ofSeconds(1), Duration.ofSeconds(8), Duration.ZERO, Duration.ZERO);
+        UpstreamRateLimiter disabled = new UpstreamRateLimiter(properties, new SimpleMeterRegistry(), clock::get);
+
+        assertThrows(HttpClientErrorException.TooManyRequests.class, () -> disabled.execute(RequestPriority.READ, this::throttle));
+    }
+
+    @Test
+    void executeAsync_WhenUpstreamThrottles_ShouldFailFutureAndHoldBackCalls() {
+        for (int i = 0; i < 3; i++) {
+            assertEquals("ok", rateLimiter.executeAsync(RequestPriority.READ, () -> CompletableFuture.completedFuture("ok")).join());
+        }
+
+        CompletableFuture<String> throttled = rateLimiter.executeAsync(RequestPriority.READ, this::throttleAsync);
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> throttled.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(UpstreamRateLimitedException.class, exception.getCause());
+        assertEquals(3, rateLimiter.learnedBudget());
+
+        CompletableFuture<String> heldBack = rateLimiter.executeAsync(RequestPriority.WRITE, () -> fail("should not be called"));
+        exception = assertThrows(ExecutionException.class, () -> heldBack.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(UpstreamRateLimitedException.class, exception.getCause());
+    }
+
+    @Test
+    void executeAsync_WhenThrottledWithCallsInFlight_ShouldLearnBudgetFromAcceptedCallsOnly() {
+        for (int i = 0; i < 2; i++) {
+            rateLimiter.execute(RequestPriority.READ, () -> "ok");
+        }
+        CompletableFuture<String> inFlight = new CompletableFuture<>();
+        CompletableFuture<String> pending = rateLimiter.executeAsync(RequestPriority.READ, () -> inFlight);
+
+        CompletableFuture<String> throttled = rateLimiter.executeAsync(RequestPriority.READ, this::throttleAsync);
+        assertThrows(ExecutionException.class, () -> throttled.get(5, TimeUnit.SECONDS));
+        assertEquals(2, rateLimiter.learnedBudget());
+
+        inFlight.complete("ok");
+        assertEquals("ok", pending.join());
+    }
+
+    @Test
+    void executeAsync_WhenThrottledOnce_ShouldRetryAfterBackoff() throws Exception {
+        RateLimitProperties properties = new RateLimitProperties(
+                true, 1, 3, Duration.ofMillis(1), Duration.ofMillis(5), Duration.ofSeconds(1), Duration.ofSeconds(1));
+        UpstreamRateLimiter retrying = new UpstreamRateLimiter(properties, new SimpleMeterRegistry());
+        AtomicInteger calls = new AtomicInteger();
+
+        CompletableFuture<String> result = retrying.executeAsync(RequestPriority.READ,
+                () -> calls.incrementAndGet() == 1 ? throttleAsync() : CompletableFuture.completedFuture("ok"));
+
+        assertEquals("ok", result.get(5, TimeUnit.SECONDS));
+        assertEquals(2, calls.get());
+    }
+
+    private CompletableFuture<String> throttleAsync() {
+        return CompletableFuture.supplyAsync(this::throttle);
+    }
+
+    private String throttle() {
+        throw HttpClientErrorException.create(HttpStatus.TOO_MANY_REQUESTS, "Too Many Requests", HttpHeaders.EMPTY, null, null);
+    }
+}
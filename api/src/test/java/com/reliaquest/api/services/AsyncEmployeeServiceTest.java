@@ -0,0 +1,115 @@
+package com.reliaquest.api.services;
+
+import com.reliaquest.api.cache.EmployeeRosterCache;
+import com.reliaquest.api.entity.Employee;
+import com.reliaquest.api.exceptions.EmployeeException;
+import com.reliaquest.api.exceptions.ErrorCode;
+import com.reliaquest.api.exceptions.UpstreamRateLimitedException;
+import com.reliaquest.api.exceptions.ValidationException;
+import com.reliaquest.api.index.NameMatch;
+import com.reliaquest.api.utils.AsyncEmployeeAPIUtils;
+import com.reliaquest.api.utils.EmployeeAPIUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AsyncEmployeeServiceTest {
+
+    @Mock
+    private AsyncEmployeeAPIUtils asyncEmployeeAPIUtils;
+
+    @Mock
+    private EmployeeAPIUtils employeeAPIUtils;
+
+    private EmployeeRosterCache employeeRosterCache;
+    private AsyncEmployeeService asyncEmployeeService;
+
+    private final Employee alice = new Employee("1", "Alice Brown", "55000", "29", "Software Engineer", "alicebrown@reliaquest.com");
+    private final Employee bob = new Employee("2", "Bob Smith", "75000", "52", "Senior Software Engineer", "bobsmith@reliaquest.com");
+
+    @BeforeEach
+    void setUp() {
+        employeeRosterCache = new EmployeeRosterCache(employeeAPIUtils, Duration.ofMinutes(1), 100, Duration.ofMinutes(10));
+        asyncEmployeeService = new AsyncEmployeeService(asyncEmployeeAPIUtils, employeeRosterCache,
+                new EmployeeService(employeeAPIUtils, employeeRosterCache));
+    }
+
+    @Test
+    void getHighestSalaryOfEmployees_ShouldLoadRosterThroughAsyncClient() throws Exception {
+        when(asyncEmployeeAPIUtils.getAllEmployees()).thenReturn(CompletableFuture.completedFuture(List.of(alice, bob)));
+
+        assertEquals(75000, asyncEmployeeService.getHighestSalaryOfEmployees().get(5, TimeUnit.SECONDS));
+        assertEquals(List.of("Bob Smith", "Alice Brown"),
+                asyncEmployeeService.getTopTenHighestEarningEmployeeNames().get(5, TimeUnit.SECONDS));
+
+        verify(asyncEmployeeAPIUtils, times(1)).getAllEmployees();
+        verify(employeeAPIUtils, never()).getAllEmployees();
+    }
+
+    @Test
+    void getAllEmployees_WhenRosterIsEmpty_ShouldFailWithNoRecordsFound() {
+        when(asyncEmployeeAPIUtils.getAllEmployees()).thenReturn(CompletableFuture.completedFuture(List.of()));
+
+        ExecutionException exception = assertThrows(ExecutionException.class,
+                () -> asyncEmployeeService.getAllEmployees().get(5, TimeUnit.SECONDS));
+
+        EmployeeException cause = assertInstanceOf(EmployeeException.class, exception.getCause());
+        assertEquals(ErrorCode.NO_RECORDS_FOUND, cause.getError());
+    }
+
+    @Test
+    void searchEmployeesByName_WhenOffsetIsNegative_ShouldThrowBeforeLoading() {
+        assertThrows(ValidationException.class,
+                () -> asyncEmployeeService.searchEmployeesByName("Alice", NameMatch.CONTAINS, false, -1, 10));
+
+        verifyNoInteractions(asyncEmployeeAPIUtils);
+    }
+
+    @Test
+    void deleteEmployee_ShouldDeleteUpstreamAndDropFromCachedRoster() throws Exception {
+        when(asyncEmployeeAPIUtils.getAllEmployees()).thenReturn(CompletableFuture.completedFuture(List.of(alice, bob)));
+        when(asyncEmployeeAPIUtils.deleteEmployee("1")).thenReturn(CompletableFuture.completedFuture(alice));
+        asyncEmployeeService.getAllEmployees().get(5, TimeUnit.SECONDS);
+
+        assertEquals("Alice Brown", asyncEmployeeService.deleteEmployee("1").get(5, TimeUnit.SECONDS));
+
+        assertEquals(List.of(bob), asyncEmployeeService.getAllEmployees().get(5, TimeUnit.SECONDS));
+        verify(asyncEmployeeAPIUtils, never()).getEmployeeById("1");
+    }
+
+    @Test
+    void deleteEmployee_WhenUpstreamFindsNoSuchId_ShouldFailWithNoRecordsFoundWithoutLookingItUp() {
+        when(asyncEmployeeAPIUtils.deleteEmployee("1")).thenReturn(CompletableFuture.completedFuture(null));
+
+        ExecutionException exception = assertThrows(ExecutionException.class,
+                () -> asyncEmployeeService.deleteEmployee("1").get(5, TimeUnit.SECONDS));
+
+        EmployeeException cause = assertInstanceOf(EmployeeException.class, exception.getCause());
+        assertEquals(ErrorCode.NO_RECORDS_FOUND, cause.getError());
+        verify(asyncEmployeeAPIUtils, never()).getEmployeeById("1");
+    }
+
+    @Test
+    void getHighestSalaryOfEmployees_WithPushdownWhenUpstreamRateLimitsIt_ShouldAnswerFromRoster() throws Exception {
+        AsyncEmployeeService pushdownService = new AsyncEmployeeService(asyncEmployeeAPIUtils, employeeRosterCache,
+                new EmployeeService(employeeAPIUtils, employeeRosterCache, true));
+        when(asyncEmployeeAPIUtils.getSalaryStats())
+                .thenReturn(CompletableFuture.failedFuture(new UpstreamRateLimitedException(Duration.ofSeconds(1))));
+        when(asyncEmployeeAPIUtils.getAllEmployees()).thenReturn(CompletableFuture.completedFuture(List.of(alice, bob)));
+
+        assertEquals(75000, pushdownService.getHighestSalaryOfEmployees().get(5, TimeUnit.SECONDS));
+        verify(asyncEmployeeAPIUtils, times(1)).getAllEmployees();
+    }
+}
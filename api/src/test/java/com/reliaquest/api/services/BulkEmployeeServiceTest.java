@@ -0,0 +1,124 @@
+package com.reliaquest.api.services;
+
+import com.reliaquest.api.entity.BulkItemResult;
+import com.reliaquest.api.entity.BulkResponse;
+import com.reliaquest.api.entity.CreateEmployee;
+import com.reliaquest.api.entity.CreateEmployeeDTO;
+import com.reliaquest.api.entity.Employee;
+import com.reliaquest.api.exceptions.EmployeeException;
+import com.reliaquest.api.exceptions.ErrorCode;
+import com.reliaquest.api.exceptions.UpstreamRateLimitedException;
+import com.reliaquest.api.exceptions.ValidationException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BulkEmployeeServiceTest {
+
+    @Mock
+    private EmployeeService employeeService;
+
+    private BulkEmployeeService bulkEmployeeService;
+
+    @AfterEach
+    void tearDown() {
+        bulkEmployeeService.shutdown();
+    }
+
+    @Test
+    void createEmployees_ShouldReturnResultPerItemAndOnlySendValidOnes() {
+        bulkEmployeeService = new BulkEmployeeService(employeeService, 4, 100);
+        Employee alice = new Employee("1", "Alice Brown", "55000", "29", "Software Engineer", "alicebrown@reliaquest.com");
+        when(employeeService.createValidatedEmployee(any(CreateEmployeeDTO.class))).thenReturn(alice);
+
+        BulkResponse<Employee> response = bulkEmployeeService.createEmployees(Arrays.asList(
+                new CreateEmployee(null, "Alice Brown", "55000", "29", "Software Engineer", "alicebrown@reliaquest.com"),
+                new CreateEmployee(null, "Bob Smith", "75000", "130", "Senior Software Engineer", "bobsmith@reliaquest.com"),
+                null));
+
+        assertEquals(1, response.getSucceeded());
+        assertEquals(2, response.getFailed());
+        assertEquals(BulkItemResult.succeeded(0, alice), response.getResults().get(0));
+        assertEquals(BulkItemResult.failed(1, ErrorCode.AGE_OVER_LIMIT), response.getResults().get(1));
+        assertEquals(BulkItemResult.failed(2, ErrorCode.INVALID_OR_EMPTY_NAME), response.getResults().get(2));
+        verify(employeeService, times(1)).createValidatedEmployee(any(CreateEmployeeDTO.class));
+    }
+
+    @Test
+    void createEmployees_ShouldNotExceedConfiguredConcurrency() {
+        bulkEmployeeService = new BulkEmployeeService(employeeService, 3, 100);
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        when(employeeService.createValidatedEmployee(any(CreateEmployeeDTO.class))).thenAnswer(invocation -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            Thread.sleep(20);
+            inFlight.decrementAndGet();
+            return new Employee("1", "Alice Brown", "55000", "29", "Software Engineer", "alicebrown@reliaquest.com");
+        });
+
+        List<CreateEmployee> employeeInputs = new ArrayList<>(Collections.nCopies(12,
+                new CreateEmployee(null, "Alice Brown", "55000", "29", "Software Engineer", "alicebrown@reliaquest.com")));
+        BulkResponse<Employee> response = bulkEmployeeService.createEmployees(employeeInputs);
+
+        assertEquals(12, response.getSucceeded());
+        assertTrue(maxInFlight.get() > 1, "upstream calls were not pipelined");
+        assertTrue(maxInFlight.get() <= 3, "more upstream calls in flight than configured");
+    }
+
+    @Test
+    void createEmployees_WhenUpstreamRateLimitIsExhausted_ShouldFailRemainingItemsWithoutSending() {
+        bulkEmployeeService = new BulkEmployeeService(employeeService, 1, 100);
+        when(employeeService.createValidatedEmployee(any(CreateEmployeeDTO.class)))
+                .thenThrow(new UpstreamRateLimitedException(Duration.ofSeconds(30)));
+
+        List<CreateEmployee> employeeInputs = new ArrayList<>(Collections.nCopies(5,
+                new CreateEmployee(null, "Alice Brown", "55000", "29", "Software Engineer", "alicebrown@reliaquest.com")));
+        BulkResponse<Employee> response = bulkEmployeeService.createEmployees(employeeInputs);
+
+        assertEquals(5, response.getFailed());
+        assertTrue(response.getResults().stream()
+                .allMatch(result -> ErrorCode.UPSTREAM_RATE_LIMITED.getCode().equals(result.getError())));
+        verify(employeeService, times(1)).createValidatedEmployee(any(CreateEmployeeDTO.class));
+    }
+
+    @Test
+    void deleteEmployees_ShouldShareOneDeletePerIdAndReportMissingOnes() {
+        bulkEmployeeService = new BulkEmployeeService(employeeService, 4, 100);
+        when(employeeService.deleteEmployee("1")).thenReturn("Alice Brown");
+        when(employeeService.deleteEmployee("2")).thenThrow(new EmployeeException(ErrorCode.NO_RECORDS_FOUND));
+
+        BulkResponse<String> response = bulkEmployeeService.deleteEmployees(Arrays.asList("1", "2", null, "1"));
+
+        assertEquals(List.of(
+                BulkItemResult.succeeded(0, "Alice Brown"),
+                BulkItemResult.failed(1, ErrorCode.NO_RECORDS_FOUND),
+                BulkItemResult.failed(2, ErrorCode.MISSING_ID),
+                BulkItemResult.succeeded(3, "Alice Brown")), response.getResults());
+        verify(employeeService, times(1)).deleteEmployee("1");
+    }
+
+    @Test
+    void deleteEmployees_WhenOverMaxItems_ShouldRejectWholeRequest() {
+        bulkEmployeeService = new BulkEmployeeService(employeeService, 4, 2);
+
+        ValidationException exception = assertThrows(ValidationException.class,
+                () -> bulkEmployeeService.deleteEmployees(List.of("1", "2", "3")));
+
+        assertEquals(ErrorCode.BULK_LIMIT_EXCEEDED, exception.getError());
+        verifyNoInteractions(employeeService);
+    }
+}
@@ -1,22 +1,34 @@
 package com.reliaquest.api.services;
 
+import com.reliaquest.api.cache.EmployeeRosterCache;
 import com.reliaquest.api.entity.*;
 import com.reliaquest.api.exceptions.EmployeeException;
 import com.reliaquest.api.exceptions.ErrorCode;
+import com.reliaquest.api.exceptions.UpstreamRateLimitedException;
 import com.reliaquest.api.exceptions.ValidationException;
+import com.reliaquest.api.index.NameMatch;
+import com.reliaquest.api.index.SalaryOrder;
 import com.reliaquest.api.utils.EmployeeAPIUtils;
 import com.reliaquest.api.validator.InputValidator;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -25,9 +37,14 @@ public class EmployeeServiceTest {
     @Mock
     private EmployeeAPIUtils employeeAPIUtils;
 
-    @InjectMocks
     private EmployeeService employeeService;
 
+    @BeforeEach
+    void setUp() {
+        EmployeeRosterCache employeeRosterCache = new EmployeeRosterCache(employeeAPIUtils, Duration.ofMinutes(1), 1000, Duration.ofMinutes(10));
+        employeeService = new EmployeeService(employeeAPIUtils, employeeRosterCache);
+    }
+
     @Test
     void retrieveAllEmployees_WhenDataIsAvailable_ShouldReturnEmployeesList() {
         Employee alice = new Employee("1", "Alice Brown", "50000", "21","Software Engineer","alicebrown@reliaquest.com");
@@ -56,6 +73,32 @@ public class EmployeeServiceTest {
         assertEquals("ERR-201", exception.getError().getCode());
     }
 
+    @Test
+    void streamAllEmployees_OnMiss_ShouldHandOverEmployeesFromTheRosterLoad() {
+        Employee alice = new Employee("1", "Alice Brown", "50000", "21","Software Engineer","alicebrown@reliaquest.com");
+        when(employeeAPIUtils.getAllEmployees(any())).thenAnswer(invocation -> {
+            invocation.<Consumer<Employee>>getArgument(0).accept(alice);
+            return List.of(alice);
+        });
+        List<Employee> streamed = new ArrayList<>();
+
+        assertEquals(1, employeeService.streamAllEmployees(streamed::add));
+
+        assertEquals(List.of(alice), streamed);
+        assertEquals(List.of(alice), employeeService.getAllEmployees());
+        verify(employeeAPIUtils, never()).getAllEmployees();
+    }
+
+    @Test
+    void streamAllEmployees_WhenNoDataFound_ShouldThrowBeforeHandingOverAnything() {
+        when(employeeAPIUtils.getAllEmployees(any())).thenReturn(List.of());
+
+        EmployeeException exception = assertThrows(EmployeeException.class,
+                () -> employeeService.streamAllEmployees(employee -> fail("nothing to stream")));
+
+        assertEquals("ERR-201", exception.getError().getCode());
+    }
+
     @Test
     void searchEmployeesByName_WhenMatchingNameExists_ShouldReturnFilteredResults() {
         Employee alice = new Employee("1", "Alice Brown", "55000", "30","Senior Manager", "alicebrown@reliaquest.com");
@@ -196,13 +239,12 @@ public class EmployeeServiceTest {
     @Test
     void deleteEmployeeById_WithValidId_ShouldReturnDeletedEmployeeName() {
         Employee alice = new Employee("1", "Alice Brown", "55000", "29","Software Engineer","alicebrown@reliaquest.com");
-        EmployeeResponses employeeResponse = new EmployeeResponses( List.of(alice));
-        when(employeeAPIUtils.getEmployeeById("1")).thenReturn(employeeResponse.getData().get(0));
-        when(employeeAPIUtils.deleteEmployee(alice)).thenReturn(alice.getName());
+        when(employeeAPIUtils.deleteEmployee("1")).thenReturn(alice);
 
         String deletedEmployeeName = employeeService.deleteEmployee("1");
 
         assertEquals("Alice Brown", deletedEmployeeName);
+        verify(employeeAPIUtils, never()).getEmployeeById("1");
     }
 
     @Test
@@ -215,4 +257,185 @@ public class EmployeeServiceTest {
 
         assertEquals(ErrorCode.MISSING_ID.getMessage(), exception.getError().getMessage());
     }
+
+    @Test
+    void deleteEmployee_WhenUpstreamFindsNoSuchId_ShouldThrowNoRecordsFound() {
+        when(employeeAPIUtils.deleteEmployee("1")).thenReturn(null);
+
+        EmployeeException exception = assertThrows(EmployeeException.class, () -> employeeService.deleteEmployee("1"));
+
+        assertEquals(ErrorCode.NO_RECORDS_FOUND, exception.getError());
+        verify(employeeAPIUtils, never()).getEmployeeById("1");
+    }
+
+    @Test
+    void retrieveHighestSalary_WhenCalledRepeatedly_ShouldFetchRosterOnce() {
+        Employee alice = new Employee("1", "Alice Brown", "55000", "29","Software Engineer","alicebrown@reliaquest.com");
+        Employee bob = new Employee("2", "Bob Smith", "75000", "52","Senior Software Engineer", "bobsmith@reliaquest.com");
+        when(employeeAPIUtils.getAllEmployees()).thenReturn(List.of(alice, bob));
+
+        employeeService.getHighestSalaryOfEmployees();
+        employeeService.getTopTenHighestEarningEmployeeNames();
+        employeeService.getEmployeesByNameSearch("Bob");
+
+        verify(employeeAPIUtils, times(1)).getAllEmployees();
+    }
+
+    @Test
+    void deleteEmployeeById_AfterRosterIsCached_ShouldRemoveFromRoster() {
+        Employee alice = new Employee("1", "Alice Brown", "55000", "29","Software Engineer","alicebrown@reliaquest.com");
+        Employee bob = new Employee("2", "Bob Smith", "75000", "52","Senior Software Engineer", "bobsmith@reliaquest.com");
+        when(employeeAPIUtils.getAllEmployees()).thenReturn(List.of(alice, bob));
+        when(employeeAPIUtils.deleteEmployee("1")).thenReturn(alice);
+
+        employeeService.getAllEmployees();
+        String deletedEmployeeName = employeeService.deleteEmployee("1");
+        List<Employee> remainingEmployees = employeeService.getAllEmployees();
+
+        assertEquals("Alice Brown", deletedEmployeeName);
+        assertEquals(List.of(bob), remainingEmployees);
+        assertThrows(EmployeeException.class, () -> employeeService.getEmployeesByNameSearch("Alice"));
+        verify(employeeAPIUtils, never()).getEmployeeById("1");
+        verify(employeeAPIUtils, times(1)).getAllEmployees();
+    }
+
+    @Test
+    void addNewEmployee_AfterRosterIsCached_ShouldBeSearchableWithoutReload() {
+        Employee bob = new Employee("2", "Bob Smith", "75000", "52","Senior Software Engineer", "bobsmith@reliaquest.com");
+        when(employeeAPIUtils.getAllEmployees()).thenReturn(List.of(bob));
+        Map<String, Object> employeeInput = new HashMap<>();
+        employeeInput.put("name", "Alice Brown");
+        employeeInput.put("salary", "90000");
+        employeeInput.put("age", "29");
+        CreateEmployeeDTO createEmployeeDTO = InputValidator.convertAndValidateEmployeeInput(employeeInput);
+        when(employeeAPIUtils.createEmployee(createEmployeeDTO)).thenReturn(new CreateEmployee("1", "Alice Brown", "90000", "29", null, null));
+
+        employeeService.getAllEmployees();
+        employeeService.createEmployee(employeeInput);
+
+        assertEquals("Alice Brown", employeeService.getEmployeesByNameSearch("Alice").get(0).getName());
+        assertEquals(90000, employeeService.getHighestSalaryOfEmployees());
+        verify(employeeAPIUtils, times(1)).getAllEmployees();
+    }
+
+    @Test
+    void searchEmployeesByName_IgnoringCaseWithPagination_ShouldReturnRequestedPage() {
+        Employee alice = new Employee("1", "Alice Brown", "55000", "29","Software Engineer","alicebrown@reliaquest.com");
+        Employee bob = new Employee("2", "Bob Smith", "75000", "52","Senior Software Engineer", "bobsmith@reliaquest.com");
+        Employee aliceDoe = new Employee("3", "alice Doe", "60000", "35"," Data Engineer", "alicedoe@reliaquest.com");
+        when(employeeAPIUtils.getAllEmployees()).thenReturn(List.of(alice, bob, aliceDoe));
+
+        List<Employee> secondPage = employeeService.searchEmployeesByName("ALICE", NameMatch.CONTAINS, true, 1, 1);
+
+        assertEquals(List.of(aliceDoe), secondPage);
+    }
+
+    @Test
+    void searchEmployeesByName_WithNegativeOffset_ShouldThrowValidationException() {
+        ValidationException exception = assertThrows(ValidationException.class, () -> {
+            employeeService.searchEmployeesByName("Alice", NameMatch.PREFIX, false, -1, 10);
+        });
+
+        assertEquals(ErrorCode.INVALID_OFFSET, exception.getError());
+    }
+
+    @Test
+    void rankEmployeeNamesBySalary_Ascending_ShouldReturnLowestEarnersFirst() {
+        Employee alice = new Employee("1", "Alice Brown", "55000", "29","Software Engineer","alicebrown@reliaquest.com");
+        Employee bob = new Employee("2", "Bob Smith", "75000", "52","Senior Software Engineer", "bobsmith@reliaquest.com");
+        Employee charlie = new Employee("3", "Charlie Doe", "60000", "35"," Data Engineer", "charliedoe@reliaquest.com");
+        when(employeeAPIUtils.getAllEmployees()).thenReturn(List.of(alice, bob, charlie));
+
+        List<String> rankedEmployeeNames = employeeService.getEmployeeNamesRankedBySalary(2, SalaryOrder.ASC);
+
+        assertEquals(List.of("Alice Brown", "Charlie Doe"), rankedEmployeeNames);
+    }
+
+    @Test
+    void rankEmployeeNamesBySalary_WithNegativeLimit_ShouldThrowValidationException() {
+        ValidationException exception = assertThrows(ValidationException.class, () -> {
+            employeeService.getEmployeeNamesRankedBySalary(-1, SalaryOrder.DESC);
+        });
+
+        assertEquals(ErrorCode.INVALID_LIMIT, exception.getError());
+    }
+
+    @Test
+    void getEmployeePage_ShouldPassPageRequestUpstreamWithoutLoadingRoster() {
+        EmployeePage page = new EmployeePage(List.of(new Employee("1", "Alice Brown", "50000", "21", "Software Engineer", "alicebrown@reliaquest.com")), 40, 11, null);
+        when(employeeAPIUtils.getEmployeePage(1, 10, null)).thenReturn(page);
+
+        assertEquals(page, employeeService.getEmployeePage(1, 10, null));
+        verify(employeeAPIUtils, never()).getAllEmployees();
+    }
+
+    @Test
+    void getEmployeePage_WithInvalidPageRequest_ShouldThrowValidationException() {
+        assertEquals(ErrorCode.INVALID_PAGE_SIZE, assertThrows(ValidationException.class, () -> employeeService.getEmployeePage(0, null, null)).getError());
+        assertEquals(ErrorCode.INVALID_PAGE_SIZE, assertThrows(ValidationException.class, () -> employeeService.getEmployeePage(1001, null, null)).getError());
+        assertEquals(ErrorCode.INVALID_OFFSET, assertThrows(ValidationException.class, () -> employeeService.getEmployeePage(10, -1, null)).getError());
+        assertEquals(ErrorCode.INVALID_CURSOR, assertThrows(ValidationException.class, () -> employeeService.getEmployeePage(10, 0, "AQAAAAAAAAAB")).getError());
+        verify(employeeAPIUtils, never()).getEmployeePage(anyInt(), any(), any());
+    }
+
+    @Test
+    void queries_WithPushdownAndNoCachedRoster_ShouldAskUpstreamForResultsOnly() {
+        EmployeeRosterCache emptyCache = new EmployeeRosterCache(employeeAPIUtils, Duration.ofMinutes(1), 1000, Duration.ofMinutes(10));
+        EmployeeService pushdownService = new EmployeeService(employeeAPIUtils, emptyCache, true);
+        Employee bob = new Employee("2", "Bob Smith", "75000", "52","Senior Software Engineer", "bobsmith@reliaquest.com");
+        when(employeeAPIUtils.searchEmployees("Bob", NameMatch.CONTAINS, false, 0, Integer.MAX_VALUE)).thenReturn(List.of(bob));
+        when(employeeAPIUtils.getEmployeesRankedBySalary(10, SalaryOrder.DESC)).thenReturn(List.of(bob));
+        when(employeeAPIUtils.getSalaryStats()).thenReturn(new SalaryStats(2, new SalaryStats.Summary(2, 55000, 75000, 65000, 55000, 75000, 75000), Map.of()));
+        when(employeeAPIUtils.searchEmployees("Zed", NameMatch.CONTAINS, false, 0, Integer.MAX_VALUE)).thenReturn(List.of());
+
+        assertEquals(List.of(bob), pushdownService.getEmployeesByNameSearch("Bob"));
+        assertEquals(List.of("Bob Smith"), pushdownService.getTopTenHighestEarningEmployeeNames());
+        assertEquals(75000, pushdownService.getHighestSalaryOfEmployees());
+        assertEquals(ErrorCode.EMPLOYEE_NAME_NOT_FOUND,
+                assertThrows(EmployeeException.class, () -> pushdownService.getEmployeesByNameSearch("Zed")).getError());
+        verify(employeeAPIUtils, never()).getAllEmployees();
+    }
+
+    @Test
+    void queries_WithPushdownAndFreshCachedRoster_ShouldComputeLocally() {
+        EmployeeRosterCache employeeRosterCache = new EmployeeRosterCache(employeeAPIUtils, Duration.ofMinutes(1), 1000, Duration.ofMinutes(10));
+        EmployeeService pushdownService = new EmployeeService(employeeAPIUtils, employeeRosterCache, true);
+        Employee alice = new Employee("1", "Alice Brown", "55000", "29","Software Engineer","alicebrown@reliaquest.com");
+        when(employeeAPIUtils.getAllEmployees()).thenReturn(List.of(alice));
+
+        pushdownService.getAllEmployees();
+
+        assertEquals(55000, pushdownService.getHighestSalaryOfEmployees());
+        assertEquals(List.of("Alice Brown"), pushdownService.getTopTenHighestEarningEmployeeNames());
+        verify(employeeAPIUtils, never()).getSalaryStats();
+        verify(employeeAPIUtils, never()).getEmployeesRankedBySalary(anyInt(), any());
+    }
+
+    @Test
+    void queries_WithPushdownAndStaleCachedRoster_ShouldReloadRosterInsteadOfPushingDown() {
+        EmployeeRosterCache expiringCache = new EmployeeRosterCache(employeeAPIUtils, Duration.ZERO, 1000, Duration.ofMinutes(10));
+        EmployeeService pushdownService = new EmployeeService(employeeAPIUtils, expiringCache, true);
+        Employee alice = new Employee("1", "Alice Brown", "55000", "29","Software Engineer","alicebrown@reliaquest.com");
+        when(employeeAPIUtils.getAllEmployees()).thenReturn(List.of(alice));
+
+        pushdownService.getAllEmployees();
+
+        assertEquals(55000, pushdownService.getHighestSalaryOfEmployees());
+        verify(employeeAPIUtils, times(2)).getAllEmployees();
+        verify(employeeAPIUtils, never()).getSalaryStats();
+    }
+
+    @Test
+    void queries_WithPushdownWhenUpstreamRateLimitsIt_ShouldAnswerFromRoster() {
+        EmployeeRosterCache emptyCache = new EmployeeRosterCache(employeeAPIUtils, Duration.ofMinutes(1), 1000, Duration.ofMinutes(10));
+        EmployeeService pushdownService = new EmployeeService(employeeAPIUtils, emptyCache, true);
+        Employee alice = new Employee("1", "Alice Brown", "55000", "29","Software Engineer","alicebrown@reliaquest.com");
+        when(employeeAPIUtils.getSalaryStats()).thenThrow(new UpstreamRateLimitedException(Duration.ofSeconds(1)));
+        when(employeeAPIUtils.getAllEmployees()).thenReturn(List.of(alice));
+
+        assertEquals(55000, pushdownService.getHighestSalaryOfEmployees());
+        assertEquals(List.of("Alice Brown"), pushdownService.getTopTenHighestEarningEmployeeNames());
+        verify(employeeAPIUtils, times(1)).getAllEmployees();
+        verify(employeeAPIUtils, never()).getEmployeesRankedBySalary(anyInt(), any());
+    }
 }
@@ -0,0 +1,136 @@
+package com.reliaquest.api.utils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reliaquest.api.configurations.HttpClientProperties;
+import com.reliaquest.api.configurations.RateLimitProperties;
+import com.reliaquest.api.entity.Employee;
+import com.reliaquest.api.exceptions.ErrorCode;
+import com.reliaquest.api.exceptions.InternalException;
+import com.reliaquest.api.ratelimit.UpstreamRateLimiter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AsyncEmployeeAPIUtilsTest {
+
+    @Mock
+    private HttpClient httpClient;
+
+    @Mock
+    private HttpResponse<byte[]> response;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private AsyncEmployeeAPIUtils asyncEmployeeAPI;
+
+    private final String allEmployeesJson = "{  \"data\": [" +
+            "{ \"id\": \"1\", \"employee_name\": \"Alice Brown\", \"employee_salary\": \"50000\", \"employee_age\": \"30\", \"employee_title\": \"Software Engineer\",\"employee_email\": \"alice.brown@reliaquest.com\" }," +
+            "{ \"id\": \"2\", \"employee_name\": \"Joe Puth \", \"employee_salary\": \"70000\", \"employee_age\": \"40\", \"employee_title\": \"Product Engineer\",\"employee_email\": \"joe.puth@reliaquest.com\"}" +
+            "] }";
+    private final String employeeJson = "{ \"data\": { \"id\": \"1\", \"employee_name\": \"Alice Brown\", \"employee_salary\": \"50000\", \"employee_age\": \"30\", \"employee_title\": \"Software Engineer\",\"employee_email\": \"alice.brown@reliaquest.com\" } }";
+
+    @BeforeEach
+    void setUp() {
+        UpstreamRateLimiter rateLimiter = new UpstreamRateLimiter(
+                new RateLimitProperties(true, 1, 2, Duration.ofMillis(1), Duration.ofMillis(5), Duration.ofSeconds(1), Duration.ofSeconds(1)),
+                meterRegistry);
+        HttpClientProperties properties = new HttpClientProperties(
+                "apache", 50, 20, Duration.ofSeconds(2), Duration.ofSeconds(5), Duration.ofSeconds(1), Duration.ofSeconds(30), Duration.ofMinutes(5));
+        asyncEmployeeAPI = new AsyncEmployeeAPIUtils(httpClient, new ObjectMapper().findAndRegisterModules(), meterRegistry,
+                rateLimiter, properties);
+    }
+
+    @Test
+    void getAllEmployees_Success() throws Exception {
+        when(httpClient.<byte[]>sendAsync(any(), any())).thenReturn(CompletableFuture.completedFuture(response));
+        when(response.statusCode()).thenReturn(200);
+        when(response.body()).thenReturn(allEmployeesJson.getBytes(StandardCharsets.UTF_8));
+        when(response.headers()).thenReturn(HttpHeaders.of(Map.of(), (name, value) -> true));
+
+        List<Employee> employees = asyncEmployeeAPI.getAllEmployees().get(5, TimeUnit.SECONDS);
+
+        assertEquals(2, employees.size());
+        assertEquals("Alice Brown", employees.get(0).getName());
+        assertEquals(1, meterRegistry.get(UpstreamMetricsInterceptor.REQUESTS).tag("status", "200").timer().count());
+        assertEquals(1, meterRegistry.get(EmployeeAPIUtils.PARSE_TIMER).tag("operation", "getAllEmployees").timer().count());
+    }
+
+    @Test
+    void getAllEmployees_WhenRosterHasVersion_ShouldOnlyFetchChangesSinceNextTime() throws Exception {
+        String changesJson = "{ \"data\": { \"version\": \"a-2\", \"changes\": [" +
+                "{ \"type\": \"REMOVED\", \"employee\": { \"id\": \"1\", \"employee_name\": \"Alice Brown\" } }," +
+                "{ \"type\": \"ADDED\", \"employee\": { \"id\": \"3\", \"employee_name\": \"Carol King\" } }" +
+                "] }, \"status\": \"Successfully processed request.\" }";
+        when(httpClient.<byte[]>sendAsync(any(), any())).thenReturn(CompletableFuture.completedFuture(response));
+        when(response.statusCode()).thenReturn(200);
+        when(response.body()).thenReturn(allEmployeesJson.getBytes(StandardCharsets.UTF_8), changesJson.getBytes(StandardCharsets.UTF_8));
+        when(response.headers()).thenReturn(HttpHeaders.of(Map.of("ETag", List.of("\"a-0\"")), (name, value) -> true));
+
+        asyncEmployeeAPI.getAllEmployees().get(5, TimeUnit.SECONDS);
+        List<Employee> employees = asyncEmployeeAPI.getAllEmployees().get(5, TimeUnit.SECONDS);
+
+        assertEquals(List.of("Joe Puth ", "Carol King"), employees.stream().map(Employee::getName).toList());
+        ArgumentCaptor<HttpRequest> requests = ArgumentCaptor.forClass(HttpRequest.class);
+        verify(httpClient, times(2)).sendAsync(requests.capture(), any());
+        assertEquals(URI.create("http://localhost:8112/api/v1/employee/changes?since=a-0"), requests.getAllValues().get(1).uri());
+    }
+
+    @Test
+    void getEmployeeById_WhenThrottledOnce_ShouldRetry() throws Exception {
+        when(httpClient.<byte[]>sendAsync(any(), any())).thenReturn(CompletableFuture.completedFuture(response));
+        when(response.statusCode()).thenReturn(429, 200);
+        when(response.body()).thenReturn(new byte[0], employeeJson.getBytes(StandardCharsets.UTF_8));
+
+        Employee employee = asyncEmployeeAPI.getEmployeeById("1").get(5, TimeUnit.SECONDS);
+
+        assertEquals("Alice Brown", employee.getName());
+        verify(httpClient, times(2)).sendAsync(any(), any());
+        assertEquals(1, meterRegistry.get(UpstreamMetricsInterceptor.THROTTLED).counter().count());
+    }
+
+    @Test
+    void getEmployeeById_WhenRequestFails_ShouldFailWithApiRequestFailure() {
+        when(httpClient.<byte[]>sendAsync(any(), any())).thenReturn(CompletableFuture.failedFuture(new IOException("connection refused")));
+
+        ExecutionException exception = assertThrows(ExecutionException.class,
+                () -> asyncEmployeeAPI.getEmployeeById("1").get(5, TimeUnit.SECONDS));
+
+        InternalException cause = assertInstanceOf(InternalException.class, exception.getCause());
+        assertEquals(ErrorCode.API_REQUEST_FAILURE, cause.getError());
+    }
+
+    @Test
+    void getEmployeeById_WhenBodyIsMalformed_ShouldFailWithDeserializationFailure() {
+        when(httpClient.<byte[]>sendAsync(any(), any())).thenReturn(CompletableFuture.completedFuture(response));
+        when(response.statusCode()).thenReturn(200);
+        when(response.body()).thenReturn("{ not json".getBytes(StandardCharsets.UTF_8));
+
+        ExecutionException exception = assertThrows(ExecutionException.class,
+                () -> asyncEmployeeAPI.getEmployeeById("1").get(5, TimeUnit.SECONDS));
+
+        InternalException cause = assertInstanceOf(InternalException.class, exception.getCause());
+        assertEquals(ErrorCode.JSON_DESERIALIZATION_FAILURE, cause.getError());
+    }
+}
@@ -2,29 +2,52 @@ package com.reliaquest.api.utils;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.reliaquest.api.configurations.RateLimitProperties;
 import com.reliaquest.api.entity.*;
 import com.reliaquest.api.exceptions.EmployeeException;
 import com.reliaquest.api.exceptions.ErrorCode;
 import com.reliaquest.api.exceptions.InternalException;
+import com.reliaquest.api.exceptions.UpstreamRateLimitedException;
+import com.reliaquest.api.exceptions.ValidationException;
+import com.reliaquest.api.index.NameMatch;
+import com.reliaquest.api.ratelimit.UpstreamRateLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentMatchers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RequestCallback;
+import org.springframework.web.client.ResponseExtractor;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 
-import static jdk.dynalink.linker.support.Guards.isNull;
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -36,6 +59,14 @@ public class EmployeeAPIUtilsTest {
     @Mock
     private ObjectMapper objectMapper;
 
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private UpstreamRateLimiter rateLimiter = new UpstreamRateLimiter(
+            new RateLimitProperties(true, 1, 2, Duration.ofMillis(1), Duration.ofMillis(5), Duration.ofSeconds(1), Duration.ofSeconds(1)),
+            new SimpleMeterRegistry());
+
     @InjectMocks
     private EmployeeAPIUtils employeeAPI;
 
@@ -59,24 +90,76 @@ public class EmployeeAPIUtilsTest {
     }
 
     @Test
-    void getAllEmployees_Success() throws JsonProcessingException {
-        Employee employee = new Employee("1", "Alice Brown", "50000", "21","Software Engineer","alicebrown@reliaquest.com");
-
-        EmployeeResponses employeeResponse = new EmployeeResponses(List.of(employee));
-
-        when(restTemplate.getForObject(getEmployeesUrl, String.class)).thenReturn(allEmployeesJson);
-        when(objectMapper.readValue(allEmployeesJson, EmployeeResponses.class)).thenReturn(employeeResponse);
+    void getAllEmployees_Success() {
+        EmployeeAPIUtils streamingEmployeeAPI = new EmployeeAPIUtils(restTemplate, new ObjectMapper().findAndRegisterModules(), meterRegistry, rateLimiter);
+        respondToGetAllEmployeesWith(allEmployeesJson);
 
-        List<Employee> employees = employeeAPI.getAllEmployees();
+        List<Employee> employees = streamingEmployeeAPI.getAllEmployees();
 
         assertNotNull(employees);
-        assertEquals(1, employees.size());
+        assertEquals(2, employees.size());
         assertEquals("Alice Brown", employees.get(0).getName());
+        assertEquals("70000", employees.get(1).getSalary());
+    }
+
+    @Test
+    void getAllEmployees_WhenRosterFormatIsSmile_ShouldAskForSmileAndParseIt() throws Exception {
+        ObjectMapper jsonMapper = new ObjectMapper().findAndRegisterModules();
+        EmployeeAPIUtils smileEmployeeAPI = new EmployeeAPIUtils(restTemplate, jsonMapper, meterRegistry, rateLimiter, "smile");
+        byte[] smileRoster = new ObjectMapper(new SmileFactory()).writeValueAsBytes(jsonMapper.readTree(allEmployeesJson));
+        when(restTemplate.execute(eq(URI.create(getEmployeesUrl)), eq(HttpMethod.GET), any(RequestCallback.class), any(ResponseExtractor.class)))
+                .thenAnswer(invocation -> {
+                    MockClientHttpRequest request = new MockClientHttpRequest();
+                    invocation.<RequestCallback>getArgument(2).doWithRequest(request);
+                    assertEquals(List.of(RosterFormat.SMILE, MediaType.valueOf("application/json;q=0.9")), request.getHeaders().getAccept());
+                    MockClientHttpResponse response = new MockClientHttpResponse(smileRoster, HttpStatus.OK);
+                    response.getHeaders().setContentType(RosterFormat.SMILE);
+                    return invocation.<ResponseExtractor<?>>getArgument(3).extractData(response);
+                });
+
+        List<Employee> employees = smileEmployeeAPI.getAllEmployees();
+
+        assertEquals(List.of("Alice Brown", "Joe Puth "), employees.stream().map(Employee::getName).toList());
+        assertEquals("70000", employees.get(1).getSalary());
+    }
+
+    @Test
+    void getAllEmployees_WhenSmileIsAskedForButJsonComesBack_ShouldParseJson() {
+        EmployeeAPIUtils smileEmployeeAPI = new EmployeeAPIUtils(restTemplate, new ObjectMapper().findAndRegisterModules(), meterRegistry, rateLimiter, "smile");
+        respondToGetAllEmployeesWith(allEmployeesJson);
+
+        assertEquals(2, smileEmployeeAPI.getAllEmployees().size());
+    }
+
+    @Test
+    void getAllEmployees_WithConsumer_ShouldHandEachEmployeeToConsumerInOrder() {
+        EmployeeAPIUtils streamingEmployeeAPI = new EmployeeAPIUtils(restTemplate, new ObjectMapper().findAndRegisterModules(), meterRegistry, rateLimiter);
+        respondToGetAllEmployeesWith("{ \"status\": \"Successfully processed request.\", \"meta\": { \"ignored\": [1, 2] }, \"data\": ["
+                + "{ \"id\": \"1\", \"employee_name\": \"Alice Brown\", \"employee_salary\": 50000, \"employee_age\": 30 },"
+                + "{ \"id\": \"2\", \"employee_name\": \"Joe Puth\", \"employee_salary\": 70000, \"employee_age\": 40 }"
+                + "] }");
+        List<String> names = new ArrayList<>();
+
+        List<Employee> employees = streamingEmployeeAPI.getAllEmployees(employee -> names.add(employee.getName()));
+
+        assertEquals(List.of("Alice Brown", "Joe Puth"), names);
+        assertEquals(names, employees.stream().map(Employee::getName).toList());
+    }
+
+    @Test
+    void getAllEmployees_ShouldRecordParseTime() {
+        EmployeeAPIUtils streamingEmployeeAPI = new EmployeeAPIUtils(restTemplate, new ObjectMapper().findAndRegisterModules(), meterRegistry, rateLimiter);
+        respondToGetAllEmployeesWith(allEmployeesJson);
+
+        streamingEmployeeAPI.getAllEmployees();
+
+        assertEquals(1, meterRegistry.get(EmployeeAPIUtils.PARSE_TIMER).tag("operation", "getAllEmployees").timer().count());
     }
 
     @Test
     void getAllEmployees_RestClientException() {
-        when(restTemplate.getForObject(getEmployeesUrl, String.class)).thenThrow(new RestClientException("Error"));
+        when(restTemplate.execute(eq(URI.create(getEmployeesUrl)), eq(HttpMethod.GET), any(RequestCallback.class), any(ResponseExtractor.class)))
+                .thenThrow(new RestClientException("Error"));
 
         InternalException exception = assertThrows(InternalException.class, () -> {
             employeeAPI.getAllEmployees();
@@ -88,13 +171,12 @@ public class EmployeeAPIUtilsTest {
     }
 
     @Test
-    void getAllEmployees_JsonProcessingException() throws JsonProcessingException {
-        when(restTemplate.getForObject(getEmployeesUrl, String.class)).thenReturn(allEmployeesJson);
-        when(objectMapper.readValue(allEmployeesJson, EmployeeResponses.class)).thenThrow(new JsonProcessingException("Error") {
-        });
+    void getAllEmployees_JsonProcessingException() {
+        EmployeeAPIUtils streamingEmployeeAPI = new EmployeeAPIUtils(restTemplate, new ObjectMapper().findAndRegisterModules(), meterRegistry, rateLimiter);
+        respondToGetAllEmployeesWith("{ \"data\": [ { \"id\": \"1\", \"employee_name\": ");
 
         InternalException exception = assertThrows(InternalException.class, () -> {
-            employeeAPI.getAllEmployees();
+            streamingEmployeeAPI.getAllEmployees();
         });
 
         assertEquals(ErrorCode.JSON_DESERIALIZATION_FAILURE, exception.getError());
@@ -130,6 +212,32 @@ public class EmployeeAPIUtilsTest {
         assertEquals("ERR-101", exception.getError().getCode());
     }
 
+    @Test
+    void getEmployeeById_WhenThrottledOnce_ShouldRetryAndSucceed() throws JsonProcessingException {
+        Employee employee = new Employee("1", "Alice Brown", "50000", "21","Software Engineer","alicebrown@reliaquest.com");
+        when(restTemplate.getForObject(getEmployeeByIdUrl + "/1", String.class))
+                .thenThrow(tooManyRequests())
+                .thenReturn(employeeJson);
+        when(objectMapper.readValue(employeeJson, EmployeeResponse.class)).thenReturn(new EmployeeResponse(employee));
+
+        Employee employeeById = employeeAPI.getEmployeeById("1");
+
+        assertEquals(employee, employeeById);
+        verify(restTemplate, times(2)).getForObject(getEmployeeByIdUrl + "/1", String.class);
+    }
+
+    @Test
+    void getEmployeeById_WhenThrottledOnEveryAttempt_ShouldThrowRateLimited() {
+        when(restTemplate.getForObject(getEmployeeByIdUrl + "/1", String.class)).thenThrow(tooManyRequests());
+
+        UpstreamRateLimitedException exception = assertThrows(UpstreamRateLimitedException.class, () -> {
+            employeeAPI.getEmployeeById("1");
+        });
+
+        assertEquals(ErrorCode.UPSTREAM_RATE_LIMITED, exception.getError());
+        verify(restTemplate, times(2)).getForObject(getEmployeeByIdUrl + "/1", String.class);
+    }
+
     @Test
     void getEmployeeById_JsonProcessingException() throws JsonProcessingException {
         when(restTemplate.getForObject(getEmployeeByIdUrl + "/1", String.class)).thenReturn(employeeJson);
@@ -207,38 +315,157 @@ public class EmployeeAPIUtilsTest {
     }
 
     @Test
-    void deleteEmployee_Success() {
-        Employee employee = new Employee("1", "Alice Brown", "50000", "21","Software Engineer","alicebrown@reliaquest.com");
-        String jsonResponse = "successfully! deleted Record";
+    void deleteEmployee_Success() throws JsonProcessingException {
+        String jsonResponse = "{\"data\":{\"id\":\"1\",\"employee_name\":\"Alice Brown\"},\"status\":\"Successfully processed request.\"}";
+        Employee alice = new Employee("1", "Alice Brown", "55000", "29", "Software Engineer", "alicebrown@reliaquest.com");
 
-        when(restTemplate.exchange(BASE_URL + "/delete/1", HttpMethod.DELETE, null, String.class)).thenReturn(ResponseEntity.ok(jsonResponse));
+        when(restTemplate.exchange(eq(BASE_URL + "/1"), eq(HttpMethod.DELETE), isNull(), eq(String.class))).thenReturn(ResponseEntity.ok(jsonResponse));
+        when(objectMapper.readValue(jsonResponse, DeleteEmployeeResponse.class)).thenReturn(new DeleteEmployeeResponse(alice));
 
-        String result = employeeAPI.deleteEmployee(employee);
-
-        assertEquals("Alice Brown", result);
+        assertEquals(alice, employeeAPI.deleteEmployee("1"));
+        verify(restTemplate, never()).getForObject(anyString(), eq(String.class));
     }
 
     @Test
-    void deleteEmployee_FailureResponse() {
-        Employee employee = new Employee("1", "Alice Brown", "50000", "21","Software Engineer","alicebrown@reliaquest.com");
-        String jsonResponse = "failed to delete Record";
-
-        when(restTemplate.exchange(BASE_URL + "/delete/1", HttpMethod.DELETE, null, String.class)).thenReturn(ResponseEntity.ok(jsonResponse));
+    void deleteEmployee_FailureResponse() throws JsonProcessingException {
+        String jsonResponse = "{\"status\":\"Successfully processed request.\"}";
 
-        String result = employeeAPI.deleteEmployee(employee);
+        when(restTemplate.exchange(eq(BASE_URL + "/1"), eq(HttpMethod.DELETE), isNull(), eq(String.class))).thenReturn(ResponseEntity.ok(jsonResponse));
+        when(objectMapper.readValue(jsonResponse, DeleteEmployeeResponse.class)).thenReturn(new DeleteEmployeeResponse(null));
 
-        assertEquals("failed", result);
+        assertNull(employeeAPI.deleteEmployee("1"));
     }
 
     @Test
     void deleteEmployee_RestClientException() {
-        Employee employee = new Employee("1", "Alice Brown", "50000", "21","Software Engineer","alicebrown@reliaquest.com");
-
-        when(restTemplate.exchange(BASE_URL + "/delete/1", HttpMethod.DELETE, null, String.class)).thenThrow(new RestClientException("Error"));
+        when(restTemplate.exchange(eq(BASE_URL + "/1"), eq(HttpMethod.DELETE), isNull(), eq(String.class))).thenThrow(new RestClientException("Error"));
         InternalException exception = assertThrows(InternalException.class, () -> {
-            employeeAPI.deleteEmployee(employee);
+            employeeAPI.deleteEmployee("1");
         });
 
         assertEquals(ErrorCode.API_REQUEST_FAILURE.getMessage(), exception.getMessage());
     }
-}
\ No newline at end of file
+
+    @Test
+    void getEmployeePage_ShouldFetchOnlyThatPage() {
+        EmployeeAPIUtils pagingEmployeeAPI = new EmployeeAPIUtils(restTemplate, new ObjectMapper().findAndRegisterModules(), meterRegistry, rateLimiter);
+        String pageJson = "{ \"data\": { \"employees\": [" +
+                "{ \"id\": \"3\", \"employee_name\": \"Carol King\", \"employee_salary\": \"60000\", \"employee_age\": \"35\", \"employee_title\": \"Designer\",\"employee_email\": \"carol.king@reliaquest.com\" }" +
+                "], \"total\": 3, \"nextCursor\": \"AQAAAAAAAAAC\" }, \"status\": \"Successfully processed request.\" }";
+        when(restTemplate.getForObject(URI.create(BASE_URL + "?limit=1&cursor=AQAAAAAAAAAB"), String.class)).thenReturn(pageJson);
+
+        EmployeePage page = pagingEmployeeAPI.getEmployeePage(1, null, "AQAAAAAAAAAB");
+
+        assertEquals(1, page.getEmployees().size());
+        assertEquals("Carol King", page.getEmployees().get(0).getName());
+        assertEquals(3, page.getTotal());
+        assertNull(page.getNextOffset());
+        assertEquals("AQAAAAAAAAAC", page.getNextCursor());
+        verify(restTemplate, never()).execute(any(URI.class), any(HttpMethod.class), any(RequestCallback.class), any(ResponseExtractor.class));
+    }
+
+    @Test
+    void getEmployeePage_WhenUpstreamRejectsCursor_ShouldThrowInvalidCursor() {
+        when(restTemplate.getForObject(URI.create(BASE_URL + "?limit=10&cursor=stale"), String.class))
+                .thenThrow(HttpClientErrorException.create(HttpStatus.BAD_REQUEST, "Bad Request", HttpHeaders.EMPTY, null, null));
+
+        ValidationException exception = assertThrows(ValidationException.class, () -> employeeAPI.getEmployeePage(10, null, "stale"));
+
+        assertEquals(ErrorCode.INVALID_CURSOR, exception.getError());
+    }
+
+    @Test
+    void searchEmployees_ShouldEncodeNameAndReturnOnlyMatches() {
+        EmployeeAPIUtils searchingEmployeeAPI = new EmployeeAPIUtils(restTemplate, new ObjectMapper().findAndRegisterModules(), meterRegistry, rateLimiter);
+        respondTo(URI.create(BASE_URL + "/search?name=A%26B%2BC&mode=prefix&ignoreCase=true&offset=0&limit=5"),
+                "{ \"data\": [ { \"id\": \"7\", \"employee_name\": \"A&B+C Smith\", \"employee_salary\": \"1\", \"employee_age\": \"30\", \"employee_title\": \"Analyst\", \"employee_email\": \"abc@reliaquest.com\" } ] }");
+
+        List<Employee> matches = searchingEmployeeAPI.searchEmployees("A&B+C", NameMatch.PREFIX, true, 0, 5);
+
+        assertEquals(1, matches.size());
+        assertEquals("A&B+C Smith", matches.get(0).getName());
+        assertEquals(1, meterRegistry.get(EmployeeAPIUtils.PARSE_TIMER).tag("operation", "searchEmployees").timer().count());
+    }
+
+    @Test
+    void getSalaryStats_ShouldParseSummaries() {
+        EmployeeAPIUtils statsEmployeeAPI = new EmployeeAPIUtils(restTemplate, new ObjectMapper().findAndRegisterModules(), meterRegistry, rateLimiter);
+        when(restTemplate.getForObject(URI.create(BASE_URL + "/salary-stats"), String.class)).thenReturn(
+                "{ \"data\": { \"employees\": 3, \"all\": { \"count\": 2, \"min\": 100, \"max\": 300, \"average\": 200.0, \"p50\": 100, \"p90\": 300, \"p99\": 300 }," +
+                " \"byTitle\": {} }, \"status\": \"Successfully processed request.\" }");
+
+        SalaryStats salaryStats = statsEmployeeAPI.getSalaryStats();
+
+        assertEquals(3, salaryStats.getEmployees());
+        assertEquals(300, salaryStats.getAll().getMax());
+        assertTrue(salaryStats.getByTitle().isEmpty());
+    }
+
+    @Test
+    void getAllEmployees_WhenRosterHasVersion_ShouldOnlyFetchAndApplyChangesSinceNextTime() {
+        EmployeeAPIUtils replicatingEmployeeAPI = new EmployeeAPIUtils(restTemplate, new ObjectMapper().findAndRegisterModules(), meterRegistry, rateLimiter);
+        respondTo(URI.create(getEmployeesUrl), allEmployeesJson, "a-0");
+        when(restTemplate.getForObject(URI.create(BASE_URL + "/changes?since=a-0"), String.class)).thenReturn(
+                "{ \"data\": { \"version\": \"a-2\", \"changes\": [" +
+                "{ \"type\": \"ADDED\", \"employee\": { \"id\": \"3\", \"employee_name\": \"Carol King\" } }," +
+                "{ \"type\": \"REMOVED\", \"employee\": { \"id\": \"1\", \"employee_name\": \"Alice Brown\" } }" +
+                "] }, \"status\": \"Successfully processed request.\" }");
+        when(restTemplate.getForObject(URI.create(BASE_URL + "/changes?since=a-2"), String.class)).thenReturn(
+                "{ \"data\": { \"version\": \"a-2\", \"changes\": [] } }");
+
+        List<Employee> roster = replicatingEmployeeAPI.getAllEmployees();
+        List<Employee> caughtUp = replicatingEmployeeAPI.getAllEmployees();
+
+        assertEquals(List.of(roster.get(1).getName(), "Carol King"), caughtUp.stream().map(Employee::getName).toList());
+        assertSame(caughtUp, replicatingEmployeeAPI.getAllEmployees());
+        verify(restTemplate, times(1)).execute(any(URI.class), any(HttpMethod.class), any(RequestCallback.class), any(ResponseExtractor.class));
+    }
+
+    @Test
+    void getAllEmployees_WhenChangesAreGoneButRosterIsNotModified_ShouldReuseLastRoster() {
+        EmployeeAPIUtils replicatingEmployeeAPI = new EmployeeAPIUtils(restTemplate, new ObjectMapper().findAndRegisterModules(), meterRegistry, rateLimiter);
+        when(restTemplate.execute(eq(URI.create(getEmployeesUrl)), eq(HttpMethod.GET), any(RequestCallback.class), any(ResponseExtractor.class)))
+                .thenAnswer(invocation -> {
+                    MockClientHttpResponse response = new MockClientHttpResponse(allEmployeesJson.getBytes(StandardCharsets.UTF_8), HttpStatus.OK);
+                    response.getHeaders().setETag("W/\"a-0\"");
+                    return invocation.<ResponseExtractor<?>>getArgument(3).extractData(response);
+                })
+                .thenAnswer(invocation -> {
+                    MockClientHttpRequest request = new MockClientHttpRequest();
+                    invocation.<RequestCallback>getArgument(2).doWithRequest(request);
+                    assertEquals(List.of("\"a-0\""), request.getHeaders().getIfNoneMatch());
+                    return invocation.<ResponseExtractor<?>>getArgument(3).extractData(new MockClientHttpResponse(new byte[0], HttpStatus.NOT_MODIFIED));
+                });
+        when(restTemplate.getForObject(URI.create(BASE_URL + "/changes?since=a-0"), String.class))
+                .thenThrow(HttpClientErrorException.create(HttpStatus.GONE, "Gone", HttpHeaders.EMPTY, null, null));
+
+        List<Employee> roster = replicatingEmployeeAPI.getAllEmployees();
+        List<Employee> reloaded = replicatingEmployeeAPI.getAllEmployees();
+
+        assertSame(roster, reloaded);
+        assertEquals(1, meterRegistry.get(EmployeeAPIUtils.PARSE_TIMER).tag("operation", "getAllEmployees").timer().count());
+    }
+
+    private static HttpClientErrorException tooManyRequests() {
+        return HttpClientErrorException.create(HttpStatus.TOO_MANY_REQUESTS, "Too Many Requests", HttpHeaders.EMPTY, null, null);
+    }
+
+    private void respondToGetAllEmployeesWith(String json) {
+        respondTo(URI.create(getEmployeesUrl), json);
+    }
+
+    private void respondTo(URI uri, String json) {
+        respondTo(uri, json, null);
+    }
+
+    private void respondTo(URI uri, String json, String rosterVersion) {
+        when(restTemplate.execute(eq(uri), eq(HttpMethod.GET), any(RequestCallback.class), any(ResponseExtractor.class)))
+                .thenAnswer(invocation -> {
+                    ResponseExtractor<?> responseExtractor = invocation.getArgument(3);
+                    MockClientHttpResponse response = new MockClientHttpResponse(json.getBytes(StandardCharsets.UTF_8), HttpStatus.OK);
+                    if (rosterVersion != null)
+                        response.getHeaders().setETag("\"" + rosterVersion + "\"");
+                    return responseExtractor.extractData(response);
+                });
+    }
+}
@@ -0,0 +1,148 @@
+package com.reliaquest.api.utils;
+
+import com.reliaquest.api.exceptions.ErrorCode;
+import com.reliaquest.api.exceptions.InternalException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestCoalescerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RequestCoalescer requestCoalescer = new RequestCoalescer(meterRegistry);
+
+    @Test
+    void execute_WhenCallsAreConcurrent_ShouldShareOneUpstreamCall() throws Exception {
+        AtomicInteger upstreamCalls = new AtomicInteger();
+        CountDownLatch callStarted = new CountDownLatch(1);
+        CountDownLatch releaseCall = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            results.add(executor.submit(() -> requestCoalescer.execute("GET /employee/1", "getEmployeeById", () -> {
+                upstreamCalls.incrementAndGet();
+                callStarted.countDown();
+                await(releaseCall);
+                return "Alice Brown";
+            })));
+            assertTrue(callStarted.await(5, TimeUnit.SECONDS));
+            for (int i = 0; i < 7; i++) {
+                results.add(executor.submit(() -> requestCoalescer.execute("GET /employee/1", "getEmployeeById", () -> {
+                    upstreamCalls.incrementAndGet();
+                    return "unexpected";
+                })));
+            }
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (coalescedCount() < 7 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            releaseCall.countDown();
+
+            for (Future<String> result : results) {
+                assertEquals("Alice Brown", result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, upstreamCalls.get());
+        assertEquals(0, requestCoalescer.inFlightCount());
+    }
+
+    @Test
+    void execute_WhenCallFails_ShouldReleaseKeyAndRethrow() {
+        InternalException exception = assertThrows(InternalException.class, () -> requestCoalescer.execute("GET /employee", "getAllEmployees", () -> {
+            throw new InternalException(ErrorCode.API_REQUEST_FAILURE);
+        }));
+
+        assertEquals(ErrorCode.API_REQUEST_FAILURE, exception.getError());
+        assertEquals("retried", requestCoalescer.execute("GET /employee", "getAllEmployees", () -> "retried"));
+    }
+
+    @Test
+    void execute_WithDifferentKeys_ShouldNotShareCalls() {
+        assertEquals("1", requestCoalescer.execute("GET /employee/1", "getEmployeeById", () -> "1"));
+        assertEquals("2", requestCoalescer.execute("GET /employee/2", "getEmployeeById", () -> "2"));
+        assertNull(meterRegistry.find(RequestCoalescer.COALESCED).counter());
+    }
+
+    @Test
+    void executeAsync_WhenCallsOverlap_ShouldShareOneUpstreamCall() throws Exception {
+        AtomicInteger upstreamCalls = new AtomicInteger();
+        CompletableFuture<String> upstream = new CompletableFuture<>();
+
+        CompletableFuture<String> first = requestCoalescer.executeAsync("GET /employee/1", "getEmployeeById", () -> {
+            upstreamCalls.incrementAndGet();
+            return upstream;
+        });
+        CompletableFuture<String> second = requestCoalescer.executeAsync("GET /employee/1", "getEmployeeById", () -> {
+            upstreamCalls.incrementAndGet();
+            return CompletableFuture.completedFuture("unexpected");
+        });
+        assertFalse(second.isDone());
+        upstream.complete("Alice Brown");
+
+        assertEquals("Alice Brown", first.get(5, TimeUnit.SECONDS));
+        assertEquals("Alice Brown", second.get(5, TimeUnit.SECONDS));
+        assertEquals(1, upstreamCalls.get());
+        assertEquals(1, coalescedCount());
+        assertEquals(0, requestCoalescer.inFlightCount());
+    }
+
+    @Test
+    void executeAsync_WhenCallFails_ShouldFailEveryCallerWithTheCause() {
+        CompletableFuture<String> upstream = new CompletableFuture<>();
+        CompletableFuture<String> first = requestCoalescer.executeAsync("GET /employee", "getAllEmployees", () -> upstream);
+        CompletableFuture<String> second = requestCoalescer.executeAsync("GET /employee", "getAllEmployees", () -> upstream);
+
+        upstream.completeExceptionally(new InternalException(ErrorCode.API_REQUEST_FAILURE));
+
+        for (CompletableFuture<String> result : List.of(first, second)) {
+            ExecutionException exception = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(InternalException.class, exception.getCause());
+        }
+        assertEquals(0, requestCoalescer.inFlightCount());
+    }
+
+    @Test
+    void executeAsync_AfterForgetInFlight_ShouldStartFreshCall() throws Exception {
+        CompletableFuture<String> beforeWrite = new CompletableFuture<>();
+        CompletableFuture<String> first = requestCoalescer.executeAsync("GET /employee", "getAllEmployees", () -> beforeWrite);
+
+        requestCoalescer.forgetInFlight();
+        CompletableFuture<String> second = requestCoalescer.executeAsync("GET /employee", "getAllEmployees",
+                () -> CompletableFuture.completedFuture("after write"));
+        beforeWrite.complete("before write");
+
+        assertEquals("before write", first.get(5, TimeUnit.SECONDS));
+        assertEquals("after write", second.get(5, TimeUnit.SECONDS));
+        assertEquals(0, requestCoalescer.inFlightCount());
+    }
+
+    private double coalescedCount() {
+        Counter counter = meterRegistry.find(RequestCoalescer.COALESCED).counter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
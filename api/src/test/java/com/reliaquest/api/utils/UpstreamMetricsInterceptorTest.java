@@ -0,0 +1,71 @@
+package com.reliaquest.api.utils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.URI;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class UpstreamMetricsInterceptorTest {
+
+    private static final String BASE_URL = "http://localhost:8112/api/v1/employee";
+
+    private SimpleMeterRegistry meterRegistry;
+    private RestTemplate restTemplate;
+    private MockRestServiceServer server;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        restTemplate = new RestTemplate();
+        restTemplate.setInterceptors(List.of(new UpstreamMetricsInterceptor(meterRegistry)));
+        server = MockRestServiceServer.bindTo(restTemplate).build();
+    }
+
+    @Test
+    void intercept_WhenCallSucceeds_ShouldTimeItAndCountBytesRead() {
+        String body = "{\"data\":[]}";
+        server.expect(requestTo(BASE_URL + "/4a3a170b-22cd-4ac2-aad1-9bb5b34a1507"))
+                .andRespond(withSuccess(body, MediaType.APPLICATION_JSON));
+
+        restTemplate.getForObject(BASE_URL + "/4a3a170b-22cd-4ac2-aad1-9bb5b34a1507", String.class);
+
+        assertEquals(1, meterRegistry.get(UpstreamMetricsInterceptor.REQUESTS)
+                .tag("uri", "/api/v1/employee/{id}")
+                .tag("status", "200")
+                .tag("outcome", "SUCCESS")
+                .timer().count());
+        assertEquals(body.length(), meterRegistry.get(UpstreamMetricsInterceptor.RESPONSE_BYTES).summary().totalAmount());
+        assertEquals(0, meterRegistry.get(UpstreamMetricsInterceptor.THROTTLED).counter().count());
+    }
+
+    @Test
+    void intercept_WhenUpstreamThrottles_ShouldCountIt() {
+        server.expect(requestTo(BASE_URL)).andRespond(withStatus(HttpStatus.TOO_MANY_REQUESTS));
+
+        assertThrows(HttpClientErrorException.TooManyRequests.class, () -> restTemplate.getForObject(BASE_URL, String.class));
+
+        assertEquals(1, meterRegistry.get(UpstreamMetricsInterceptor.THROTTLED).counter().count());
+        assertEquals(1, meterRegistry.get(UpstreamMetricsInterceptor.REQUESTS)
+                .tag("status", "429")
+                .tag("outcome", "CLIENT_ERROR")
+                .timer().count());
+    }
+
+    @Test
+    void uriTemplate_ShouldCollapseIdSegments() {
+        assertEquals("/api/v1/employee/{id}", UpstreamMetricsInterceptor.uriTemplate(URI.create(BASE_URL + "/42")));
+        assertEquals("/api/v1/employee", UpstreamMetricsInterceptor.uriTemplate(URI.create(BASE_URL)));
+    }
+}
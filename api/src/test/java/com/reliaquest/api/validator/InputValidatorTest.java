@@ -2,6 +2,7 @@ package com.reliaquest.api.validator;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import com.reliaquest.api.entity.CreateEmployee;
 import com.reliaquest.api.entity.CreateEmployeeDTO;
 import com.reliaquest.api.exceptions.ValidationException;
 import org.junit.jupiter.api.Test;
@@ -113,4 +114,40 @@ class InputValidatorTest {
         assertEquals("Age cannot be above 100", exception.getError().getMessage());
         assertEquals("ERR-307", exception.getError().getCode());
     }
-}
\ No newline at end of file
+
+    @Test
+    void convertAndValidateEmployeeInput_NonNumericSalary() {
+        Map<String, Object> employeeInput = new HashMap<>();
+        employeeInput.put("name", "John Doe");
+        employeeInput.put("salary", "fifty thousand");
+        employeeInput.put("age", "30");
+
+        ValidationException exception = assertThrows(ValidationException.class, () -> {
+            InputValidator.convertAndValidateEmployeeInput(employeeInput);
+        });
+
+        assertEquals("ERR-303", exception.getError().getCode());
+    }
+
+    @Test
+    void convertAndValidateEmployeeInput_FromCreateEmployee() {
+        CreateEmployee employeeInput = new CreateEmployee(null, "John Doe", "50000", "30", "Software Engineer", "johndoe@reliaquest.com");
+
+        CreateEmployeeDTO result = InputValidator.convertAndValidateEmployeeInput(employeeInput);
+
+        assertEquals("John Doe", result.getName());
+        assertEquals("50000", result.getSalary());
+        assertEquals("30", result.getAge());
+    }
+
+    @Test
+    void convertAndValidateEmployeeInput_FromCreateEmployeeWithAgeOver100() {
+        CreateEmployee employeeInput = new CreateEmployee(null, "John Doe", "50000", "130", "Software Engineer", "johndoe@reliaquest.com");
+
+        ValidationException exception = assertThrows(ValidationException.class, () -> {
+            InputValidator.convertAndValidateEmployeeInput(employeeInput);
+        });
+
+        assertEquals("ERR-307", exception.getError().getCode());
+    }
+}
@@ -0,0 +1,103 @@
+package com.reliaquest.server.config;
+
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reliaquest.server.model.MockEmployee;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.IntStream;
+import lombok.NonNull;
+import net.datafaker.Faker;
+
+/**
+ * Builds the initial mock roster, either generated or read from a file.
+ *
+ * <p>Generation is split into chunks of {@link #CHUNK_SIZE} employees that the common fork-join pool fills in
+ * parallel, each chunk with its own {@link Faker} and {@link Random}, building {@link MockEmployee}s directly rather
+ * than through datafaker's reflective transformer. With a seed, every chunk's random source is derived from the seed
+ * and the chunk's position, so the same seed gives the same roster, ids included, however the chunks are scheduled.
+ */
+public final class MockRosterSeeder {
+
+    static final int CHUNK_SIZE = 10_000;
+
+    private MockRosterSeeder() {}
+
+    public static List<MockEmployee> generate(int count, Long seed, @NonNull Locale locale) {
+        final long baseSeed = seed == null ? ThreadLocalRandom.current().nextLong() : seed;
+        final int chunks = (count + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        return IntStream.range(0, chunks)
+                .parallel()
+                .mapToObj(chunk -> generateChunk(
+                        Math.min(CHUNK_SIZE, count - chunk * CHUNK_SIZE), chunkSeed(baseSeed, chunk), locale))
+                .flatMap(List::stream)
+                .toList();
+    }
+
+    /**
+     * Reads a roster saved from {@code GET /api/v1/employee}, either the whole response or just its {@code data}
+     * array, e.g. {@code curl -s localhost:8112/api/v1/employee > roster.json}. The file is streamed, so only the
+     * employees themselves are held in memory.
+     */
+    public static List<MockEmployee> read(@NonNull ObjectMapper objectMapper, @NonNull Path file) throws IOException {
+        try (final var parser = objectMapper.createParser(file.toFile())) {
+            if (parser.nextToken() == JsonToken.START_OBJECT) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    final var field = parser.currentName();
+                    parser.nextToken();
+                    if ("data".equals(field)) {
+                        break;
+                    }
+                    parser.skipChildren();
+                }
+            }
+            if (parser.currentToken() != JsonToken.START_ARRAY) {
+                throw new IOException("Expected an array of employees, or a response with one as data, in " + file);
+            }
+            final var employees = new ArrayList<MockEmployee>();
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                employees.add(objectMapper.readValue(parser, MockEmployee.class));
+            }
+            return employees;
+        }
+    }
+
+    private static List<MockEmployee> generateChunk(int size, long chunkSeed, Locale locale) {
+        final var random = new Random(chunkSeed);
+        final var faker = new Faker(locale, random);
+        final var employees = new ArrayList<MockEmployee>(size);
+        for (int i = 0; i < size; i++) {
+            employees.add(MockEmployee.builder()
+                    .id(randomUuid(random))
+                    .name(faker.name().fullName())
+                    .salary(faker.number().numberBetween(30000, 500000))
+                    .age(faker.number().numberBetween(16, 70))
+                    .title(faker.job().title())
+                    .email(ServerConfiguration.EMAIL_TEMPLATE.formatted(
+                            faker.twitter().userName().toLowerCase()))
+                    .build());
+        }
+        return employees;
+    }
+
+    private static long chunkSeed(long baseSeed, int chunk) {
+        // SplitMix64 finalizer, so that neighbouring chunks do not get correlated sequences.
+        long z = baseSeed + (chunk + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /** A version 4 UUID drawn from {@code random}, so seeded rosters get the same ids every time. */
+    private static UUID randomUuid(Random random) {
+        final long mostSigBits = (random.nextLong() & ~0xF000L) | 0x4000L;
+        final long leastSigBits = (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(mostSigBits, leastSigBits);
+    }
+}
@@ -1,19 +1,21 @@
 package com.reliaquest.server.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.reliaquest.server.model.MockEmployee;
+import com.reliaquest.server.persistence.MockRosterPersistence;
+import com.reliaquest.server.service.MockEmployeeStore;
 import com.reliaquest.server.web.RandomRequestLimitInterceptor;
-import java.util.ArrayList;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.List;
 import java.util.Locale;
-import java.util.UUID;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
+import java.util.concurrent.TimeUnit;
 import lombok.extern.slf4j.Slf4j;
 import net.datafaker.Faker;
-import net.datafaker.transformations.Field;
-import net.datafaker.transformations.JavaObjectTransformer;
-import net.datafaker.transformations.Schema;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
@@ -31,25 +33,58 @@ public class ServerConfiguration implements WebMvcConfigurer {
     }
 
     /*
-     * This list is modifiable by design for CRUD operations.
+     * Only with mock.employees.persistence.directory set: the roster then survives restarts, and is only seeded as
+     * below when the directory holds no snapshot yet.
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "mock.employees.persistence.directory")
+    public MockRosterPersistence mockRosterPersistence(
+            @Value("${mock.employees.persistence.directory}") String directory,
+            @Value("${mock.employees.persistence.snapshot-interval:5m}") Duration snapshotInterval) {
+        return new MockRosterPersistence(Path.of(directory), snapshotInterval);
+    }
+
+    /*
+     * The store is modifiable by design for CRUD operations, from concurrent requests.
+     * It starts from mock.employees.roster-file if set, otherwise from mock.employees.max generated employees,
+     * the same ones on every start when mock.employees.seed is set.
      */
     @Bean
-    public List<MockEmployee> mockEmployees(Faker faker, @Value("${mock.employees.max:20}") int maxEmployees) {
-        final var transformer = new JavaObjectTransformer();
-        final var schema = Schema.of(
-                Field.field("id", UUID::randomUUID),
-                Field.field("name", () -> faker.name().fullName()),
-                Field.field("salary", () -> faker.number().numberBetween(30000, 500000)),
-                Field.field("age", () -> faker.number().numberBetween(16, 70)),
-                Field.field("title", () -> faker.job().title()),
-                Field.field(
-                        "email",
-                        () -> EMAIL_TEMPLATE.formatted(
-                                faker.twitter().userName().toLowerCase())));
-        return IntStream.rangeClosed(1, maxEmployees)
-                .mapToObj(ignored -> (MockEmployee) transformer.apply(MockEmployee.class, schema))
-                .peek(mockEmployee -> log.debug("Created employee: {}", mockEmployee))
-                .collect(Collectors.toCollection(ArrayList::new));
+    public MockEmployeeStore mockEmployees(
+            ObjectMapper objectMapper,
+            ObjectProvider<MockRosterPersistence> persistence,
+            @Value("${mock.employees.max:20}") int maxEmployees,
+            @Value("${mock.employees.seed:#{null}}") Long seed,
+            @Value("${mock.employees.roster-file:}") String rosterFile)
+            throws IOException {
+        final var rosterPersistence = persistence.getIfAvailable();
+        if (rosterPersistence != null && rosterPersistence.hasSnapshot()) {
+            return rosterPersistence.restore();
+        }
+        final var store = new MockEmployeeStore(seedRoster(objectMapper, maxEmployees, seed, rosterFile));
+        return rosterPersistence == null ? store : rosterPersistence.track(store);
+    }
+
+    private static List<MockEmployee> seedRoster(
+            ObjectMapper objectMapper, int maxEmployees, Long seed, String rosterFile) throws IOException {
+        final long start = System.nanoTime();
+        final List<MockEmployee> employees;
+        if (rosterFile.isBlank()) {
+            employees = MockRosterSeeder.generate(maxEmployees, seed, Locale.getDefault());
+            log.info(
+                    "Generated {} employees{} in {} ms",
+                    employees.size(),
+                    seed == null ? "" : " from seed " + seed,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } else {
+            employees = MockRosterSeeder.read(objectMapper, Path.of(rosterFile));
+            log.info(
+                    "Loaded {} employees from {} in {} ms",
+                    employees.size(),
+                    rosterFile,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+        return employees;
     }
 
     @Override
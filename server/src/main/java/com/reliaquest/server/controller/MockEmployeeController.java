@@ -3,12 +3,19 @@ package com.reliaquest.server.controller;
 import com.reliaquest.server.model.CreateMockEmployeeInput;
 import com.reliaquest.server.model.DeleteMockEmployeeInput;
 import com.reliaquest.server.model.MockEmployee;
+import com.reliaquest.server.model.MockEmployeePage;
+import com.reliaquest.server.model.MockRosterChanges;
 import com.reliaquest.server.model.Response;
+import com.reliaquest.server.model.SalaryStats;
 import com.reliaquest.server.service.MockEmployeeService;
 import jakarta.validation.Valid;
+import java.time.Duration;
 import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -17,6 +24,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
@@ -26,9 +34,83 @@ public class MockEmployeeController {
 
     private final MockEmployeeService mockEmployeeService;
 
+    /*
+     * The ETag is the roster version. When If-None-Match already has it, Spring answers 304 without serializing or
+     * sending the roster. It is weak because the roster goes out as JSON, Smile or CBOR, gzipped or not, and Tomcat
+     * never compresses a response with a strong ETag; Vary: Accept tells caches the format depends on Accept.
+     */
     @GetMapping()
-    public Response<List<MockEmployee>> getEmployees() {
-        return Response.handledWith(mockEmployeeService.getMockEmployees());
+    public ResponseEntity<Response<List<MockEmployee>>> getEmployees() {
+        final var roster = mockEmployeeService.getVersionedRoster();
+        return ResponseEntity.ok()
+                .eTag("W/\"" + roster.version() + "\"")
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(Response.handledWith(roster.employees()));
+    }
+
+    /*
+     * The creates and deletes since the roster version in the ETag of an earlier response, or 410 when they are no
+     * longer known and the whole roster has to be fetched again. With waitMillis set this is a long poll: it answers as soon as
+     * there is a change, or with no changes once waitMillis has passed, holding a request thread meanwhile.
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<Response<MockRosterChanges>> getChanges(
+            @RequestParam("since") String since,
+            @RequestParam(name = "waitMillis", defaultValue = "0") long waitMillis) {
+        return mockEmployeeService
+                .getChangesSince(since, Duration.ofMillis(waitMillis))
+                .map(changes -> ResponseEntity.ok(Response.handledWith(changes)))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.GONE).body(Response.handled()));
+    }
+
+    /*
+     * With limit set: one page, either at offset in a snapshot of the roster or after the nextCursor of the previous
+     * page, starting from the first page when neither is given.
+     */
+    @GetMapping(params = "limit")
+    public Response<MockEmployeePage> getEmployeePage(
+            @RequestParam("limit") int limit,
+            @RequestParam(name = "offset", required = false) Integer offset,
+            @RequestParam(name = "cursor", required = false) String cursor) {
+        if (Objects.nonNull(offset) && Objects.nonNull(cursor)) {
+            throw new IllegalArgumentException("Page by either offset or cursor, not both");
+        }
+        return Response.handledWith(
+                Objects.nonNull(offset)
+                        ? mockEmployeeService.getPage(offset, limit)
+                        : mockEmployeeService.getPageAfter(cursor, limit));
+    }
+
+    @GetMapping("/search")
+    public Response<List<MockEmployee>> searchEmployees(
+            @RequestParam("name") String name,
+            @RequestParam(name = "mode", defaultValue = "contains") String mode,
+            @RequestParam(name = "ignoreCase", defaultValue = "false") boolean ignoreCase,
+            @RequestParam(name = "offset", defaultValue = "0") int offset,
+            @RequestParam(name = "limit", defaultValue = "" + Integer.MAX_VALUE) int limit) {
+        return Response.handledWith(
+                mockEmployeeService.searchByName(name, isPrefix(mode), ignoreCase, offset, limit));
+    }
+
+    @GetMapping("/salary-range")
+    public Response<List<MockEmployee>> getEmployeesBySalary(
+            @RequestParam(name = "min", required = false) Integer min,
+            @RequestParam(name = "max", required = false) Integer max,
+            @RequestParam(name = "offset", defaultValue = "0") int offset,
+            @RequestParam(name = "limit", defaultValue = "" + Integer.MAX_VALUE) int limit) {
+        return Response.handledWith(mockEmployeeService.findBySalary(min, max, offset, limit));
+    }
+
+    @GetMapping("/top-by-salary")
+    public Response<List<MockEmployee>> getTopEmployeesBySalary(
+            @RequestParam(name = "limit", defaultValue = "10") int limit,
+            @RequestParam(name = "order", defaultValue = "desc") String order) {
+        return Response.handledWith(mockEmployeeService.topBySalary(limit, isDescending(order)));
+    }
+
+    @GetMapping("/salary-stats")
+    public Response<SalaryStats> getSalaryStats() {
+        return Response.handledWith(mockEmployeeService.getSalaryStats());
     }
 
     @GetMapping("/{id}")
@@ -48,4 +130,25 @@ public class MockEmployeeController {
     public Response<Boolean> deleteEmployee(@Valid @RequestBody DeleteMockEmployeeInput input) {
         return Response.handledWith(mockEmployeeService.delete(input));
     }
+
+    @DeleteMapping("/{id}")
+    public Response<MockEmployee> deleteEmployeeById(@PathVariable("id") UUID uuid) {
+        return mockEmployeeService.deleteById(uuid).map(Response::handledWith).orElseGet(Response::handled);
+    }
+
+    private static boolean isPrefix(String mode) {
+        return switch (mode.toLowerCase(Locale.ROOT)) {
+            case "contains" -> false;
+            case "prefix" -> true;
+            default -> throw new IllegalArgumentException("Search mode must be either contains or prefix");
+        };
+    }
+
+    private static boolean isDescending(String order) {
+        return switch (order.toLowerCase(Locale.ROOT)) {
+            case "desc" -> true;
+            case "asc" -> false;
+            default -> throw new IllegalArgumentException("Sort order must be either asc or desc");
+        };
+    }
 }
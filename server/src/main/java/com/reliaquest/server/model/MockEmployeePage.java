@@ -0,0 +1,11 @@
+package com.reliaquest.server.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.util.List;
+
+/**
+ * One page of the roster. {@code nextOffset} is set on offset pages and {@code nextCursor} on cursor pages, in both
+ * cases only when there is a next page.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record MockEmployeePage(List<MockEmployee> employees, int total, Integer nextOffset, String nextCursor) {}
@@ -0,0 +1,12 @@
+package com.reliaquest.server.model;
+
+/**
+ * One create or delete in the roster's change log. A removal carries the employee as it was when removed.
+ */
+public record MockRosterChange(Type type, MockEmployee employee) {
+
+    public enum Type {
+        ADDED,
+        REMOVED
+    }
+}
@@ -0,0 +1,9 @@
+package com.reliaquest.server.model;
+
+import java.util.List;
+
+/**
+ * The changes made to the roster after some version, oldest first. Applying them to the roster as it was at that
+ * version gives the roster at {@code version}, which is where the next request for changes picks up.
+ */
+public record MockRosterChanges(String version, List<MockRosterChange> changes) {}
@@ -0,0 +1,63 @@
+package com.reliaquest.server.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Salary statistics over the whole roster and per title. {@code employees} counts everyone, while the summaries only
+ * cover employees with a salary; {@code all} is left out when nobody has one.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record SalaryStats(int employees, Summary all, Map<String, Summary> byTitle) {
+
+    /**
+     * Percentiles are nearest-rank: the lowest salary at least that share of the group earns no more than.
+     */
+    public record Summary(int count, int min, int max, double average, int p50, int p90, int p99) {
+
+        static Summary of(int[] sortedSalaries) {
+            final int count = sortedSalaries.length;
+            return new Summary(
+                    count,
+                    sortedSalaries[0],
+                    sortedSalaries[count - 1],
+                    Arrays.stream(sortedSalaries).asLongStream().sum() / (double) count,
+                    percentile(sortedSalaries, 50),
+                    percentile(sortedSalaries, 90),
+                    percentile(sortedSalaries, 99));
+        }
+
+        private static int percentile(int[] sortedSalaries, int percent) {
+            final int rank = (int) Math.ceil(percent / 100.0 * sortedSalaries.length);
+            return sortedSalaries[Math.max(rank, 1) - 1];
+        }
+    }
+
+    public static SalaryStats of(List<MockEmployee> roster) {
+        final var salaried = roster.stream()
+                .filter(mockEmployee -> Objects.nonNull(mockEmployee.getSalary()))
+                .toList();
+        if (salaried.isEmpty()) {
+            return new SalaryStats(roster.size(), null, Map.of());
+        }
+        final Map<String, Summary> byTitle = salaried.stream()
+                .filter(mockEmployee -> Objects.nonNull(mockEmployee.getTitle()))
+                .collect(Collectors.groupingBy(
+                        MockEmployee::getTitle,
+                        TreeMap::new,
+                        Collectors.collectingAndThen(Collectors.toList(), SalaryStats::summarize)));
+        return new SalaryStats(roster.size(), summarize(salaried), byTitle);
+    }
+
+    private static Summary summarize(List<MockEmployee> salaried) {
+        return Summary.of(salaried.stream()
+                .mapToInt(MockEmployee::getSalary)
+                .sorted()
+                .toArray());
+    }
+}
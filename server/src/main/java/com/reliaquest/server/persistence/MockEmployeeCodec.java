@@ -0,0 +1,84 @@
+package com.reliaquest.server.persistence;
+
+import com.reliaquest.server.model.MockEmployee;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Binary form of a {@link MockEmployee}, shared by snapshots and the change log: a byte of flags for which of id,
+ * salary and age are present, the id as two longs, salary and age as ints, then name, title and email as UTF-8 with an
+ * int length, -1 standing for null. All big-endian, as written by {@link DataOutput} and read by {@link ByteBuffer}.
+ */
+final class MockEmployeeCodec {
+
+    private static final int HAS_ID = 1;
+    private static final int HAS_SALARY = 1 << 1;
+    private static final int HAS_AGE = 1 << 2;
+
+    private MockEmployeeCodec() {}
+
+    static void write(DataOutput out, MockEmployee mockEmployee) throws IOException {
+        final var id = mockEmployee.getId();
+        final var salary = mockEmployee.getSalary();
+        final var age = mockEmployee.getAge();
+        out.writeByte((Objects.nonNull(id) ? HAS_ID : 0)
+                | (Objects.nonNull(salary) ? HAS_SALARY : 0)
+                | (Objects.nonNull(age) ? HAS_AGE : 0));
+        out.writeLong(Objects.nonNull(id) ? id.getMostSignificantBits() : 0L);
+        out.writeLong(Objects.nonNull(id) ? id.getLeastSignificantBits() : 0L);
+        out.writeInt(Objects.nonNull(salary) ? salary : 0);
+        out.writeInt(Objects.nonNull(age) ? age : 0);
+        writeString(out, mockEmployee.getName());
+        writeString(out, mockEmployee.getTitle());
+        writeString(out, mockEmployee.getEmail());
+    }
+
+    static MockEmployee read(ByteBuffer in) {
+        final int flags = in.get();
+        final long mostSigBits = in.getLong();
+        final long leastSigBits = in.getLong();
+        final int salary = in.getInt();
+        final int age = in.getInt();
+        return MockEmployee.builder()
+                .id((flags & HAS_ID) != 0 ? new UUID(mostSigBits, leastSigBits) : null)
+                .salary((flags & HAS_SALARY) != 0 ? salary : null)
+                .age((flags & HAS_AGE) != 0 ? age : null)
+                .name(readString(in))
+                .title(readString(in))
+                .email(readString(in))
+                .build();
+    }
+
+    static void writeUuid(DataOutput out, UUID id) throws IOException {
+        out.writeLong(id.getMostSignificantBits());
+        out.writeLong(id.getLeastSignificantBits());
+    }
+
+    static UUID readUuid(ByteBuffer in) {
+        return new UUID(in.getLong(), in.getLong());
+    }
+
+    private static void writeString(DataOutput out, String value) throws IOException {
+        if (Objects.isNull(value)) {
+            out.writeInt(-1);
+            return;
+        }
+        final var bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer in) {
+        final int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        final var bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,120 @@
+package com.reliaquest.server.persistence;
+
+import com.reliaquest.server.model.MockEmployee;
+import com.reliaquest.server.service.MockEmployeeStore;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.UUID;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Append-only log of the changes made to the roster since a snapshot. Each record is its payload length and CRC32,
+ * then a type byte and either the added employee in {@link MockEmployeeCodec} form or the removed employee's id.
+ * Replay stops at the first short or corrupt record, which is where a crash mid-append leaves the log.
+ */
+@Slf4j
+final class MockRosterJournal implements Closeable {
+
+    private static final byte ADDED = 1;
+    private static final byte REMOVED = 2;
+    private static final int HEADER_BYTES = 2 * Integer.BYTES;
+
+    private final FileChannel channel;
+    // Not synchronized, so that request threads on virtual threads do not pin their carrier while appending.
+    private final Lock appendLock = new ReentrantLock();
+
+    private MockRosterJournal(FileChannel channel) {
+        this.channel = channel;
+    }
+
+    /** Starts an empty log at {@code file}, replacing whatever was there. */
+    static MockRosterJournal create(Path file) throws IOException {
+        return new MockRosterJournal(FileChannel.open(
+                file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING));
+    }
+
+    void appendAdded(MockEmployee mockEmployee) throws IOException {
+        final var payload = new ByteArrayOutputStream(128);
+        final var out = new DataOutputStream(payload);
+        out.writeByte(ADDED);
+        MockEmployeeCodec.write(out, mockEmployee);
+        append(payload.toByteArray());
+    }
+
+    void appendRemoved(UUID id) throws IOException {
+        final var payload = new ByteArrayOutputStream(1 + 2 * Long.BYTES);
+        final var out = new DataOutputStream(payload);
+        out.writeByte(REMOVED);
+        MockEmployeeCodec.writeUuid(out, id);
+        append(payload.toByteArray());
+    }
+
+    /**
+     * Applies the changes logged in {@code file} to {@code store}, in order.
+     *
+     * @return the number of changes applied
+     */
+    static int replay(Path file, MockEmployeeStore store) throws IOException {
+        try (final var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final var buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            final var crc = new CRC32();
+            int applied = 0;
+            while (buffer.remaining() >= HEADER_BYTES) {
+                final int length = buffer.getInt();
+                final int checksum = buffer.getInt();
+                if (length <= 0 || length > buffer.remaining()) {
+                    break;
+                }
+                final var payload = buffer.slice(buffer.position(), length);
+                crc.reset();
+                crc.update(payload.duplicate());
+                if ((int) crc.getValue() != checksum) {
+                    break;
+                }
+                buffer.position(buffer.position() + length);
+                switch (payload.get()) {
+                    case ADDED -> store.add(MockEmployeeCodec.read(payload));
+                    case REMOVED -> store.removeById(MockEmployeeCodec.readUuid(payload));
+                    default -> throw new IOException("Unknown change log record in " + file);
+                }
+                applied++;
+            }
+            if (buffer.hasRemaining()) {
+                log.warn("Ignoring {} bytes of incomplete change log at the end of {}", buffer.remaining(), file);
+            }
+            return applied;
+        }
+    }
+
+    private void append(byte[] payload) throws IOException {
+        final var crc = new CRC32();
+        crc.update(payload);
+        final var record = ByteBuffer.allocate(HEADER_BYTES + payload.length)
+                .putInt(payload.length)
+                .putInt((int) crc.getValue())
+                .put(payload)
+                .flip();
+        appendLock.lock();
+        try {
+            while (record.hasRemaining()) {
+                channel.write(record);
+            }
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
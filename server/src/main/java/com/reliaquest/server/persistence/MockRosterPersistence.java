@@ -0,0 +1,227 @@
+package com.reliaquest.server.persistence;
+
+import com.reliaquest.server.model.MockEmployee;
+import com.reliaquest.server.service.MockEmployeeStore;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps the roster across restarts in a directory holding a binary snapshot, {@code roster.snapshot}, and the log of
+ * changes made since, {@code journal-<generation>.log}.
+ *
+ * <p>Every snapshot starts a new generation: the store switches to a fresh change log while no write is in flight, the
+ * snapshot is written under the new generation, and only then are older logs deleted. A restart restores the snapshot
+ * and replays every log of its generation or later, so it loses nothing that reached the log whichever step a crash
+ * interrupted. Changes are appended without forcing them to disk, so those still in the page cache when the machine,
+ * rather than the server, goes down are lost.
+ *
+ * <p>Snapshots are taken every {@code snapshotInterval} if anything changed, and on {@link #close()}, which keeps the
+ * logs, and restart time, short.
+ */
+@Slf4j
+public class MockRosterPersistence implements MockEmployeeStore.ChangeListener, Closeable {
+
+    static final String SNAPSHOT_FILE = "roster.snapshot";
+    private static final Pattern JOURNAL_FILE = Pattern.compile("journal-(\\d+)\\.log");
+
+    private final Path directory;
+    private final Duration snapshotInterval;
+    private final AtomicLong changesSinceSnapshot = new AtomicLong();
+    private final Lock checkpointLock = new ReentrantLock();
+
+    private MockEmployeeStore store;
+    private volatile MockRosterJournal journal;
+    private long generation;
+    private ScheduledExecutorService scheduler;
+
+    public MockRosterPersistence(@NonNull Path directory, @NonNull Duration snapshotInterval) {
+        this.directory = directory;
+        this.snapshotInterval = snapshotInterval;
+    }
+
+    public boolean hasSnapshot() {
+        return Files.isRegularFile(directory.resolve(SNAPSHOT_FILE));
+    }
+
+    /**
+     * Rebuilds the roster from the snapshot and change logs, and keeps logging its changes.
+     */
+    public MockEmployeeStore restore() throws IOException {
+        final long start = System.nanoTime();
+        final var contents = MockRosterSnapshot.read(directory.resolve(SNAPSHOT_FILE));
+        final var restored = new MockEmployeeStore(contents.employees());
+        generation = contents.generation();
+        int replayed = 0;
+        long lastGeneration = generation;
+        for (Path file : journalsFrom(generation)) {
+            replayed += MockRosterJournal.replay(file, restored);
+            lastGeneration = journalGeneration(file);
+        }
+        log.info(
+                "Restored {} employees from {} and {} logged changes in {} ms",
+                restored.size(),
+                directory,
+                replayed,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        // With nothing replayed, carry on with this generation's log, dropping any torn record at its end.
+        start(restored, replayed > 0 || lastGeneration != generation);
+        return restored;
+    }
+
+    /**
+     * Snapshots a newly seeded roster and keeps logging its changes.
+     */
+    public MockEmployeeStore track(@NonNull MockEmployeeStore seeded) throws IOException {
+        Files.createDirectories(directory);
+        start(seeded, true);
+        return seeded;
+    }
+
+    /**
+     * Writes a snapshot of the roster and starts a new change log.
+     */
+    public void checkpoint() throws IOException {
+        checkpointLock.lock();
+        try {
+            final long start = System.nanoTime();
+            final long next = generation + 1;
+            final var nextJournal = MockRosterJournal.create(journalFile(next));
+            final var previous = new MockRosterJournal[1];
+            final var employees = store.checkpoint(() -> {
+                previous[0] = journal;
+                journal = nextJournal;
+                changesSinceSnapshot.set(0);
+            });
+            // No writer can still be appending to it once the checkpoint has excluded them.
+            if (Objects.nonNull(previous[0])) {
+                previous[0].close();
+            }
+            MockRosterSnapshot.write(directory.resolve(SNAPSHOT_FILE), next, employees);
+            generation = next;
+            for (Path file : journals()) {
+                if (journalGeneration(file) < next) {
+                    Files.deleteIfExists(file);
+                }
+            }
+            log.info(
+                    "Wrote snapshot of {} employees, generation {}, in {} ms",
+                    employees.size(),
+                    next,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } finally {
+            checkpointLock.unlock();
+        }
+    }
+
+    @Override
+    public void added(MockEmployee mockEmployee) {
+        try {
+            journal.appendAdded(mockEmployee);
+            changesSinceSnapshot.incrementAndGet();
+        } catch (IOException e) {
+            log.error("Could not log added employee {}, it is only kept from the next snapshot", mockEmployee, e);
+        }
+    }
+
+    @Override
+    public void removed(MockEmployee mockEmployee) {
+        if (Objects.isNull(mockEmployee.getId())) {
+            changesSinceSnapshot.incrementAndGet();
+            return;
+        }
+        try {
+            journal.appendRemoved(mockEmployee.getId());
+            changesSinceSnapshot.incrementAndGet();
+        } catch (IOException e) {
+            log.error("Could not log removed employee {}, it is only gone from the next snapshot", mockEmployee, e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (Objects.nonNull(scheduler)) {
+            scheduler.shutdown();
+        }
+        if (Objects.isNull(store)) {
+            return;
+        }
+        if (changesSinceSnapshot.get() > 0) {
+            checkpoint();
+        }
+        journal.close();
+    }
+
+    private void start(MockEmployeeStore started, boolean checkpointNow) throws IOException {
+        store = started;
+        if (checkpointNow) {
+            checkpoint();
+        } else {
+            journal = MockRosterJournal.create(journalFile(generation));
+        }
+        store.addChangeListener(this);
+        if (!snapshotInterval.isZero() && !snapshotInterval.isNegative()) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                final var thread = new Thread(runnable, "roster-snapshot");
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduler.scheduleWithFixedDelay(
+                    this::checkpointIfChanged,
+                    snapshotInterval.toMillis(),
+                    snapshotInterval.toMillis(),
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void checkpointIfChanged() {
+        if (changesSinceSnapshot.get() == 0) {
+            return;
+        }
+        try {
+            checkpoint();
+        } catch (IOException | RuntimeException e) {
+            log.error("Could not write roster snapshot to {}", directory, e);
+        }
+    }
+
+    private List<Path> journalsFrom(long fromGeneration) throws IOException {
+        return journals().stream()
+                .filter(file -> journalGeneration(file) >= fromGeneration)
+                .sorted(Comparator.comparingLong(MockRosterPersistence::journalGeneration))
+                .toList();
+    }
+
+    private List<Path> journals() throws IOException {
+        try (final var files = Files.list(directory)) {
+            return files.filter(file -> JOURNAL_FILE.matcher(file.getFileName().toString()).matches())
+                    .toList();
+        }
+    }
+
+    private Path journalFile(long journalGeneration) {
+        return directory.resolve("journal-" + journalGeneration + ".log");
+    }
+
+    private static long journalGeneration(Path file) {
+        final var matcher = JOURNAL_FILE.matcher(file.getFileName().toString());
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("Not a change log: " + file);
+        }
+        return Long.parseLong(matcher.group(1));
+    }
+}
@@ -0,0 +1,75 @@
+package com.reliaquest.server.persistence;
+
+import com.reliaquest.server.model.MockEmployee;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A whole roster in one file: a header of magic number, format version, the change log generation the snapshot was
+ * taken at and the employee count, then every employee in {@link MockEmployeeCodec} form, in roster order.
+ *
+ * <p>Snapshots are written to a temporary file, synced and moved over the previous one, so a crash mid-write leaves
+ * the previous snapshot in place. They are read through a memory mapping, straight from the page cache.
+ */
+final class MockRosterSnapshot {
+
+    private static final int MAGIC = 0x4D524F53; // "MROS"
+    private static final short VERSION = 1;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    record Contents(long generation, List<MockEmployee> employees) {}
+
+    private MockRosterSnapshot() {}
+
+    static void write(Path file, long generation, List<MockEmployee> employees) throws IOException {
+        final var temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (final var channel = FileChannel.open(
+                temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            final var out =
+                    new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE));
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeLong(generation);
+            out.writeInt(employees.size());
+            for (MockEmployee mockEmployee : employees) {
+                MockEmployeeCodec.write(out, mockEmployee);
+            }
+            out.flush();
+            channel.force(true);
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    static Contents read(Path file) throws IOException {
+        try (final var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Roster snapshot too large to map: " + file);
+            }
+            final var buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < Integer.BYTES + Short.BYTES
+                    || buffer.getInt() != MAGIC
+                    || buffer.getShort() != VERSION) {
+                throw new IOException("Not a version " + VERSION + " roster snapshot: " + file);
+            }
+            final long generation = buffer.getLong();
+            final int count = buffer.getInt();
+            final var employees = new ArrayList<MockEmployee>(count);
+            for (int i = 0; i < count; i++) {
+                employees.add(MockEmployeeCodec.read(buffer));
+            }
+            return new Contents(generation, employees);
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Truncated roster snapshot: " + file, e);
+        }
+    }
+}
@@ -4,32 +4,158 @@ import com.reliaquest.server.config.ServerConfiguration;
 import com.reliaquest.server.model.CreateMockEmployeeInput;
 import com.reliaquest.server.model.DeleteMockEmployeeInput;
 import com.reliaquest.server.model.MockEmployee;
+import com.reliaquest.server.model.MockEmployeePage;
+import com.reliaquest.server.model.MockRosterChanges;
+import com.reliaquest.server.model.SalaryStats;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.Base64;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
-import lombok.Getter;
 import lombok.NonNull;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import net.datafaker.Faker;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class MockEmployeeService {
 
+    public static final int MAX_PAGE_SIZE = 1000;
+    public static final int DEFAULT_CHANGE_LOG_CAPACITY = 10_000;
+    public static final Duration MAX_CHANGES_WAIT = Duration.ofSeconds(30);
+    private static final byte CURSOR_VERSION = 1;
+
     private final Faker faker;
 
-    @Getter
-    private final List<MockEmployee> mockEmployees;
+    private final MockEmployeeStore mockEmployees;
+
+    private final MockRosterChangeLog changeLog;
+
+    private volatile StatsOf salaryStats;
+
+    public MockEmployeeService(Faker faker, MockEmployeeStore mockEmployees) {
+        this(faker, mockEmployees, DEFAULT_CHANGE_LOG_CAPACITY);
+    }
+
+    /*
+     * Every create and delete from here on, through this service or not, is recorded in a change log of the last
+     * mock.employees.change-log.capacity changes.
+     */
+    @Autowired
+    public MockEmployeeService(
+            Faker faker,
+            MockEmployeeStore mockEmployees,
+            @Value("${mock.employees.change-log.capacity:" + DEFAULT_CHANGE_LOG_CAPACITY + "}") int changeLogCapacity) {
+        this.faker = faker;
+        this.mockEmployees = mockEmployees;
+        this.changeLog = new MockRosterChangeLog(changeLogCapacity);
+        mockEmployees.addChangeListener(changeLog);
+    }
+
+    /**
+     * @return a consistent, immutable snapshot of the roster
+     */
+    public List<MockEmployee> getMockEmployees() {
+        return mockEmployees.snapshot();
+    }
+
+    /**
+     * The same snapshot as {@link #getMockEmployees()}, with the version of the roster it shows, so that
+     * {@link #getChangesSince} can bring it up to date later.
+     */
+    public VersionedRoster getVersionedRoster() {
+        final var version = new String[1];
+        final var roster = mockEmployees.checkpoint(() -> version[0] = changeLog.currentVersion());
+        return new VersionedRoster(roster, version[0]);
+    }
+
+    /**
+     * The creates and deletes after roster version {@code since}, waiting up to {@code maxWait} for the next one if
+     * there are none yet.
+     *
+     * @return empty when the changes since that version are no longer known, so the whole roster has to be fetched
+     */
+    public Optional<MockRosterChanges> getChangesSince(@NonNull String since, @NonNull Duration maxWait) {
+        if (maxWait.isNegative() || maxWait.compareTo(MAX_CHANGES_WAIT) > 0) {
+            throw new IllegalArgumentException("Wait must be between 0 and " + MAX_CHANGES_WAIT.toMillis() + " ms");
+        }
+        return changeLog.changesSince(since, maxWait);
+    }
+
+    /**
+     * A page of a consistent snapshot of the roster. Offsets shift when employees ahead of them are added or removed
+     * between pages; {@link #getPageAfter} does not.
+     */
+    public MockEmployeePage getPage(int offset, int limit) {
+        checkPageSize(limit);
+        if (offset < 0) {
+            throw new IllegalArgumentException("Offset must not be negative");
+        }
+        final var roster = mockEmployees.snapshot();
+        final int from = Math.min(offset, roster.size());
+        final int to = Math.min(from + limit, roster.size());
+        return new MockEmployeePage(roster.subList(from, to), roster.size(), to < roster.size() ? to : null, null);
+    }
+
+    /**
+     * The page following {@code cursor}, or the first page when it is null. A cursor stays valid across adds and
+     * removes: the next page starts right after the last employee returned, whether or not it is still there.
+     */
+    public MockEmployeePage getPageAfter(String cursor, int limit) {
+        checkPageSize(limit);
+        final var slice = mockEmployees.slice(Objects.isNull(cursor) ? -1 : decodeCursor(cursor), limit);
+        return new MockEmployeePage(
+                slice.employees(), mockEmployees.size(), null, slice.more() ? encodeCursor(slice.lastSequence()) : null);
+    }
+
+    /**
+     * Name matches: in roster order when {@code prefix} is false, otherwise in lower-cased name order.
+     */
+    public List<MockEmployee> searchByName(@NonNull String name, boolean prefix, boolean ignoreCase, int offset, int limit) {
+        checkWindow(offset, limit);
+        return prefix
+                ? mockEmployees.findByNamePrefix(name, ignoreCase, offset, limit)
+                : mockEmployees.findByNameContaining(name, ignoreCase, offset, limit);
+    }
+
+    /**
+     * Employees earning between {@code min} and {@code max} inclusive, either bound open when null, lowest first.
+     */
+    public List<MockEmployee> findBySalary(Integer min, Integer max, int offset, int limit) {
+        checkWindow(offset, limit);
+        return mockEmployees.findBySalary(
+                Objects.isNull(min) ? Integer.MIN_VALUE : min,
+                Objects.isNull(max) ? Integer.MAX_VALUE : max,
+                offset,
+                limit);
+    }
+
+    public List<MockEmployee> topBySalary(int limit, boolean highestFirst) {
+        checkWindow(0, limit);
+        return mockEmployees.topBySalary(limit, highestFirst);
+    }
+
+    /**
+     * Computed from a snapshot of the roster and kept until the roster next changes.
+     */
+    public SalaryStats getSalaryStats() {
+        final var roster = mockEmployees.snapshot();
+        final var current = salaryStats;
+        if (Objects.nonNull(current) && current.roster() == roster) {
+            return current.stats();
+        }
+        final var stats = SalaryStats.of(roster);
+        salaryStats = new StatsOf(roster, stats);
+        return stats;
+    }
 
     public Optional<MockEmployee> findById(@NonNull UUID uuid) {
-        return mockEmployees.stream()
-                .filter(mockEmployee -> Objects.nonNull(mockEmployee.getId())
-                        && mockEmployee.getId().equals(uuid))
-                .findFirst();
+        return mockEmployees.findById(uuid);
     }
 
     public MockEmployee create(@NonNull CreateMockEmployeeInput input) {
@@ -43,16 +169,54 @@ public class MockEmployeeService {
     }
 
     public boolean delete(@NonNull DeleteMockEmployeeInput input) {
-        final var mockEmployee = mockEmployees.stream()
-                .filter(employee -> Objects.nonNull(employee.getName())
-                        && employee.getName().equalsIgnoreCase(input.getName()))
-                .findFirst();
-        if (mockEmployee.isPresent()) {
-            mockEmployees.remove(mockEmployee.get());
-            log.debug("Removed employee: {}", mockEmployee.get());
-            return true;
+        if (Objects.isNull(input.getName())) {
+            return false;
         }
+        final var mockEmployee = mockEmployees.removeByName(input.getName());
+        mockEmployee.ifPresent(removed -> log.debug("Removed employee: {}", removed));
+        return mockEmployee.isPresent();
+    }
 
-        return false;
+    /**
+     * Removes exactly the employee with {@code uuid}; {@link #delete} removes the oldest one with a name, which is not
+     * necessarily the one meant when names repeat. Answers with the removed employee, so a client needs no lookup
+     * before the delete to tell what it removed.
+     */
+    public Optional<MockEmployee> deleteById(@NonNull UUID uuid) {
+        final var mockEmployee = mockEmployees.removeById(uuid);
+        mockEmployee.ifPresent(removed -> log.debug("Removed employee: {}", removed));
+        return mockEmployee;
+    }
+
+    private static void checkWindow(int offset, int limit) {
+        if (offset < 0 || limit < 0) {
+            throw new IllegalArgumentException("Offset and limit must not be negative");
+        }
     }
+
+    private static void checkPageSize(int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+    }
+
+    private static String encodeCursor(long sequence) {
+        final var bytes = ByteBuffer.allocate(1 + Long.BYTES)
+                .put(CURSOR_VERSION)
+                .putLong(sequence)
+                .array();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    private static long decodeCursor(String cursor) {
+        final var bytes = Base64.getUrlDecoder().decode(cursor);
+        if (bytes.length != 1 + Long.BYTES || bytes[0] != CURSOR_VERSION) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+        return ByteBuffer.wrap(bytes, 1, Long.BYTES).getLong();
+    }
+
+    public record VersionedRoster(List<MockEmployee> employees, String version) {}
+
+    private record StatsOf(List<MockEmployee> roster, SalaryStats stats) {}
 }
@@ -0,0 +1,357 @@
+package com.reliaquest.server.service;
+
+import com.reliaquest.server.model.MockEmployee;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import lombok.NonNull;
+
+/**
+ * The mock roster, safe to read and modify from any number of request threads at once.
+ *
+ * <p>Employees are held in insertion order in a skip list keyed by a sequence number, with a hash index by id and a
+ * lower-cased name index, so lookups, adds and removes are O(1) or O(log n) and never scan the roster. A remove takes
+ * its employee out of the skip list and moves no other, so the roster keeps its order however it is read. Two more skip
+ * lists order employees by lower-cased name and by salary, so prefix and salary range queries and top-N by salary cost
+ * O(log n + k). Writers do not exclude each other: the maps are lock-free or lock-striped, and two removes of the same
+ * name claim different employees under that name's bin lock.
+ *
+ * <p>{@link #snapshot()} returns an immutable copy taken while no write is half applied, so a GET of the whole roster
+ * never sees an employee that is in one index but not another. The copy is kept until the next write, so repeated
+ * reads of an unchanged roster share it; writers only wait while a new copy is being taken.
+ *
+ * <p>A {@link ChangeListener} sees every add before the employee becomes visible and every remove once it is done, so
+ * it never hears of the removal of an employee before its addition. It hears of adds in roster order, so replaying them
+ * rebuilds the same order; that alone makes concurrent adds take turns, and only while a listener is set. Any number
+ * of listeners can be added, and each hears of every change in the order they were added.
+ */
+public class MockEmployeeStore {
+
+    private final AtomicLong nextSequence = new AtomicLong();
+    private final ConcurrentNavigableMap<Long, MockEmployee> inOrder = new ConcurrentSkipListMap<>();
+    private final ConcurrentMap<UUID, Entry> byId = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Deque<Entry>> byName = new ConcurrentHashMap<>();
+    // Ties broken by sequence, which both keeps equal keys apart and orders them as in the roster.
+    private final ConcurrentSkipListSet<Entry> byNameOrder = new ConcurrentSkipListSet<>(
+            Comparator.comparing(Entry::nameKey).thenComparingLong(Entry::sequence));
+    private final ConcurrentSkipListSet<Entry> bySalary = new ConcurrentSkipListSet<>(
+            Comparator.comparing((Entry entry) -> entry.employee().getSalary()).thenComparingLong(Entry::sequence));
+    // The skip list counts its entries by walking them.
+    private final AtomicInteger size = new AtomicInteger();
+
+    // Inverted on purpose: any number of writers share the read side, taking a snapshot holds the write side.
+    private final ReadWriteLock snapshotLock = new ReentrantReadWriteLock();
+    private volatile List<MockEmployee> snapshot;
+    private volatile ChangeListener changeListener = ChangeListener.NONE;
+    private final Lock addOrderLock = new ReentrantLock();
+
+    /**
+     * Told about every change to the store, from the writing thread and while {@link #checkpoint} is excluded.
+     */
+    public interface ChangeListener {
+        ChangeListener NONE = new ChangeListener() {
+            @Override
+            public void added(MockEmployee mockEmployee) {}
+
+            @Override
+            public void removed(MockEmployee mockEmployee) {}
+        };
+
+        void added(MockEmployee mockEmployee);
+
+        void removed(MockEmployee mockEmployee);
+
+        default ChangeListener andThen(@NonNull ChangeListener next) {
+            final var first = this;
+            return new ChangeListener() {
+                @Override
+                public void added(MockEmployee mockEmployee) {
+                    first.added(mockEmployee);
+                    next.added(mockEmployee);
+                }
+
+                @Override
+                public void removed(MockEmployee mockEmployee) {
+                    first.removed(mockEmployee);
+                    next.removed(mockEmployee);
+                }
+            };
+        }
+    }
+
+    public MockEmployeeStore(@NonNull Collection<MockEmployee> mockEmployees) {
+        mockEmployees.forEach(this::add);
+    }
+
+    public List<MockEmployee> snapshot() {
+        final var current = snapshot;
+        if (Objects.nonNull(current)) {
+            return current;
+        }
+        return checkpoint(() -> {});
+    }
+
+    /**
+     * Takes a snapshot and runs {@code atSnapshot} before any further write can start, so that whatever it does, e.g.
+     * switching to a new change log, happens exactly between the changes in the snapshot and those after it.
+     */
+    public List<MockEmployee> checkpoint(@NonNull Runnable atSnapshot) {
+        snapshotLock.writeLock().lock();
+        try {
+            if (Objects.isNull(snapshot)) {
+                snapshot = List.copyOf(inOrder.values());
+            }
+            atSnapshot.run();
+            return snapshot;
+        } finally {
+            snapshotLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Up to {@code limit} employees in roster order, starting after the one at {@code afterSequence}, or from the start
+     * when it is negative. Reads the skip list directly rather than a snapshot, so paging through the roster costs
+     * O(log n + limit) per page and sees employees added behind the cursor since the previous page.
+     */
+    public Slice slice(long afterSequence, int limit) {
+        final var employees = new ArrayList<MockEmployee>(Math.min(limit, size()));
+        long lastSequence = afterSequence;
+        final var remaining = inOrder.tailMap(afterSequence, false).entrySet().iterator();
+        while (employees.size() < limit && remaining.hasNext()) {
+            final var next = remaining.next();
+            employees.add(next.getValue());
+            lastSequence = next.getKey();
+        }
+        return new Slice(List.copyOf(employees), lastSequence, remaining.hasNext());
+    }
+
+    /**
+     * Employees whose name starts with {@code prefix}, in lower-cased name order.
+     */
+    public List<MockEmployee> findByNamePrefix(@NonNull String prefix, boolean ignoreCase, int offset, int limit) {
+        final var key = nameKey(prefix);
+        final var candidates = byNameOrder.tailSet(new Entry(Long.MIN_VALUE, null, key)).stream()
+                .takeWhile(entry -> entry.nameKey().startsWith(key))
+                .map(Entry::employee);
+        return page(
+                ignoreCase ? candidates : candidates.filter(mockEmployee -> mockEmployee.getName().startsWith(prefix)),
+                offset,
+                limit);
+    }
+
+    /**
+     * Employees whose name contains {@code query}, in roster order. No index helps here, so this scans the roster, up
+     * to the end of the requested page.
+     */
+    public List<MockEmployee> findByNameContaining(@NonNull String query, boolean ignoreCase, int offset, int limit) {
+        final var key = nameKey(query);
+        final Predicate<String> matches = ignoreCase ? name -> nameKey(name).contains(key) : name -> name.contains(query);
+        return page(
+                inOrder.values().stream()
+                        .filter(mockEmployee -> Objects.nonNull(mockEmployee.getName()))
+                        .filter(mockEmployee -> matches.test(mockEmployee.getName())),
+                offset,
+                limit);
+    }
+
+    /**
+     * Employees earning between {@code min} and {@code max} inclusive, lowest first and equal salaries in roster order.
+     */
+    public List<MockEmployee> findBySalary(int min, int max, int offset, int limit) {
+        if (min > max) {
+            return List.of();
+        }
+        final var from = new Entry(Long.MIN_VALUE, MockEmployee.builder().salary(min).build(), null);
+        final var to = new Entry(Long.MAX_VALUE, MockEmployee.builder().salary(max).build(), null);
+        return page(bySalary.subSet(from, true, to, true).stream().map(Entry::employee), offset, limit);
+    }
+
+    /**
+     * The {@code limit} highest or lowest earners, equal salaries in roster order either way. Employees without a
+     * salary are left out.
+     */
+    public List<MockEmployee> topBySalary(int limit, boolean highestFirst) {
+        if (!highestFirst) {
+            return page(bySalary.stream().map(Entry::employee), 0, limit);
+        }
+        final var top = new ArrayList<MockEmployee>(Math.min(limit, size()));
+        final var run = new ArrayDeque<MockEmployee>();
+        Integer runSalary = null;
+        for (final var descending = bySalary.descendingIterator(); descending.hasNext() && top.size() < limit; ) {
+            final var next = descending.next().employee();
+            if (!next.getSalary().equals(runSalary)) {
+                drain(run, top, limit);
+                runSalary = next.getSalary();
+            }
+            // Walking down, each run of equal salaries comes out last-added first; reversing it restores roster order.
+            run.addFirst(next);
+        }
+        drain(run, top, limit);
+        return top;
+    }
+
+    private static void drain(Deque<MockEmployee> run, List<MockEmployee> top, int limit) {
+        while (!run.isEmpty() && top.size() < limit) {
+            top.add(run.pollFirst());
+        }
+        run.clear();
+    }
+
+    private static List<MockEmployee> page(Stream<MockEmployee> matches, int offset, int limit) {
+        return matches.skip(offset).limit(limit).toList();
+    }
+
+    /**
+     * Takes effect from the next write on; call it before the store is shared, or while nothing writes to it.
+     */
+    public synchronized void addChangeListener(@NonNull ChangeListener changeListener) {
+        this.changeListener =
+                this.changeListener == ChangeListener.NONE ? changeListener : this.changeListener.andThen(changeListener);
+    }
+
+    public Optional<MockEmployee> findById(@NonNull UUID id) {
+        return Optional.ofNullable(byId.get(id)).map(Entry::employee);
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    public void add(@NonNull MockEmployee mockEmployee) {
+        snapshotLock.readLock().lock();
+        try {
+            final var entry = sequenced(mockEmployee);
+            inOrder.put(entry.sequence(), mockEmployee);
+            size.incrementAndGet();
+            if (Objects.nonNull(mockEmployee.getId())) {
+                byId.put(mockEmployee.getId(), entry);
+            }
+            if (Objects.nonNull(entry.nameKey())) {
+                byName.compute(entry.nameKey(), (name, entries) -> {
+                    final var sameName = Objects.isNull(entries) ? new ArrayDeque<Entry>() : entries;
+                    sameName.addLast(entry);
+                    return sameName;
+                });
+                byNameOrder.add(entry);
+            }
+            if (Objects.nonNull(mockEmployee.getSalary())) {
+                bySalary.add(entry);
+            }
+            snapshot = null;
+        } finally {
+            snapshotLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Removes the longest-held employee with this name, ignoring case.
+     */
+    public Optional<MockEmployee> removeByName(@NonNull String name) {
+        snapshotLock.readLock().lock();
+        try {
+            final var key = nameKey(name);
+            while (true) {
+                final var claimed = new Entry[1];
+                byName.computeIfPresent(key, (ignored, entries) -> {
+                    claimed[0] = entries.pollFirst();
+                    return entries.isEmpty() ? null : entries;
+                });
+                final var entry = claimed[0];
+                if (Objects.isNull(entry)) {
+                    return Optional.empty();
+                }
+                final var id = entry.employee().getId();
+                // Lost to a concurrent removeById of the same employee; try the next one with this name.
+                if (Objects.nonNull(id) && !byId.remove(id, entry)) {
+                    continue;
+                }
+                return Optional.of(removed(entry));
+            }
+        } finally {
+            snapshotLock.readLock().unlock();
+        }
+    }
+
+    public Optional<MockEmployee> removeById(@NonNull UUID id) {
+        snapshotLock.readLock().lock();
+        try {
+            final var entry = byId.remove(id);
+            if (Objects.isNull(entry)) {
+                return Optional.empty();
+            }
+            if (Objects.nonNull(entry.nameKey())) {
+                byName.computeIfPresent(entry.nameKey(), (ignored, entries) -> {
+                    entries.remove(entry);
+                    return entries.isEmpty() ? null : entries;
+                });
+            }
+            return Optional.of(removed(entry));
+        } finally {
+            snapshotLock.readLock().unlock();
+        }
+    }
+
+    private Entry sequenced(MockEmployee mockEmployee) {
+        final var listener = changeListener;
+        if (listener == ChangeListener.NONE) {
+            return new Entry(nextSequence.getAndIncrement(), mockEmployee, nameKeyOf(mockEmployee));
+        }
+        addOrderLock.lock();
+        try {
+            listener.added(mockEmployee);
+            return new Entry(nextSequence.getAndIncrement(), mockEmployee, nameKeyOf(mockEmployee));
+        } finally {
+            addOrderLock.unlock();
+        }
+    }
+
+    private MockEmployee removed(Entry entry) {
+        inOrder.remove(entry.sequence());
+        size.decrementAndGet();
+        if (Objects.nonNull(entry.nameKey())) {
+            byNameOrder.remove(entry);
+        }
+        if (Objects.nonNull(entry.employee().getSalary())) {
+            bySalary.remove(entry);
+        }
+        snapshot = null;
+        changeListener.removed(entry.employee());
+        return entry.employee();
+    }
+
+    private static String nameKey(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    private static String nameKeyOf(MockEmployee mockEmployee) {
+        return Objects.isNull(mockEmployee.getName()) ? null : nameKey(mockEmployee.getName());
+    }
+
+    /**
+     * @param lastSequence where the next slice starts, opaque to callers
+     * @param more whether any employee followed this slice when it was taken
+     */
+    public record Slice(List<MockEmployee> employees, long lastSequence, boolean more) {}
+
+    private record Entry(long sequence, MockEmployee employee, String nameKey) {}
+}
@@ -0,0 +1,117 @@
+package com.reliaquest.server.service;
+
+import com.reliaquest.server.model.MockEmployee;
+import com.reliaquest.server.model.MockRosterChange;
+import com.reliaquest.server.model.MockRosterChanges;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import lombok.NonNull;
+
+/**
+ * The most recent creates and deletes of a {@link MockEmployeeStore}, each numbered with the roster version it
+ * produced, so a client holding the roster at one version can catch up by applying only what changed since.
+ *
+ * <p>Only the last {@code capacity} changes are kept, in a ring. Versions are given out as opaque strings that also
+ * name this log, which starts over from version 0 on every start of the server: a version from another log, or one
+ * whose following changes have already been dropped, gets no changes and the client has to fetch the whole roster.
+ */
+public class MockRosterChangeLog implements MockEmployeeStore.ChangeListener {
+
+    private final long epoch = ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE;
+    private final MockRosterChange[] changes;
+    private final Lock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    // The version of the latest change; the change producing version v is at changes[(v - 1) % capacity].
+    private long version;
+
+    public MockRosterChangeLog(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Change log capacity must be positive");
+        }
+        this.changes = new MockRosterChange[capacity];
+    }
+
+    @Override
+    public void added(MockEmployee mockEmployee) {
+        append(new MockRosterChange(MockRosterChange.Type.ADDED, mockEmployee));
+    }
+
+    @Override
+    public void removed(MockEmployee mockEmployee) {
+        append(new MockRosterChange(MockRosterChange.Type.REMOVED, mockEmployee));
+    }
+
+    public String currentVersion() {
+        lock.lock();
+        try {
+            return format(version);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * The changes after {@code since}, waiting up to {@code maxWait} for one when there are none yet.
+     *
+     * @return empty when {@code since} is not a version of this log, or its following changes are no longer kept
+     * @throws IllegalArgumentException when {@code since} is not a version at all
+     */
+    public Optional<MockRosterChanges> changesSince(@NonNull String since, @NonNull Duration maxWait) {
+        final var separator = since.indexOf('-');
+        if (separator < 1) {
+            throw new IllegalArgumentException("Invalid version: " + since);
+        }
+        final long sinceEpoch = Long.parseUnsignedLong(since.substring(0, separator), 16);
+        final long sinceVersion = Long.parseLong(since.substring(separator + 1));
+        lock.lock();
+        try {
+            if (sinceEpoch != epoch || sinceVersion < version - changes.length || sinceVersion > version) {
+                return Optional.empty();
+            }
+            long remainingNanos = maxWait.toNanos();
+            while (version == sinceVersion && remainingNanos > 0) {
+                try {
+                    remainingNanos = changed.awaitNanos(remainingNanos);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+            // Changes appended while waiting may have overwritten the oldest ones we were after.
+            if (sinceVersion < version - changes.length) {
+                return Optional.empty();
+            }
+            final var newer = new ArrayList<MockRosterChange>((int) (version - sinceVersion));
+            for (long next = sinceVersion + 1; next <= version; next++) {
+                newer.add(changes[slot(next)]);
+            }
+            return Optional.of(new MockRosterChanges(format(version), newer));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void append(MockRosterChange change) {
+        lock.lock();
+        try {
+            version++;
+            changes[slot(version)] = change;
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int slot(long version) {
+        return (int) ((version - 1) % changes.length);
+    }
+
+    private String format(long version) {
+        return Long.toHexString(epoch) + "-" + version;
+    }
+}
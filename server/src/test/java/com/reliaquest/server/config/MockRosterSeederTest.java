@@ -0,0 +1,56 @@
+package com.reliaquest.server.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.reliaquest.server.model.MockEmployee;
+import com.reliaquest.server.model.Response;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Locale;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class MockRosterSeederTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void generate_WithSameSeed_ShouldGiveSameRosterAcrossChunks() {
+        final int count = MockRosterSeeder.CHUNK_SIZE + 5;
+
+        final var first = MockRosterSeeder.generate(count, 42L, Locale.US);
+        final var second = MockRosterSeeder.generate(count, 42L, Locale.US);
+
+        assertEquals(count, first.size());
+        assertEquals(first, second);
+        assertEquals(count, new HashSet<>(first.stream().map(MockEmployee::getId).toList()).size());
+        assertNotEquals(first, MockRosterSeeder.generate(count, 43L, Locale.US));
+    }
+
+    @Test
+    void read_ShouldAcceptSavedResponseOrBareArray() throws IOException {
+        final var roster = MockRosterSeeder.generate(100, 7L, Locale.US);
+        final var response = directory.resolve("response.json");
+        final var array = directory.resolve("array.json");
+        objectMapper.writeValue(response.toFile(), Response.handledWith(roster));
+        objectMapper.writeValue(array.toFile(), roster);
+
+        assertEquals(roster, MockRosterSeeder.read(objectMapper, response));
+        assertEquals(roster, MockRosterSeeder.read(objectMapper, array));
+    }
+
+    @Test
+    void read_WhenFileHoldsNoEmployeeArray_ShouldFail() throws IOException {
+        final var file = Files.writeString(directory.resolve("roster.json"), "{\"status\":\"Successfully processed request.\"}");
+
+        assertThrows(IOException.class, () -> MockRosterSeeder.read(objectMapper, file));
+    }
+}
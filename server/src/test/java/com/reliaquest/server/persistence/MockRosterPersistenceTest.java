@@ -0,0 +1,85 @@
+package com.reliaquest.server.persistence;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.reliaquest.server.config.MockRosterSeeder;
+import com.reliaquest.server.model.MockEmployee;
+import com.reliaquest.server.service.MockEmployeeStore;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class MockRosterPersistenceTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void restore_AfterCleanShutdown_ShouldGiveSameRoster() throws IOException {
+        final var persistence = new MockRosterPersistence(directory, Duration.ZERO);
+        final var store = persistence.track(new MockEmployeeStore(MockRosterSeeder.generate(500, 1L, Locale.US)));
+        store.add(employee("Zo\u00eb \u00c5ngstr\u00f6m", null));
+        store.removeByName(store.snapshot().get(0).getName());
+        final var expected = store.snapshot();
+        persistence.close();
+
+        final var restarted = new MockRosterPersistence(directory, Duration.ZERO);
+        assertTrue(restarted.hasSnapshot());
+        assertEquals(expected, restarted.restore().snapshot());
+        restarted.close();
+    }
+
+    @Test
+    void restore_AfterCrash_ShouldReplayLoggedChanges() throws IOException {
+        final var persistence = new MockRosterPersistence(directory, Duration.ZERO);
+        final var store = persistence.track(new MockEmployeeStore(MockRosterSeeder.generate(50, 2L, Locale.US)));
+        final var added = employee("Added Later", 61000);
+        store.add(added);
+        store.removeById(store.snapshot().get(3).getId());
+        store.removeById(added.getId());
+        store.add(employee("Added Last", null));
+        final var expected = store.snapshot();
+        // No close(): only the snapshot written at start and the change log are on disk.
+
+        final var restored = new MockRosterPersistence(directory, Duration.ZERO).restore();
+
+        assertEquals(expected, restored.snapshot());
+        assertFalse(restored.findById(added.getId()).isPresent());
+    }
+
+    @Test
+    void restore_WithTornLastRecord_ShouldKeepEarlierChanges() throws IOException {
+        final var persistence = new MockRosterPersistence(directory, Duration.ZERO);
+        final var store = persistence.track(new MockEmployeeStore(MockRosterSeeder.generate(10, 3L, Locale.US)));
+        store.add(employee("Kept", 50000));
+        final var expected = store.snapshot();
+        store.add(employee("Torn", 50000));
+        final var log = directory.resolve("journal-1.log");
+        try (final var channel = Files.newByteChannel(log, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 3);
+        }
+
+        final var restored = new MockRosterPersistence(directory, Duration.ZERO).restore();
+
+        assertEquals(expected, restored.snapshot());
+    }
+
+    private static MockEmployee employee(String name, Integer salary) {
+        return MockEmployee.builder()
+                .id(UUID.randomUUID())
+                .name(name)
+                .salary(salary)
+                .age(30)
+                .title("Engineer")
+                .email("someone@company.com")
+                .build();
+    }
+}
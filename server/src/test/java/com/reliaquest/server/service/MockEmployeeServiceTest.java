@@ -0,0 +1,208 @@
+package com.reliaquest.server.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.reliaquest.server.model.MockEmployee;
+import com.reliaquest.server.model.MockRosterChange;
+import com.reliaquest.server.model.SalaryStats;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+class MockEmployeeServiceTest {
+
+    private final List<MockEmployee> roster = IntStream.range(0, 25)
+            .mapToObj(i -> MockEmployee.builder()
+                    .id(UUID.randomUUID())
+                    .name("Employee " + i)
+                    .build())
+            .toList();
+    private final MockEmployeeStore store = new MockEmployeeStore(roster);
+    private final MockEmployeeService service = new MockEmployeeService(null, store);
+
+    @Test
+    void getPage_ShouldSliceSnapshotAndPointAtNextOffset() {
+        final var first = service.getPage(0, 10);
+        final var last = service.getPage(20, 10);
+
+        assertEquals(roster.subList(0, 10), first.employees());
+        assertEquals(25, first.total());
+        assertEquals(10, first.nextOffset());
+        assertEquals(roster.subList(20, 25), last.employees());
+        assertNull(last.nextOffset());
+        assertEquals(List.of(), service.getPage(30, 10).employees());
+    }
+
+    @Test
+    void getPageAfter_ShouldResumeAfterLastEmployeeDespiteChangesBetweenPages() {
+        final var first = service.getPageAfter(null, 10);
+        store.removeById(roster.get(9).getId());
+        store.removeById(roster.get(10).getId());
+        final var added = MockEmployee.builder().id(UUID.randomUUID()).name("Added").build();
+        store.add(added);
+
+        final var seen = new ArrayList<>(first.employees());
+        var cursor = first.nextCursor();
+        while (cursor != null) {
+            final var page = service.getPageAfter(cursor, 10);
+            seen.addAll(page.employees());
+            cursor = page.nextCursor();
+        }
+
+        final var expected = new ArrayList<>(roster.subList(0, 10));
+        expected.addAll(roster.subList(11, 25));
+        expected.add(added);
+        assertEquals(expected, seen);
+    }
+
+    @Test
+    void paging_WithBadLimitOrCursor_ShouldBeRejected() {
+        assertThrows(IllegalArgumentException.class, () -> service.getPage(0, 0));
+        assertThrows(IllegalArgumentException.class, () -> service.getPage(-1, 10));
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> service.getPageAfter(null, MockEmployeeService.MAX_PAGE_SIZE + 1));
+        assertThrows(IllegalArgumentException.class, () -> service.getPageAfter("not a cursor", 10));
+        assertThrows(IllegalArgumentException.class, () -> service.getPageAfter("AQ", 10));
+    }
+
+    @Test
+    void searchByName_ShouldMatchPrefixInNameOrderAndContainsInRosterOrder() {
+        final var bob = employee("Bob Smith", "Engineer", 70_000);
+        final var alice = employee("alice Brown", "Engineer", 50_000);
+        final var alan = employee("Alan Smithee", "Manager", 90_000);
+        final var service = serviceOf(bob, alice, alan);
+
+        assertEquals(List.of(alan, alice), service.searchByName("al", true, true, 0, 10));
+        assertEquals(List.of(alan), service.searchByName("Al", true, false, 0, 10));
+        assertEquals(List.of(bob, alan), service.searchByName("Smith", false, false, 0, 10));
+        assertEquals(List.of(alan), service.searchByName("smith", false, true, 1, 10));
+        assertThrows(IllegalArgumentException.class, () -> service.searchByName("al", true, true, -1, 10));
+    }
+
+    @Test
+    void salaryQueries_ShouldUseSalaryOrderWithTiesInRosterOrder() {
+        final var first = employee("First", "Engineer", 60_000);
+        final var low = employee("Low", "Engineer", 40_000);
+        final var second = employee("Second", "Manager", 60_000);
+        final var unpaid = employee("Unpaid", "Intern", null);
+        final var high = employee("High", "Manager", 90_000);
+        final var service = serviceOf(first, low, second, unpaid, high);
+
+        assertEquals(List.of(high, first, second), service.topBySalary(3, true));
+        assertEquals(List.of(high, first), service.topBySalary(2, true));
+        assertEquals(List.of(low, first, second, high), service.topBySalary(10, false));
+        assertEquals(List.of(first, second), service.findBySalary(50_000, 60_000, 0, 10));
+        assertEquals(List.of(second, high), service.findBySalary(60_000, null, 1, 10));
+        assertEquals(List.of(), service.findBySalary(70_000, 60_000, 0, 10));
+    }
+
+    @Test
+    void getSalaryStats_ShouldSummarizeByTitleAndReuseResultUntilRosterChanges() {
+        final var service = serviceOf(
+                employee("A", "Engineer", 10),
+                employee("B", "Engineer", 20),
+                employee("C", "Engineer", 30),
+                employee("D", "Engineer", 40),
+                employee("E", "Manager", 100),
+                employee("F", "Intern", null));
+
+        final var stats = service.getSalaryStats();
+
+        assertEquals(6, stats.employees());
+        assertEquals(new SalaryStats.Summary(5, 10, 100, 40.0, 30, 100, 100), stats.all());
+        assertEquals(
+                Map.of(
+                        "Engineer", new SalaryStats.Summary(4, 10, 40, 25.0, 20, 40, 40),
+                        "Manager", new SalaryStats.Summary(1, 100, 100, 100.0, 100, 100, 100)),
+                stats.byTitle());
+        assertSame(stats, service.getSalaryStats());
+    }
+
+    @Test
+    void getChangesSince_ShouldReplayCreatesAndDeletesAfterRosterVersion() {
+        final var before = service.getVersionedRoster();
+        final var added = employee("Added", "Engineer", 1);
+        store.add(added);
+        store.removeById(roster.get(0).getId());
+
+        final var changes = service.getChangesSince(before.version(), Duration.ZERO).orElseThrow();
+
+        assertEquals(
+                List.of(
+                        new MockRosterChange(MockRosterChange.Type.ADDED, added),
+                        new MockRosterChange(MockRosterChange.Type.REMOVED, roster.get(0))),
+                changes.changes());
+        assertEquals(service.getVersionedRoster().version(), changes.version());
+        assertEquals(List.of(), service.getChangesSince(changes.version(), Duration.ZERO).orElseThrow().changes());
+    }
+
+    @Test
+    void getChangesSince_WhenChangesAreNoLongerKept_ShouldBeEmpty() {
+        final var store = new MockEmployeeStore(List.of());
+        final var service = new MockEmployeeService(null, store, 2);
+        final var start = service.getVersionedRoster().version();
+        IntStream.range(0, 3).forEach(i -> store.add(employee("Employee " + i, "Engineer", i)));
+
+        assertTrue(service.getChangesSince(start, Duration.ZERO).isEmpty());
+        assertTrue(service.getChangesSince("123-0", Duration.ZERO).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> service.getChangesSince("0", Duration.ZERO));
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> service.getChangesSince(start, MockEmployeeService.MAX_CHANGES_WAIT.plusMillis(1)));
+    }
+
+    @Test
+    void getChangesSince_WithWait_ShouldAnswerOnceSomethingChanges() throws Exception {
+        final var version = service.getVersionedRoster().version();
+        final var added = employee("Added", "Engineer", 1);
+        final var adder = new Thread(() -> {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            store.add(added);
+        });
+        adder.start();
+
+        final var changes = service.getChangesSince(version, Duration.ofSeconds(10)).orElseThrow();
+        adder.join();
+
+        assertEquals(List.of(new MockRosterChange(MockRosterChange.Type.ADDED, added)), changes.changes());
+    }
+
+    @Test
+    void deleteById_WithRepeatedName_ShouldRemoveOnlyThatEmployee() {
+        final var older = employee("Alice Brown", "Engineer", 50_000);
+        final var newer = employee("Alice Brown", "Architect", 90_000);
+        final var service = serviceOf(older, newer);
+
+        assertEquals(Optional.of(newer), service.deleteById(newer.getId()));
+        assertEquals(Optional.empty(), service.deleteById(newer.getId()));
+
+        assertEquals(List.of(older), service.getMockEmployees());
+    }
+
+    private static MockEmployeeService serviceOf(MockEmployee... employees) {
+        return new MockEmployeeService(null, new MockEmployeeStore(List.of(employees)));
+    }
+
+    private static MockEmployee employee(String name, String title, Integer salary) {
+        return MockEmployee.builder()
+                .id(UUID.randomUUID())
+                .name(name)
+                .title(title)
+                .salary(salary)
+                .build();
+    }
+}
@@ -0,0 +1,154 @@
+package com.reliaquest.server.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.reliaquest.server.model.MockEmployee;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+class MockEmployeeStoreTest {
+
+    private static final int WRITERS = 16;
+    private static final int OPERATIONS_PER_WRITER = 5_000;
+    private static final int SHARED_NAME_COPIES = 2_000;
+
+    @Test
+    void removeByName_ShouldRemoveOldestMatchIgnoringCase() {
+        final var first = employee("Alice Brown");
+        final var second = employee("ALICE BROWN");
+        final var store = new MockEmployeeStore(List.of(first, employee("Bob Smith"), second));
+
+        assertEquals(Optional.of(first), store.removeByName("alice brown"));
+        assertEquals(Optional.empty(), store.findById(first.getId()));
+        assertEquals(Optional.of(second), store.findById(second.getId()));
+        assertEquals(2, store.snapshot().size());
+        assertEquals(Optional.of(second), store.removeByName("Alice Brown"));
+        assertEquals(Optional.empty(), store.removeByName("Alice Brown"));
+    }
+
+    @Test
+    void removes_ShouldKeepRemainingEmployeesInRosterOrder() {
+        final var alice = employee("Alice Brown");
+        final var bob = employee("Bob Smith");
+        final var carol = employee("Carol White");
+        final var dave = employee("Dave Green");
+        final var store = new MockEmployeeStore(List.of(alice, bob, carol, dave));
+
+        store.removeById(alice.getId());
+        store.removeByName("Carol White");
+        final var erin = employee("Erin Black");
+        store.add(erin);
+
+        assertEquals(List.of(bob, dave, erin), store.snapshot());
+        assertEquals(List.of(bob, dave, erin), store.slice(-1, 10).employees());
+    }
+
+    @Test
+    void concurrentWritesAndSnapshots_ShouldKeepIndexesAndSnapshotsConsistent() throws Exception {
+        final var seeded = IntStream.range(0, SHARED_NAME_COPIES)
+                .mapToObj(i -> employee("Shared Name"))
+                .toList();
+        final var store = new MockEmployeeStore(seeded);
+        final var writers = Executors.newFixedThreadPool(WRITERS * 2);
+        final var readers = Executors.newFixedThreadPool(4);
+        final var start = new CountDownLatch(1);
+        final var writing = new AtomicBoolean(true);
+        final var sharedRemoved = new AtomicInteger();
+        final var survivors = new ConcurrentLinkedQueue<MockEmployee>();
+        final var inconsistencies = new ConcurrentLinkedQueue<String>();
+
+        try {
+            final List<Future<?>> writes = new ArrayList<>();
+            for (int writer = 0; writer < WRITERS; writer++) {
+                final int writerId = writer;
+                // Adds employees under its own names, removing every other one again.
+                writes.add(writers.submit(() -> {
+                    await(start);
+                    for (int i = 0; i < OPERATIONS_PER_WRITER; i++) {
+                        final var added = employee("Writer " + writerId + " Employee " + i);
+                        store.add(added);
+                        if (i % 2 == 1) {
+                            if (store.removeByName(added.getName().toUpperCase()).isEmpty()) {
+                                inconsistencies.add("could not remove " + added.getName());
+                            }
+                        } else {
+                            survivors.add(added);
+                        }
+                    }
+                }));
+                // Races every other writer of this kind to remove the shared name.
+                writes.add(writers.submit(() -> {
+                    await(start);
+                    while (store.removeByName("shared name").isPresent()) {
+                        sharedRemoved.incrementAndGet();
+                    }
+                }));
+            }
+            final List<Future<?>> reads = new ArrayList<>();
+            for (int reader = 0; reader < 4; reader++) {
+                reads.add(readers.submit(() -> {
+                    await(start);
+                    while (writing.get()) {
+                        final var snapshot = store.snapshot();
+                        final var ids = new HashSet<UUID>();
+                        for (MockEmployee mockEmployee : snapshot) {
+                            if (!ids.add(mockEmployee.getId())) {
+                                inconsistencies.add("duplicate id in snapshot " + mockEmployee.getId());
+                            }
+                        }
+                    }
+                }));
+            }
+
+            start.countDown();
+            for (Future<?> write : writes) {
+                write.get(2, TimeUnit.MINUTES);
+            }
+            writing.set(false);
+            for (Future<?> read : reads) {
+                read.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            writers.shutdownNow();
+            readers.shutdownNow();
+        }
+
+        assertEquals(List.of(), List.copyOf(inconsistencies));
+        assertEquals(SHARED_NAME_COPIES, sharedRemoved.get());
+
+        final var snapshot = store.snapshot();
+        assertEquals(WRITERS * OPERATIONS_PER_WRITER / 2, snapshot.size());
+        assertEquals(snapshot.size(), store.size());
+        assertEquals(new HashSet<>(survivors), new HashSet<>(snapshot));
+        for (MockEmployee survivor : survivors) {
+            assertEquals(Optional.of(survivor), store.findById(survivor.getId()));
+        }
+        assertTrue(seeded.stream().allMatch(removed -> store.findById(removed.getId()).isEmpty()));
+    }
+
+    private static MockEmployee employee(String name) {
+        return new MockEmployee(UUID.randomUUID(), name, 50000, 30, "Engineer", "employee@company.com");
+    }
+
+    private static void await(CountDownLatch start) {
+        try {
+            start.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}